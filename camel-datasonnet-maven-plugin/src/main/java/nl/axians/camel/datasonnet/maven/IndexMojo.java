@@ -0,0 +1,107 @@
+package nl.axians.camel.datasonnet.maven;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the index of the DataSonnet libraries ({@code .libsonnet} files) in the output directory of a project to
+ * {@code META-INF/datasonnet/libraries.idx}. The index lists the path of every library on the classpath, one per line.
+ * At runtime the DataSonnet language reads the index instead of scanning the whole classpath for libraries.
+ */
+@Mojo(name = "index", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
+public class IndexMojo extends AbstractMojo {
+
+    /**
+     * The location of the index in the output directory. Must match the location the DataSonnet language reads.
+     */
+    static final String INDEX_LOCATION = "META-INF/datasonnet/libraries.idx";
+
+    private static final String EXTENSION = ".libsonnet";
+
+    /**
+     * The directory with the classes and resources of the project.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    /**
+     * Whether to skip writing the index.
+     */
+    @Parameter(property = "datasonnet.index.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * Writes the index. No index is written if the project has no libraries, so an empty index does not hide the
+     * libraries of projects that are not indexed.
+     *
+     * @throws MojoExecutionException If the output directory could not be read or the index could not be written.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the DataSonnet library index");
+            return;
+        }
+
+        final Path root = outputDirectory.toPath();
+        if (!Files.isDirectory(root)) {
+            getLog().debug("No output directory " + root + ", skipping the DataSonnet library index");
+            return;
+        }
+
+        final List<String> libraries = findLibraries(root);
+        final Path index = root.resolve(INDEX_LOCATION);
+        try {
+            if (libraries.isEmpty()) {
+                getLog().info("No DataSonnet libraries found in " + root);
+                Files.deleteIfExists(index);
+                return;
+            }
+
+            Files.createDirectories(index.getParent());
+            Files.write(index, libraries, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write the DataSonnet library index " + index, e);
+        }
+
+        getLog().info("Indexed " + libraries.size() + " DataSonnet libraries in " + index);
+    }
+
+    /**
+     * Find the DataSonnet libraries in a directory.
+     *
+     * @param theRoot The directory.
+     * @return The sorted paths of the libraries relative to the directory, with {@code /} as separator.
+     * @throws MojoExecutionException If the directory could not be read.
+     */
+    private List<String> findLibraries(final Path theRoot) throws MojoExecutionException {
+        try (Stream<Path> files = Files.walk(theRoot)) {
+            final List<String> libraries = new ArrayList<>();
+            files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .map(file -> theRoot.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .sorted()
+                    .forEach(path -> {
+                        getLog().debug("Found DataSonnet library " + path);
+                        libraries.add(path);
+                    });
+
+            return libraries;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to search " + theRoot + " for DataSonnet libraries", e);
+        }
+    }
+
+}
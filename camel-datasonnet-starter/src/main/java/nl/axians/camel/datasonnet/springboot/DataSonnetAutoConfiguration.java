@@ -1,14 +1,27 @@
 package nl.axians.camel.datasonnet.springboot;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import nl.axians.camel.language.datasonnet.DatasonnetLanguage;
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.Language;
+import org.apache.camel.spi.LanguageCustomizer;
+import org.apache.camel.spring.boot.CamelAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * The Auto-configuration class for the DataSonnet type converters.
+ * The Auto-configuration class for the DataSonnet type converters, the DataSonnet language options and the metrics of
+ * the cache of compiled DataSonnet scripts.
  */
 @Slf4j
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSonnetLanguageConfiguration.class)
+@AutoConfigureAfter({CamelAutoConfiguration.class})
 public class DataSonnetAutoConfiguration {
 
     /**
@@ -21,4 +34,53 @@ public class DataSonnetAutoConfiguration {
         return new DataSonnetTypeConverters();
     }
 
+    /**
+     * Create a customizer that applies the {@code camel.language.datasonnet} properties to the DataSonnet language.
+     *
+     * @param theConfiguration The DataSonnet language configuration.
+     * @return The {@link LanguageCustomizer}.
+     */
+    @Bean
+    public LanguageCustomizer configureDataSonnetLanguage(final DataSonnetLanguageConfiguration theConfiguration) {
+        return new LanguageCustomizer() {
+
+            @Override
+            public void configure(final String theName, final Language theTarget) {
+                final DatasonnetLanguage language = (DatasonnetLanguage) theTarget;
+                language.setCacheSize(theConfiguration.getCacheSize());
+                language.setCacheReferenceType(theConfiguration.getCacheReferenceType());
+                language.setCacheExpireAfterAccess(theConfiguration.getCacheExpireAfterAccess());
+                language.setStartupCompileParallelism(theConfiguration.getStartupCompileParallelism());
+                language.setWatchLibraryPaths(theConfiguration.isWatchLibraryPaths());
+            }
+
+            @Override
+            public boolean isEnabled(final String theName, final Language theTarget) {
+                return theTarget instanceof DatasonnetLanguage;
+            }
+
+        };
+    }
+
+    /**
+     * The metrics of the cache of compiled DataSonnet scripts, if Micrometer is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class DataSonnetMetricsConfiguration {
+
+        /**
+         * Create the metrics of the cache of compiled DataSonnet scripts.
+         *
+         * @param theCamelContext The camel context that holds the DataSonnet language.
+         * @return The {@link DataSonnetMetrics}.
+         */
+        @Bean
+        @ConditionalOnBean(CamelContext.class)
+        public DataSonnetMetrics dataSonnetMetrics(final CamelContext theCamelContext) {
+            return new DataSonnetMetrics(theCamelContext);
+        }
+
+    }
+
 }
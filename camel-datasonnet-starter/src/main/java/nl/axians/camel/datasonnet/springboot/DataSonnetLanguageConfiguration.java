@@ -0,0 +1,44 @@
+package nl.axians.camel.datasonnet.springboot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The configuration of the DataSonnet language.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "camel.language.datasonnet")
+public class DataSonnetLanguageConfiguration {
+
+    /**
+     * The maximum number of compiled DataSonnet scripts in the cache. The default is 1000.
+     */
+    private int cacheSize = 1000;
+
+    /**
+     * The type of reference the compiled DataSonnet scripts are held with, i.e. {@code strong} or {@code soft}. The
+     * default is {@code strong}.
+     */
+    private String cacheReferenceType = "strong";
+
+    /**
+     * The number of seconds after the last use of a compiled DataSonnet script after which it is evicted. If 0, the
+     * scripts do not expire.
+     */
+    private long cacheExpireAfterAccess;
+
+    /**
+     * The maximum number of threads that compile the DataSonnet scripts of the routes when the context starts. If 0,
+     * the number of available processors is used.
+     */
+    private int startupCompileParallelism;
+
+    /**
+     * Whether the DataSonnet libraries in the library paths of expressions are watched for changes. When a library
+     * changes, the compiled scripts that import it are compiled again on their next use.
+     */
+    private boolean watchLibraryPaths = true;
+
+}
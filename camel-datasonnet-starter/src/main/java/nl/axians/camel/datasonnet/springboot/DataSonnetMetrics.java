@@ -0,0 +1,85 @@
+package nl.axians.camel.datasonnet.springboot;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.language.datasonnet.DatasonnetLanguage;
+import nl.axians.camel.language.datasonnet.DatasonnetMapperCache;
+import org.apache.camel.CamelContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the statistics of the cache of compiled DataSonnet scripts as Micrometer metrics.
+ */
+public class DataSonnetMetrics implements MeterBinder {
+
+    private final CamelContext camelContext;
+
+    /**
+     * Create a new instance.
+     *
+     * @param theCamelContext The camel context that holds the DataSonnet language.
+     */
+    public DataSonnetMetrics(@Nonnull final CamelContext theCamelContext) {
+        camelContext = theCamelContext;
+    }
+
+    /**
+     * Register the metrics of the cache of compiled DataSonnet scripts.
+     *
+     * @param theRegistry The registry to register the metrics with.
+     */
+    @Override
+    public void bindTo(@Nonnull final MeterRegistry theRegistry) {
+        counter(theRegistry, "datasonnet.mapper.cache.hits", "The number of lookups that found a compiled script.",
+                DatasonnetMapperCache::getHits);
+        counter(theRegistry, "datasonnet.mapper.cache.misses", "The number of lookups that did not find a compiled script.",
+                DatasonnetMapperCache::getMisses);
+        counter(theRegistry, "datasonnet.mapper.cache.evictions", "The number of compiled scripts that were evicted.",
+                DatasonnetMapperCache::getEvictions);
+
+        Gauge.builder("datasonnet.mapper.cache.size", this, metrics -> metrics.getCache().size())
+                .description("The number of compiled scripts in the cache.")
+                .register(theRegistry);
+
+        FunctionTimer.builder("datasonnet.mapper.compile", this,
+                        metrics -> metrics.getCache().getCompilations(),
+                        metrics -> metrics.getCache().getCompileTime(TimeUnit.NANOSECONDS),
+                        TimeUnit.NANOSECONDS)
+                .description("The compilations of DataSonnet scripts.")
+                .register(theRegistry);
+    }
+
+    /**
+     * Register a counter for a statistic of the cache.
+     *
+     * @param theRegistry    The registry to register the counter with.
+     * @param theName        The name of the counter.
+     * @param theDescription The description of the counter.
+     * @param theStatistic   The function that reads the statistic from the cache.
+     */
+    private void counter(@Nonnull final MeterRegistry theRegistry,
+                         @Nonnull final String theName,
+                         @Nonnull final String theDescription,
+                         @Nonnull final ToDoubleFunction<DatasonnetMapperCache> theStatistic) {
+        FunctionCounter.builder(theName, this, metrics -> theStatistic.applyAsDouble(metrics.getCache()))
+                .description(theDescription)
+                .register(theRegistry);
+    }
+
+    /**
+     * Get the cache of compiled DataSonnet scripts. The language is resolved on every call, because the cache is
+     * replaced when the options of the language change.
+     *
+     * @return The cache of compiled DataSonnet scripts.
+     */
+    private DatasonnetMapperCache getCache() {
+        return ((DatasonnetLanguage) camelContext.resolveLanguage("datasonnet")).getMapperCache();
+    }
+
+}
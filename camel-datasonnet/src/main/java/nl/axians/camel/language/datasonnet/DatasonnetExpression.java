@@ -18,15 +18,12 @@ import org.apache.camel.support.ExpressionAdapter;
 import org.apache.camel.util.IOHelper;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.regex.Matcher;
 
@@ -63,6 +60,10 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
 
     private DatasonnetLanguage language;
 
+    private Expression placeholder;
+
+    private String cacheKey;
+
     @Getter
     @Setter
     private List<DataSonnetInput> inputs;
@@ -112,16 +113,27 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
 
         // Verify that the expression is not a property placeholder.
         // This means that the expression is not a constant expression and cannot be initialized upfront.
-        if (expression.startsWith("${"))
+        if (expression.startsWith("${")) {
+            placeholder = theContext.resolveLanguage("simple").createExpression(name);
             return;
+        }
 
-        language.computeIfMiss(name, () -> {
+        cacheKey = getCacheKey(expression);
+        language.register(cacheKey, name, () -> {
             log.info("Initializing Datasonnet expression {}", name);
-            return createDataSonnetMapper(expression);
+            return createDataSonnetMapper(cacheKey, expression);
         });
     }
 
-    private Mapper createDataSonnetMapper(final String expression) {
+    /**
+     * Compile a Datasonnet script. If the expression has library paths, the libraries the script imports are tracked,
+     * so the compiled script is invalidated when one of them changes.
+     *
+     * @param theKey     The key of the compiled script in the cache.
+     * @param expression The Datasonnet script.
+     * @return The compiled script.
+     */
+    private Mapper createDataSonnetMapper(final String theKey, final String expression) {
         final Set<DataSonnetInput> allInputs = new HashSet<>();
         allInputs.add(DataSonnetInput.of("body", null));
 
@@ -131,9 +143,22 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
         }
 
         final List<String> inputNames = allInputs.stream().map(DataSonnetInput::getName).toList();
+        // Record the dependency on the library directories before their libraries are copied, so a library that
+        // changes while the script is compiled invalidates it. Once the imports are known, only they are tracked.
+        final List<Path> directories = libraryPaths != null ? libraryPaths.stream().map(Path::of).toList() : null;
+        if (directories != null) {
+            language.getImportCache().track(theKey, directories, null);
+        }
+
+        final Map<String, String> imports = resolveImports(language);
+        if (directories != null) {
+            language.getImportCache().track(theKey, directories,
+                    DatasonnetImportCache.findImports(expression, imports));
+        }
+
         MapperBuilder builder = new MapperBuilder(expression)
                 .withInputNames(inputNames)
-                .withImports(resolveImports(language))
+                .withImports(imports)
                 .withDefaultOutput(MediaTypes.APPLICATION_JAVA);
 
         log.info("Adding libraries to Datasonnet expression: {}", libraries.size());
@@ -186,16 +211,26 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
         final Map<String, Document<?>> inputDocuments = getInputs(theExchange);
         inputDocuments.put("body", body);
 
-        final Mapper mapper = language.lookup(name).orElseGet(() -> {
-            if (name.startsWith("${")) {
-                // The expression is a property placeholder, so we need to evaluate it first.
-                final Expression camelExpression = theExchange.getContext().resolveLanguage("simple").createExpression(name);
-                final String expr = camelExpression.evaluate(theExchange, String.class);
-                return createDataSonnetMapper(expr);
-            }
-
-            throw new IllegalArgumentException("Datasonnet expression not found: " + name);
-        });
+        final Mapper mapper;
+        if (name.startsWith("${")) {
+            // The expression is a property placeholder, so we need to evaluate it first. The compiled script is
+            // cached by the hash of the resolved script, so every distinct script is only compiled once.
+            final Expression camelExpression = placeholder != null ? placeholder :
+                    theExchange.getContext().resolveLanguage("simple").createExpression(name);
+            final String expr = camelExpression.evaluate(theExchange, String.class);
+            final String key = getCacheKey(expr);
+            mapper = language.getOrCompile(key, () -> {
+                log.info("Initializing resolved Datasonnet expression {}", name);
+                return createDataSonnetMapper(key, expr);
+            });
+        } else {
+            // The script is compiled again if it was evicted from the cache.
+            final String key = cacheKey != null ? cacheKey : getCacheKey(expression);
+            mapper = language.getOrCompile(key, () -> {
+                log.info("Initializing Datasonnet expression {}", name);
+                return createDataSonnetMapper(key, expression);
+            });
+        }
 
         if (resultType == null || resultType.equals(Document.class)) {
             return mapper.transform(body, inputDocuments, mediaTypeOutput, Object.class);
@@ -204,6 +239,37 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
         }
     }
 
+    /**
+     * Get the cache key of a Datasonnet script. The key is a SHA-256 hash of the script and of the input names,
+     * libraries and library paths the script is compiled with, so the same script compiled with other inputs or
+     * libraries does not share the compiled script.
+     *
+     * @param theScript The Datasonnet script.
+     * @return The cache key of the script.
+     */
+    String getCacheKey(final String theScript) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(theScript.getBytes(StandardCharsets.UTF_8));
+            if (inputs != null) {
+                inputs.stream().map(DataSonnetInput::getName).sorted()
+                        .forEach(input -> digest.update(("\0" + input).getBytes(StandardCharsets.UTF_8)));
+            }
+            for (Library lib : libraries) {
+                digest.update(("\0" + lib.getClass().getName()).getBytes(StandardCharsets.UTF_8));
+            }
+            if (libraryPaths != null) {
+                for (String path : libraryPaths) {
+                    digest.update(("\0" + path).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            return "sha256:" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
     /**
      * Get the payload from the exchange as a Datasonnet {@link Document}. If a source is set it will evaluate the
      * source expression using the provided {@link Exchange} otherwise it will get the body from that exchange.
@@ -337,8 +403,9 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
     }
 
     /**
-     * Resolve the imports for the Datasonnet expression. If the libraryPaths are set it will try to load the
-     * DataSonnet libraries from those paths.
+     * Resolve the imports for the Datasonnet expression. If the libraryPaths are set it will get the DataSonnet
+     * libraries in those paths from the import cache of the language, which reads every directory only once and keeps
+     * it current.
      *
      * @param theLanguage The {@link DatasonnetLanguage} to use for resolving the imports.
      * @return A {@link Map} containing the imports.
@@ -351,31 +418,7 @@ public class DatasonnetExpression extends ExpressionAdapter implements Expressio
         final Map<String, String> imports = new HashMap<>();
         log.debug("Explicit library path is: {}", libraryPaths);
         for (String nextPath : libraryPaths) {
-            final File nextLibDir = new File(nextPath);
-            if (nextLibDir.isDirectory()) {
-                try {
-                    Files.walkFileTree(nextLibDir.toPath(), new SimpleFileVisitor<>() {
-
-                        @NotNull
-                        @Override
-                        public FileVisitResult visitFile(Path file, @NotNull BasicFileAttributes attrs) throws IOException {
-                            final File f = file.toFile();
-                            if (!f.isDirectory() && f.getName().toLowerCase().endsWith(".libsonnet")) {
-                                final String content = Files.readString(file.toAbsolutePath(), StandardCharsets.UTF_8);
-                                final Path relative = nextLibDir.toPath().relativize(file);
-
-                                log.debug("Loading DataSonnet library: {}", relative);
-
-                                imports.put(relative.toString(), content);
-                            }
-
-                            return FileVisitResult.CONTINUE;
-                        }
-                    });
-                } catch (IOException e) {
-                    log.warn("Unable to load DataSonnet library from: {}", nextPath, e);
-                }
-            }
+            imports.putAll(theLanguage.getImportCache().getImports(Path.of(nextPath)));
         }
 
         return imports;
@@ -0,0 +1,435 @@
+package nl.axians.camel.language.datasonnet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.support.service.ServiceSupport;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of the DataSonnet libraries ({@code .libsonnet} files) in the library paths of expressions, keyed by library
+ * directory. A directory is read once, when an expression first uses it, and is then kept current by a
+ * {@link WatchService}. When a library changes, only the compiled scripts that import it, directly or through another
+ * library, are removed from the {@link DatasonnetMapperCache}, so they are compiled again with the changed library on
+ * their next use.
+ */
+@Slf4j
+class DatasonnetImportCache extends ServiceSupport {
+
+    private static final String EXTENSION = ".libsonnet";
+    private static final Pattern IMPORT = Pattern.compile("\\bimport(?:str|bin)?\\s+(['\"])(.+?)\\1");
+
+    private final DatasonnetLanguage language;
+    private final boolean watch;
+    private final Map<Path, Map<String, String>> directories = new ConcurrentHashMap<>();
+    private final Map<String, Dependencies> dependencies = new ConcurrentHashMap<>();
+    private final Map<WatchKey, WatchedDirectory> watchKeys = new ConcurrentHashMap<>();
+    private volatile WatchService watchService;
+    private ExecutorService executor;
+
+    /**
+     * Create a new import cache.
+     *
+     * @param theLanguage The language whose compiled scripts are invalidated when a library changes.
+     * @param theWatch    Whether to watch the directories for changes.
+     */
+    DatasonnetImportCache(final DatasonnetLanguage theLanguage, final boolean theWatch) {
+        language = theLanguage;
+        watch = theWatch;
+    }
+
+    /**
+     * Get the libraries in a directory, keyed by their path relative to the directory. The directory is read on
+     * first use.
+     *
+     * @param theDirectory The directory.
+     * @return The libraries in the directory.
+     */
+    Map<String, String> getImports(final Path theDirectory) {
+        final Path root = theDirectory.toAbsolutePath().normalize();
+        final Map<String, String> imports = directories.get(root);
+        if (imports != null) {
+            return imports;
+        }
+
+        synchronized (directories) {
+            return directories.computeIfAbsent(root, this::loadDirectory);
+        }
+    }
+
+    /**
+     * Record the libraries a compiled script depends on, so it is invalidated when one of them changes.
+     *
+     * @param theKey         The key of the compiled script in the {@link DatasonnetMapperCache}.
+     * @param theDirectories The library directories the script is compiled with.
+     * @param theImports     The paths of the libraries the script imports, directly or through other libraries, or
+     *                       {@code null} if the script depends on every library in the directories, e.g. because its
+     *                       imports are not known yet.
+     */
+    void track(final String theKey, final Collection<Path> theDirectories, final Set<String> theImports) {
+        final Set<Path> roots = new HashSet<>();
+        theDirectories.forEach(directory -> roots.add(directory.toAbsolutePath().normalize()));
+        dependencies.put(theKey, new Dependencies(roots, theImports, System.nanoTime()));
+    }
+
+    /**
+     * Forget the libraries a compiled script depends on, because the script has left the
+     * {@link DatasonnetMapperCache}. Libraries that were recorded after the script was put in the cache belong to a
+     * later compilation of the same key and are kept.
+     *
+     * @param theKey     The key of the compiled script.
+     * @param theCreated The value of {@link System#nanoTime()} when the script was put in the cache.
+     */
+    void untrack(final String theKey, final long theCreated) {
+        dependencies.computeIfPresent(theKey,
+                (key, dependency) -> dependency.tracked() - theCreated <= 0 ? null : dependency);
+    }
+
+    /**
+     * Get the number of compiled scripts whose libraries are recorded.
+     *
+     * @return The number of compiled scripts.
+     */
+    int getTrackedScripts() {
+        return dependencies.size();
+    }
+
+    /**
+     * Find the libraries a script imports, directly or through the libraries it imports.
+     *
+     * @param theScript  The DataSonnet script.
+     * @param theImports The available libraries, keyed by their import path.
+     * @return The import paths of the libraries.
+     */
+    static Set<String> findImports(final String theScript, final Map<String, String> theImports) {
+        final Set<String> found = new HashSet<>();
+        final Deque<String> sources = new ArrayDeque<>();
+        sources.push(theScript);
+        while (!sources.isEmpty()) {
+            final Matcher matcher = IMPORT.matcher(sources.pop());
+            while (matcher.find()) {
+                final String path = matcher.group(2);
+                if (found.add(path) && theImports.get(path) != null) {
+                    sources.push(theImports.get(path));
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Start the thread that watches the library directories, if watching is enabled.
+     *
+     * @throws Exception If the watch service could not be created.
+     */
+    @Override
+    protected void doStart() throws Exception {
+        final CamelContext context = language.getCamelContext();
+        if (!watch || context == null) {
+            return;
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        executor = context.getExecutorServiceManager().newSingleThreadExecutor(this, "DatasonnetLibraryWatcher");
+        executor.submit(this::watchDirectories);
+    }
+
+    /**
+     * Stop watching the library directories and clear the cache.
+     *
+     * @throws Exception If the watch service could not be closed.
+     */
+    @Override
+    protected void doStop() throws Exception {
+        final WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            service.close();
+        }
+        if (executor != null) {
+            language.getCamelContext().getExecutorServiceManager().shutdownNow(executor);
+            executor = null;
+        }
+
+        watchKeys.clear();
+        directories.clear();
+        dependencies.clear();
+    }
+
+    /**
+     * Read the libraries in a directory and watch it and its subdirectories for changes.
+     *
+     * @param theRoot The directory.
+     * @return The libraries in the directory.
+     */
+    private Map<String, String> loadDirectory(final Path theRoot) {
+        final Map<String, String> imports = new ConcurrentHashMap<>();
+        if (Files.isDirectory(theRoot)) {
+            log.debug("Loading DataSonnet libraries from: {}", theRoot);
+            loadTree(theRoot, theRoot, imports);
+        }
+
+        return imports;
+    }
+
+    /**
+     * Read the libraries in a directory tree into the libraries of a library directory. The directories of the tree
+     * are registered with the watch service before their libraries are read, so no change is missed.
+     *
+     * @param theRoot    The library directory.
+     * @param theTree    The directory tree in the library directory.
+     * @param theImports The libraries of the library directory.
+     * @return The paths of the libraries that were read.
+     */
+    private Set<String> loadTree(final Path theRoot, final Path theTree, final Map<String, String> theImports) {
+        final Set<String> loaded = new HashSet<>();
+        try {
+            Files.walkFileTree(theTree, new SimpleFileVisitor<>() {
+
+                @NotNull
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, @NotNull BasicFileAttributes attrs) {
+                    register(theRoot, dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @NotNull
+                @Override
+                public FileVisitResult visitFile(Path file, @NotNull BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && isLibrary(file)) {
+                        final String content = read(file);
+                        if (content != null) {
+                            final String relative = theRoot.relativize(file).toString();
+                            log.debug("Loading DataSonnet library: {}", relative);
+                            theImports.put(relative, content);
+                            loaded.add(relative);
+                        }
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Unable to load DataSonnet library from: {}", theTree, e);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Register a directory with the watch service.
+     *
+     * @param theRoot      The library directory the directory belongs to.
+     * @param theDirectory The directory.
+     */
+    private void register(final Path theRoot, final Path theDirectory) {
+        final WatchService service = watchService;
+        if (service == null) {
+            return;
+        }
+
+        try {
+            final WatchKey key = theDirectory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchKeys.put(key, new WatchedDirectory(theRoot, theDirectory));
+        } catch (ClosedWatchServiceException e) {
+            // The cache is stopping.
+        } catch (IOException e) {
+            log.warn("Unable to watch DataSonnet library directory: {}", theDirectory, e);
+        }
+    }
+
+    /**
+     * Process the changes in the watched directories until the watch service is closed.
+     */
+    private void watchDirectories() {
+        final WatchService service = watchService;
+        try {
+            while (service != null && isRunAllowed()) {
+                final WatchKey key = service.take();
+                final WatchedDirectory directory = watchKeys.get(key);
+                if (directory != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        onEvent(directory, event);
+                    }
+                }
+
+                if (!key.reset()) {
+                    watchKeys.remove(key);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching DataSonnet library directories");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Update the libraries of a library directory for a change in one of its directories.
+     *
+     * @param theDirectory The directory that changed.
+     * @param theEvent     The change.
+     */
+    private void onEvent(final WatchedDirectory theDirectory, final WatchEvent<?> theEvent) {
+        final Map<String, String> imports = directories.get(theDirectory.root());
+        if (imports == null) {
+            return;
+        }
+
+        if (theEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+            reload(theDirectory.root(), imports);
+            return;
+        }
+
+        final Path file = theDirectory.path().resolve((Path) theEvent.context());
+        final String relative = theDirectory.root().relativize(file).toString();
+        if (theEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+            invalidate(theDirectory.root(), loadTree(theDirectory.root(), file, imports));
+        } else if (isLibrary(file)) {
+            final String content = Files.isRegularFile(file) ? read(file) : null;
+            final String previous = content != null ? imports.put(relative, content) : imports.remove(relative);
+            if (!Objects.equals(content, previous)) {
+                log.info("DataSonnet library {} in {} has changed", relative, theDirectory.root());
+                invalidate(theDirectory.root(), Set.of(relative));
+            }
+        } else if (theEvent.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            // A deleted subdirectory: remove the libraries that were in it.
+            final Set<String> removed = new HashSet<>();
+            imports.keySet().removeIf(path -> {
+                final boolean inDirectory = path.startsWith(relative + file.getFileSystem().getSeparator());
+                if (inDirectory) {
+                    removed.add(path);
+                }
+                return inDirectory;
+            });
+            invalidate(theDirectory.root(), removed);
+        }
+    }
+
+    /**
+     * Read a library directory again, e.g. after change events were lost, and invalidate the compiled scripts that
+     * import a library that changed.
+     *
+     * @param theRoot    The library directory.
+     * @param theImports The libraries of the library directory.
+     */
+    private void reload(final Path theRoot, final Map<String, String> theImports) {
+        final Map<String, String> reloaded = new ConcurrentHashMap<>();
+        loadTree(theRoot, theRoot, reloaded);
+
+        final Set<String> changed = new HashSet<>();
+        final Set<String> paths = new HashSet<>(theImports.keySet());
+        paths.addAll(reloaded.keySet());
+        for (String path : paths) {
+            if (!Objects.equals(theImports.get(path), reloaded.get(path))) {
+                changed.add(path);
+            }
+        }
+
+        theImports.putAll(reloaded);
+        theImports.keySet().retainAll(reloaded.keySet());
+        invalidate(theRoot, changed);
+    }
+
+    /**
+     * Remove the compiled scripts that import one of the changed libraries of a library directory from the
+     * {@link DatasonnetMapperCache}.
+     *
+     * @param theRoot    The library directory.
+     * @param theChanged The paths of the libraries that changed.
+     */
+    private void invalidate(final Path theRoot, final Set<String> theChanged) {
+        if (theChanged.isEmpty()) {
+            return;
+        }
+
+        final Set<String> changed = new HashSet<>();
+        theChanged.forEach(path -> changed.add(path.replace('\\', '/')));
+        dependencies.entrySet().removeIf(entry -> {
+            final Dependencies dependency = entry.getValue();
+            if (!dependency.directories().contains(theRoot)
+                    || dependency.imports() != null && Collections.disjoint(dependency.imports(), changed)) {
+                return false;
+            }
+
+            log.info("Invalidating compiled DataSonnet script {} because its libraries have changed", entry.getKey());
+            language.getMapperCache().invalidate(entry.getKey());
+            return true;
+        });
+    }
+
+    /**
+     * Check whether a file is a DataSonnet library.
+     *
+     * @param theFile The file.
+     * @return Whether the file is a DataSonnet library.
+     */
+    private static boolean isLibrary(final Path theFile) {
+        return theFile.getFileName().toString().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Read a library.
+     *
+     * @param theFile The library.
+     * @return The source of the library or {@code null} if it could not be read.
+     */
+    private static String read(final Path theFile) {
+        try {
+            return Files.readString(theFile.toAbsolutePath(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Unable to load DataSonnet library: {}", theFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * The libraries a compiled script depends on.
+     *
+     * @param directories The library directories the script is compiled with.
+     * @param imports     The import paths of the libraries the script imports or {@code null} for every library.
+     * @param tracked     The value of {@link System#nanoTime()} when the libraries were recorded.
+     */
+    private record Dependencies(Set<Path> directories, Set<String> imports, long tracked) {
+    }
+
+    /**
+     * A watched directory in a library directory.
+     *
+     * @param root The library directory.
+     * @param path The watched directory.
+     */
+    private record WatchedDirectory(Path root, Path path) {
+    }
+
+}
@@ -2,18 +2,16 @@ package nl.axians.camel.language.datasonnet;
 
 import com.datasonnet.Mapper;
 import com.datasonnet.document.MediaType;
-import io.github.classgraph.ClassGraph;
-import io.github.classgraph.ScanResult;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
+import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.spi.annotations.Language;
-import org.apache.camel.support.LRUCacheFactory;
 import org.apache.camel.support.SingleInputTypedLanguageSupport;
+import org.apache.camel.support.service.ServiceHelper;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 @Slf4j
@@ -21,29 +19,32 @@ import java.util.function.Supplier;
 public class DatasonnetLanguage extends SingleInputTypedLanguageSupport {
 
     /**
-     * Create map of Datasonnet libraries found on the classpath.
-     */
-    private static final Map<String, String> CLASSPATH_IMPORTS = new HashMap<>();
-    static {
-        log.debug("One time classpath search...");
-        try (ScanResult scanResult = new ClassGraph().acceptPaths("/").scan()) {
-            try {
-                scanResult.getResourcesWithExtension("libsonnet")
-                        .forEachByteArrayThrowingIOException((resource, bytes) -> {
-                            log.debug("Loading DataSonnet library: {}", resource.getPath());
-                            CLASSPATH_IMPORTS.put(resource.getPath(), new String(bytes, StandardCharsets.UTF_8));
-                        });
-            } catch (IOException e) {
-                log.error("Failed to load DataSonnet libraries", e);
-            }
-        }
-        log.debug("One time classpath search done");
-    }
+     * The default maximum number of compiled DataSonnet scripts in the cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private String cacheReferenceType = "strong";
+    private long cacheExpireAfterAccess;
+    private int startupCompileParallelism;
+    private boolean watchLibraryPaths = true;
+
+    /**
+     * Scripts of expressions that were initialized before the context started. They are compiled in parallel by the
+     * {@link DatasonnetStartupCompiler} while the context is starting, before the routes start.
+     */
+    private final Map<String, PendingScript> pendingScripts = new ConcurrentHashMap<>();
+    private boolean startupCompilerAdded;
+
+    /**
+     * Cache of compiled DataSonnet scripts, created on first use with the cache options.
+     */
+    private volatile DatasonnetMapperCache mapperCache;
 
     /**
-     * Cache of compiled DataSonnet scripts.
+     * Cache of the libraries in the library paths of expressions, created on first use.
      */
-    private final Map<String, Mapper> mapperCache = LRUCacheFactory.newLRUSoftCache(16, 1000, true);
+    private volatile DatasonnetImportCache importCache;
 
     @Override
     public Predicate createPredicate(Expression source, String expression, Object[] properties) {
@@ -108,33 +109,257 @@ public class DatasonnetLanguage extends SingleInputTypedLanguageSupport {
     }
 
     /**
-     * Lookup a compiled DataSonnet script.
+     * Register the DataSonnet script of an expression. While the context is starting, the script is compiled together
+     * with the other scripts of the context before the routes start, otherwise the script is compiled right away.
      *
-     * @param script The script to lookup.
+     * @param theKey         The key of the script in the cache.
+     * @param theName        The name of the expression, used for reporting.
+     * @param mapperSupplier The supplier to compile the script.
+     */
+    void register(final String theKey,
+                  final String theName,
+                  final Supplier<Mapper> mapperSupplier) {
+        if (getCamelContext() == null || getCamelContext().isStarted()) {
+            getOrCompile(theKey, mapperSupplier);
+            return;
+        }
+
+        pendingScripts.putIfAbsent(theKey, new PendingScript(theKey, theName, mapperSupplier));
+        synchronized (this) {
+            if (!startupCompilerAdded) {
+                try {
+                    getCamelContext().addStartupListener(new DatasonnetStartupCompiler(this));
+                } catch (Exception e) {
+                    throw new RuntimeCamelException("Failed to register the Datasonnet startup compiler", e);
+                }
+                startupCompilerAdded = true;
+            }
+        }
+    }
+
+    /**
+     * Remove and return the scripts that are waiting to be compiled.
+     *
+     * @return The scripts that are waiting to be compiled.
+     */
+    List<PendingScript> drainPendingScripts() {
+        final List<PendingScript> scripts = new ArrayList<>();
+        for (String key : List.copyOf(pendingScripts.keySet())) {
+            final PendingScript script = pendingScripts.remove(key);
+            if (script != null) {
+                scripts.add(script);
+            }
+        }
+
+        return scripts;
+    }
+
+    /**
+     * Get a compiled DataSonnet script from the cache or compile it if it is not in the cache. Only one thread compiles
+     * a script at a time, other threads that request the same script wait for that compilation and use its result.
+     *
+     * @param theKey         The key of the script in the cache.
+     * @param mapperSupplier The supplier to compile the script if not present yet.
      * @return The compiled DataSonnet script.
      */
-    Optional<Mapper> lookup(final String script) {
-        return Optional.ofNullable(mapperCache.get(script));
+    Mapper getOrCompile(final String theKey,
+                        final Supplier<Mapper> mapperSupplier) {
+        return getMapperCache().getOrCompile(theKey, mapperSupplier);
+    }
+
+    /**
+     * Get the cache of compiled DataSonnet scripts, e.g. to read its statistics.
+     *
+     * @return The cache of compiled DataSonnet scripts.
+     */
+    public DatasonnetMapperCache getMapperCache() {
+        DatasonnetMapperCache cache = mapperCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = mapperCache;
+                if (cache == null) {
+                    cache = new DatasonnetMapperCache(cacheSize,
+                            DatasonnetMapperCache.ReferenceType.of(cacheReferenceType), cacheExpireAfterAccess);
+                    cache.setRemovalListener(this::onMapperRemoved);
+                    mapperCache = cache;
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Forget the libraries a compiled script depends on when it leaves the cache of compiled scripts, so the import
+     * cache does not grow beyond the cache of compiled scripts.
+     *
+     * @param theKey     The key of the compiled script.
+     * @param theCreated The value of {@link System#nanoTime()} when the script was put in the cache.
+     */
+    private void onMapperRemoved(final String theKey, final long theCreated) {
+        final DatasonnetImportCache cache = importCache;
+        if (cache != null) {
+            cache.untrack(theKey, theCreated);
+        }
+    }
+
+    /**
+     * Get the cache of the libraries in the library paths of expressions. The cache is added to the services of the
+     * context, so it is stopped with the context.
+     *
+     * @return The cache of the libraries in the library paths.
+     */
+    DatasonnetImportCache getImportCache() {
+        DatasonnetImportCache cache = importCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = importCache;
+                if (cache == null) {
+                    cache = new DatasonnetImportCache(this, watchLibraryPaths);
+                    try {
+                        if (getCamelContext() != null) {
+                            getCamelContext().addService(cache, true, true);
+                        } else {
+                            ServiceHelper.startService(cache);
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeCamelException("Failed to start the Datasonnet library cache", e);
+                    }
+                    importCache = cache;
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Get the maximum number of compiled DataSonnet scripts in the cache.
+     *
+     * @return The maximum number of compiled scripts.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Set the maximum number of compiled DataSonnet scripts in the cache. When the cache is full, the least recently
+     * used script is evicted. Changing an option replaces the cache.
+     *
+     * @param theCacheSize The maximum number of compiled scripts.
+     */
+    public synchronized void setCacheSize(final int theCacheSize) {
+        cacheSize = theCacheSize;
+        mapperCache = null;
+    }
+
+    /**
+     * Get the type of reference the compiled DataSonnet scripts are held with.
+     *
+     * @return The reference type, i.e. {@code strong} or {@code soft}.
+     */
+    public String getCacheReferenceType() {
+        return cacheReferenceType;
+    }
+
+    /**
+     * Set the type of reference the compiled DataSonnet scripts are held with. With {@code soft} references, the
+     * garbage collector may evict scripts. Changing an option replaces the cache.
+     *
+     * @param theCacheReferenceType The reference type, i.e. {@code strong} or {@code soft}.
+     */
+    public synchronized void setCacheReferenceType(final String theCacheReferenceType) {
+        DatasonnetMapperCache.ReferenceType.of(theCacheReferenceType);
+        cacheReferenceType = theCacheReferenceType;
+        mapperCache = null;
+    }
+
+    /**
+     * Get the number of seconds after the last use of a compiled DataSonnet script after which it is evicted.
+     *
+     * @return The number of seconds or 0 if scripts do not expire.
+     */
+    public long getCacheExpireAfterAccess() {
+        return cacheExpireAfterAccess;
+    }
+
+    /**
+     * Set the number of seconds after the last use of a compiled DataSonnet script after which it is evicted. Changing
+     * an option replaces the cache.
+     *
+     * @param theCacheExpireAfterAccess The number of seconds or 0 if scripts do not expire.
+     */
+    public synchronized void setCacheExpireAfterAccess(final long theCacheExpireAfterAccess) {
+        cacheExpireAfterAccess = theCacheExpireAfterAccess;
+        mapperCache = null;
     }
 
     /**
-     * Compute a DataSonnet script if it is not in the cache.
+     * Get the maximum number of threads that compile the DataSonnet scripts when the context starts.
      *
-     * @param theName The name of the script to compute.
-     * @param mapperSupplier The supplier to compute the script if not present yet.
+     * @return The maximum number of threads or 0 to use the number of available processors.
      */
-    void computeIfMiss(final String theName,
-                       final Supplier<Mapper> mapperSupplier) {
-        mapperCache.computeIfAbsent(theName, k -> mapperSupplier.get());
+    public int getStartupCompileParallelism() {
+        return startupCompileParallelism;
     }
 
     /**
-     * Get the map with imported Datasonnet scripts.
+     * Set the maximum number of threads that compile the DataSonnet scripts when the context starts.
+     *
+     * @param theStartupCompileParallelism The maximum number of threads or 0 to use the number of available processors.
+     */
+    public void setStartupCompileParallelism(final int theStartupCompileParallelism) {
+        startupCompileParallelism = theStartupCompileParallelism;
+    }
+
+    /**
+     * Get whether the libraries in the library paths of expressions are watched for changes.
+     *
+     * @return Whether the library paths are watched.
+     */
+    public boolean isWatchLibraryPaths() {
+        return watchLibraryPaths;
+    }
+
+    /**
+     * Set whether the libraries in the library paths of expressions are watched for changes. When a library changes,
+     * the compiled scripts that import it are compiled again on their next use. Must be set before the first
+     * expression with library paths is used.
+     *
+     * @param theWatchLibraryPaths Whether the library paths are watched.
+     */
+    public void setWatchLibraryPaths(final boolean theWatchLibraryPaths) {
+        watchLibraryPaths = theWatchLibraryPaths;
+    }
+
+    /**
+     * Get the map with imported Datasonnet scripts. The libraries are listed by the library index on the classpath
+     * and loaded on first import. The index is read on the first call.
      *
      * @return The map with imported Datasonnet scripts.
      */
     public Map<String, String> getDatasonnetImports() {
-        return CLASSPATH_IMPORTS;
+        return ClasspathImports.IMPORTS;
+    }
+
+    /**
+     * A DataSonnet script that is waiting to be compiled.
+     *
+     * @param key      The key of the script in the cache.
+     * @param name     The name of the expression, used for reporting.
+     * @param compiler The supplier to compile the script.
+     */
+    record PendingScript(String key, String name, Supplier<Mapper> compiler) {
+    }
+
+    /**
+     * Holder of the Datasonnet libraries on the classpath, so they are only looked up when first needed.
+     */
+    private static final class ClasspathImports {
+
+        private static final Map<String, String> IMPORTS =
+                DatasonnetLibraryIndex.load(DatasonnetLanguage.class.getClassLoader());
+
     }
 
 }
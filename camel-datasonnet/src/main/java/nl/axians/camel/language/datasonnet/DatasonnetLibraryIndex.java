@@ -0,0 +1,231 @@
+package nl.axians.camel.language.datasonnet;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.RuntimeCamelException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The DataSonnet libraries ({@code .libsonnet} files) on the classpath, keyed by their path on the classpath. The
+ * libraries are listed in {@code META-INF/datasonnet/libraries.idx} index files that are written at build time by the
+ * {@code index} goal of the {@code camel-datasonnet-maven-plugin}. Only the index files are read up front, the source
+ * of a library is loaded when it is first imported.
+ * <p>
+ * If there is no index file on the classpath, the whole classpath is scanned for libraries instead and all of them are
+ * loaded right away.
+ */
+@Slf4j
+final class DatasonnetLibraryIndex extends AbstractMap<String, String> {
+
+    /**
+     * The location of the index files on the classpath.
+     */
+    static final String INDEX_LOCATION = "META-INF/datasonnet/libraries.idx";
+
+    private final ClassLoader classLoader;
+    private final Set<String> paths;
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new library index.
+     *
+     * @param theClassLoader The class loader to load the libraries with.
+     * @param thePaths       The paths of the libraries on the classpath.
+     */
+    private DatasonnetLibraryIndex(final ClassLoader theClassLoader, final Set<String> thePaths) {
+        classLoader = theClassLoader;
+        paths = Collections.unmodifiableSet(thePaths);
+    }
+
+    /**
+     * Get the DataSonnet libraries on the classpath of a class loader. The libraries are read from the index files
+     * if present, otherwise the classpath is scanned.
+     *
+     * @param theClassLoader The class loader.
+     * @return The libraries keyed by their path on the classpath.
+     */
+    static Map<String, String> load(final ClassLoader theClassLoader) {
+        final Set<String> paths = new TreeSet<>();
+        try {
+            final Enumeration<URL> indexes = theClassLoader.getResources(INDEX_LOCATION);
+            while (indexes.hasMoreElements()) {
+                final URL index = indexes.nextElement();
+                log.debug("Reading DataSonnet library index: {}", index);
+                readIndex(index, paths);
+            }
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Failed to read the DataSonnet library index", e);
+        }
+
+        if (paths.isEmpty()) {
+            return scan();
+        }
+
+        log.debug("Found {} DataSonnet libraries in the library index", paths.size());
+        return new DatasonnetLibraryIndex(theClassLoader, paths);
+    }
+
+    /**
+     * Get the source of a library, loading it on first use.
+     *
+     * @param theKey The path of the library on the classpath.
+     * @return The source of the library or {@code null} if it is not in the index.
+     */
+    @Override
+    public String get(final Object theKey) {
+        if (!(theKey instanceof String path) || !paths.contains(path)) {
+            return null;
+        }
+
+        return sources.computeIfAbsent(path, this::loadSource);
+    }
+
+    /**
+     * Check whether a library is in the index, without loading it.
+     *
+     * @param theKey The path of the library on the classpath.
+     * @return Whether the library is in the index.
+     */
+    @Override
+    public boolean containsKey(final Object theKey) {
+        return paths.contains(theKey);
+    }
+
+    /**
+     * Get the paths of the libraries, without loading them.
+     *
+     * @return The paths of the libraries.
+     */
+    @Override
+    public Set<String> keySet() {
+        return paths;
+    }
+
+    /**
+     * Get the number of libraries in the index.
+     *
+     * @return The number of libraries.
+     */
+    @Override
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Get the libraries. The source of a library is loaded when its entry is iterated.
+     *
+     * @return The libraries.
+     */
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                final Iterator<String> iterator = paths.iterator();
+                return new Iterator<>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        final String path = iterator.next();
+                        return new SimpleImmutableEntry<>(path, get(path));
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return paths.size();
+            }
+
+        };
+    }
+
+    /**
+     * Load the source of a library from the classpath.
+     *
+     * @param thePath The path of the library on the classpath.
+     * @return The source of the library.
+     */
+    private String loadSource(final String thePath) {
+        log.debug("Loading DataSonnet library: {}", thePath);
+        try (InputStream in = classLoader.getResourceAsStream(thePath)) {
+            if (in == null) {
+                throw new RuntimeCamelException("DataSonnet library " + thePath
+                        + " is listed in the library index but not found on the classpath");
+            }
+
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Failed to load DataSonnet library " + thePath, e);
+        }
+    }
+
+    /**
+     * Read the paths of the libraries from an index file. Blank lines and lines starting with {@code #} are ignored.
+     *
+     * @param theIndex The index file.
+     * @param thePaths The set to add the paths to.
+     * @throws IOException If the index file could not be read.
+     */
+    private static void readIndex(final URL theIndex, final Set<String> thePaths) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(theIndex.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String path = line.trim();
+                if (!path.isEmpty() && !path.startsWith("#")) {
+                    thePaths.add(path.startsWith("/") ? path.substring(1) : path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan the whole classpath for DataSonnet libraries and load all of them.
+     *
+     * @return The libraries keyed by their path on the classpath.
+     */
+    private static Map<String, String> scan() {
+        log.debug("No DataSonnet library index found, searching the classpath...");
+        final Map<String, String> libraries = new HashMap<>();
+        try (ScanResult scanResult = new ClassGraph().acceptPaths("/").scan()) {
+            try {
+                scanResult.getResourcesWithExtension("libsonnet")
+                        .forEachByteArrayThrowingIOException((resource, bytes) -> {
+                            log.debug("Loading DataSonnet library: {}", resource.getPath());
+                            libraries.put(resource.getPath(), new String(bytes, StandardCharsets.UTF_8));
+                        });
+            } catch (IOException e) {
+                log.error("Failed to load DataSonnet libraries", e);
+            }
+        }
+        log.debug("Classpath search done");
+
+        return libraries;
+    }
+
+}
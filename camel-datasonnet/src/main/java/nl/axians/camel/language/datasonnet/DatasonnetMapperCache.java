@@ -0,0 +1,379 @@
+package nl.axians.camel.language.datasonnet;
+
+import com.datasonnet.Mapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.support.LRUCacheFactory;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of compiled DataSonnet scripts. The scripts are kept in an LRU cache created by Camel's
+ * {@link LRUCacheFactory}, so when the cache is full, the least recently used script is evicted. Scripts that have not
+ * been used for the expire-after-access time are evicted when they are next looked up. The compiled scripts are held with strong references
+ * by default, so they are not evicted under memory pressure; soft references can be configured instead.
+ * <p>
+ * Only one thread compiles a script at a time, other threads that request the same script wait for that compilation
+ * and use its result. The cache counts hits, misses, evictions, compilations and the time spent compiling.
+ */
+@Slf4j
+public class DatasonnetMapperCache {
+
+    /**
+     * The type of reference the compiled scripts are held with.
+     */
+    public enum ReferenceType {
+
+        /**
+         * The scripts are only evicted when the cache is full or they expire.
+         */
+        STRONG,
+
+        /**
+         * The scripts may also be evicted by the garbage collector under memory pressure.
+         */
+        SOFT;
+
+        /**
+         * Get the reference type for a name, ignoring case.
+         *
+         * @param theName The name of the reference type, e.g. {@code strong}.
+         * @return The reference type.
+         */
+        public static ReferenceType of(final String theName) {
+            return valueOf(theName.trim().toUpperCase(Locale.ROOT));
+        }
+
+    }
+
+    private final int maximumSize;
+    private final ReferenceType referenceType;
+    private final long expireAfterAccessNanos;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Mapper>> compilations = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<Mapper>> invalidatedCompilations = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder compiled = new LongAdder();
+    private final LongAdder compileNanos = new LongAdder();
+    private volatile ObjLongConsumer<String> removalListener;
+
+    /**
+     * Create a new cache.
+     *
+     * @param theMaximumSize              The maximum number of compiled scripts to keep.
+     * @param theReferenceType            The type of reference the compiled scripts are held with.
+     * @param theExpireAfterAccessSeconds The number of seconds after the last use of a script after which it is
+     *                                    evicted. If 0, scripts do not expire.
+     */
+    public DatasonnetMapperCache(final int theMaximumSize,
+                                 final ReferenceType theReferenceType,
+                                 final long theExpireAfterAccessSeconds) {
+        maximumSize = Math.max(1, theMaximumSize);
+        referenceType = theReferenceType;
+        expireAfterAccessNanos = TimeUnit.SECONDS.toNanos(Math.max(0, theExpireAfterAccessSeconds));
+        entries = LRUCacheFactory.newLRUCache(maximumSize, this::onEvict);
+    }
+
+    /**
+     * Get a compiled DataSonnet script from the cache.
+     *
+     * @param theKey The key of the script.
+     * @return The compiled script or {@code null} if it is not in the cache.
+     */
+    public Mapper get(final String theKey) {
+        final Mapper mapper = getEntry(theKey);
+        if (mapper != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return mapper;
+    }
+
+    /**
+     * Get a compiled DataSonnet script from the cache or compile it if it is not in the cache.
+     *
+     * @param theKey      The key of the script.
+     * @param theCompiler The supplier that compiles the script.
+     * @return The compiled script.
+     */
+    public Mapper getOrCompile(final String theKey, final Supplier<Mapper> theCompiler) {
+        final Mapper cached = get(theKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CompletableFuture<Mapper> compilation = new CompletableFuture<>();
+        final CompletableFuture<Mapper> running = compilations.putIfAbsent(theKey, compilation);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeCamelException(e.getCause());
+            }
+        }
+
+        try {
+            // Another thread may have finished compiling the script since the first lookup.
+            Mapper mapper = getEntry(theKey);
+            if (mapper == null) {
+                final long start = System.nanoTime();
+                mapper = theCompiler.get();
+                compileNanos.add(System.nanoTime() - start);
+                compiled.increment();
+                put(theKey, mapper);
+                if (invalidatedCompilations.remove(compilation)) {
+                    // The script was invalidated while it was compiled, so it may be compiled with an old library.
+                    invalidate(theKey);
+                }
+            }
+
+            compilation.complete(mapper);
+            return mapper;
+        } catch (RuntimeException e) {
+            compilation.completeExceptionally(e);
+            throw e;
+        } finally {
+            compilations.remove(theKey, compilation);
+            invalidatedCompilations.remove(compilation);
+        }
+    }
+
+    /**
+     * Remove a compiled script from the cache, e.g. because a library it imports has changed. The script is compiled
+     * again on its next use. If the script is being compiled, the result of that compilation is removed as well once
+     * it is put in the cache. The removal is not counted as an eviction.
+     *
+     * @param theKey The key of the script.
+     */
+    public void invalidate(final String theKey) {
+        final CompletableFuture<Mapper> running = compilations.get(theKey);
+        if (running != null) {
+            invalidatedCompilations.add(running);
+        }
+
+        final Entry removed = entries.remove(theKey);
+        if (removed != null) {
+            onRemove(removed);
+        }
+    }
+
+    /**
+     * Remove all compiled scripts from the cache. The statistics are not reset.
+     */
+    public void clear() {
+        for (String key : new ArrayList<>(entries.keySet())) {
+            final Entry removed = entries.remove(key);
+            if (removed != null) {
+                onRemove(removed);
+            }
+        }
+    }
+
+    /**
+     * Set the listener that is told when a compiled script leaves the cache, because it was evicted, expired,
+     * collected, invalidated or cleared. The listener receives the key of the script and the value of
+     * {@link System#nanoTime()} when the script was put in the cache, so it can tell the script apart from a later
+     * compilation of the same key.
+     *
+     * @param theRemovalListener The listener or {@code null} for none.
+     */
+    void setRemovalListener(final ObjLongConsumer<String> theRemovalListener) {
+        removalListener = theRemovalListener;
+    }
+
+    /**
+     * Get the number of compiled scripts in the cache.
+     *
+     * @return The number of compiled scripts.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the maximum number of compiled scripts in the cache.
+     *
+     * @return The maximum number of compiled scripts.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Get the type of reference the compiled scripts are held with.
+     *
+     * @return The reference type.
+     */
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+
+    /**
+     * Get the number of lookups that found a compiled script.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that did not find a compiled script.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of compiled scripts that were evicted because the cache was full, they expired or they were
+     * collected by the garbage collector.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of compiled scripts.
+     *
+     * @return The number of compilations.
+     */
+    public long getCompilations() {
+        return compiled.sum();
+    }
+
+    /**
+     * Get the total time spent compiling scripts.
+     *
+     * @param theUnit The unit of the time.
+     * @return The total compile time.
+     */
+    public long getCompileTime(final TimeUnit theUnit) {
+        return theUnit.convert(compileNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get a compiled script without counting a hit or miss. An entry that has expired or was collected by the garbage
+     * collector is removed.
+     *
+     * @param theKey The key of the script.
+     * @return The compiled script or {@code null} if it is not in the cache.
+     */
+    private Mapper getEntry(final String theKey) {
+        final Entry entry = entries.get(theKey);
+        if (entry == null) {
+            return null;
+        }
+
+        final long now = System.nanoTime();
+        final Mapper mapper = entry.get();
+        if (mapper == null || entry.isExpired(now)) {
+            if (entries.remove(theKey, entry)) {
+                evictions.increment();
+                onRemove(entry);
+            }
+            return null;
+        }
+
+        entry.lastAccess = now;
+        return mapper;
+    }
+
+    /**
+     * Put a compiled script in the cache. If the cache is full, the LRU cache evicts the least recently used script.
+     * Scripts that have expired or were collected by the garbage collector are not looked for here, but removed when
+     * they are next looked up or evicted by the LRU cache.
+     *
+     * @param theKey    The key of the script.
+     * @param theMapper The compiled script.
+     */
+    private void put(final String theKey, final Mapper theMapper) {
+        entries.put(theKey, new Entry(theKey, theMapper));
+    }
+
+    /**
+     * Count a script that the LRU cache evicted because the cache was full.
+     *
+     * @param theEntry The evicted entry.
+     */
+    private void onEvict(final Entry theEntry) {
+        log.debug("Evicting compiled DataSonnet script {}", theEntry.key);
+        evictions.increment();
+        onRemove(theEntry);
+    }
+
+    /**
+     * Tell the removal listener that a script has left the cache.
+     *
+     * @param theEntry The removed entry.
+     */
+    private void onRemove(final Entry theEntry) {
+        final ObjLongConsumer<String> listener = removalListener;
+        if (listener != null) {
+            listener.accept(theEntry.key, theEntry.created);
+        }
+    }
+
+    /**
+     * An entry of the cache.
+     */
+    private final class Entry {
+
+        private final String key;
+        private final Mapper strong;
+        private final SoftReference<Mapper> soft;
+        private final long created = System.nanoTime();
+        private volatile long lastAccess = created;
+
+        /**
+         * Create a new entry.
+         *
+         * @param theKey    The key of the script.
+         * @param theMapper The compiled script.
+         */
+        private Entry(final String theKey, final Mapper theMapper) {
+            key = theKey;
+            strong = referenceType == ReferenceType.STRONG ? theMapper : null;
+            soft = referenceType == ReferenceType.SOFT ? new SoftReference<>(theMapper) : null;
+        }
+
+        /**
+         * Get the compiled script.
+         *
+         * @return The compiled script or {@code null} if it was collected by the garbage collector.
+         */
+        private Mapper get() {
+            return soft != null ? soft.get() : strong;
+        }
+
+        /**
+         * Check whether the entry has not been used for the expire-after-access time.
+         *
+         * @param theNow The current {@link System#nanoTime()}.
+         * @return Whether the entry has expired.
+         */
+        private boolean isExpired(final long theNow) {
+            return expireAfterAccessNanos > 0 && theNow - lastAccess > expireAfterAccessNanos;
+        }
+
+    }
+
+}
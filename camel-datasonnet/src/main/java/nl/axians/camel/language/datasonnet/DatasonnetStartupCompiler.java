@@ -0,0 +1,113 @@
+package nl.axians.camel.language.datasonnet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.StartupListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles the DataSonnet expressions of the routes of a {@link CamelContext} in parallel while the context is
+ * starting, before the routes start, instead of one at a time while the routes are initialized. The scripts are
+ * compiled on a {@link ForkJoinPool} that is bounded by the startup compile parallelism of the
+ * {@link DatasonnetLanguage} and shut down afterward. The compile time of every script is logged. If scripts fail to
+ * compile, the start of the context fails with a single exception that reports all failed scripts.
+ */
+@Slf4j
+class DatasonnetStartupCompiler implements StartupListener {
+
+    private final DatasonnetLanguage language;
+
+    /**
+     * Create a new startup compiler.
+     *
+     * @param theLanguage The language that holds the scripts to compile.
+     */
+    DatasonnetStartupCompiler(final DatasonnetLanguage theLanguage) {
+        language = theLanguage;
+    }
+
+    /**
+     * Compiles the scripts that were registered while the routes were initialized, so the routes do not start before
+     * their scripts are compiled.
+     *
+     * @param theContext        The camel context.
+     * @param theAlreadyStarted Whether the context was already started when this listener was added.
+     */
+    @Override
+    public void onCamelContextStarting(final CamelContext theContext, final boolean theAlreadyStarted) {
+        compile(language.drainPendingScripts());
+    }
+
+    /**
+     * Compiles the scripts that were registered after the context began starting, e.g. by routes that were added while
+     * it was starting.
+     *
+     * @param theContext        The camel context.
+     * @param theAlreadyStarted Whether the context was already started when this listener was added.
+     */
+    @Override
+    public void onCamelContextStarted(final CamelContext theContext, final boolean theAlreadyStarted) {
+        compile(language.drainPendingScripts());
+    }
+
+    /**
+     * Compiles scripts in parallel and waits for all of them.
+     *
+     * @param theScripts The scripts to compile.
+     * @throws RuntimeCamelException If one or more scripts could not be compiled.
+     */
+    void compile(final List<DatasonnetLanguage.PendingScript> theScripts) {
+        if (theScripts.isEmpty()) {
+            return;
+        }
+
+        final int parallelism = Math.min(theScripts.size(), language.getStartupCompileParallelism() > 0 ?
+                language.getStartupCompileParallelism() : Runtime.getRuntime().availableProcessors());
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        final long start = System.nanoTime();
+        try {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (DatasonnetLanguage.PendingScript script : theScripts) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    final long scriptStart = System.nanoTime();
+                    language.getOrCompile(script.key(), script.compiler());
+                    log.info("Compiled Datasonnet expression {} in {} ms", script.name(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scriptStart));
+                }, pool));
+            }
+
+            final List<String> errors = new ArrayList<>();
+            final List<Throwable> causes = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).join();
+                } catch (CompletionException e) {
+                    final Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    errors.add(theScripts.get(i).name() + ": " + cause.getMessage());
+                    causes.add(cause);
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                final RuntimeCamelException exception = new RuntimeCamelException("Failed to compile "
+                        + errors.size() + " of " + theScripts.size() + " Datasonnet expressions:\n"
+                        + String.join("\n", errors));
+                causes.forEach(exception::addSuppressed);
+                throw exception;
+            }
+
+            log.info("Compiled {} Datasonnet expressions in {} ms using {} threads", theScripts.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,273 @@
+package nl.axians.camel.language.datasonnet;
+
+import com.datasonnet.document.MediaTypes;
+import com.datasonnet.spi.Library;
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the caching of the compiled scripts of a {@link DatasonnetExpression}, including the scripts that property
+ * placeholder expressions resolve to.
+ */
+public class DatasonnetExpressionTests {
+
+    @TempDir
+    Path directory;
+
+    private CamelContext context;
+
+    @BeforeEach
+    public void setUp() {
+        context = new DefaultCamelContext();
+        context.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    public void ShouldSeparateCacheKeysByInputs() {
+        // Given
+        final DatasonnetExpression withoutInputs = new DatasonnetExpression("'constant'");
+        final DatasonnetExpression withInput = expression("'constant'", "first");
+        final DatasonnetExpression withOtherInput = expression("'constant'", "second");
+        final DatasonnetExpression withBothInputs = expression("'constant'", "first", "second");
+        final DatasonnetExpression withBothInputsReversed = expression("'constant'", "second", "first");
+
+        // When
+        final String key = withoutInputs.getCacheKey("'constant'");
+
+        // Then
+        assertThat(key)
+                .isNotEqualTo(withInput.getCacheKey("'constant'"))
+                .isNotEqualTo(withBothInputs.getCacheKey("'constant'"));
+        assertThat(withInput.getCacheKey("'constant'")).isNotEqualTo(withOtherInput.getCacheKey("'constant'"));
+        assertThat(withBothInputs.getCacheKey("'constant'"))
+                .isEqualTo(withBothInputsReversed.getCacheKey("'constant'"));
+        assertThat(key).isEqualTo(new DatasonnetExpression("'constant'").getCacheKey("'constant'"));
+    }
+
+    @Test
+    public void ShouldSeparateCacheKeysByLibraries() throws Exception {
+        // Given
+        final DatasonnetExpression withoutLibraries = new DatasonnetExpression("'constant'");
+        final DatasonnetExpression withLibrary = new DatasonnetExpression("'constant'");
+        withLibrary.setLibraries(List.of(defaultLibrary()));
+        final DatasonnetExpression withLibraryPath = new DatasonnetExpression("'constant'");
+        withLibraryPath.setLibraryPaths(List.of(directory.toString()));
+
+        // When
+        final String key = withoutLibraries.getCacheKey("'constant'");
+
+        // Then
+        assertThat(key)
+                .isNotEqualTo(withLibrary.getCacheKey("'constant'"))
+                .isNotEqualTo(withLibraryPath.getCacheKey("'constant'"));
+        assertThat(withLibrary.getCacheKey("'constant'")).isNotEqualTo(withLibraryPath.getCacheKey("'constant'"));
+    }
+
+    @Test
+    public void ShouldCompileSameScriptWithDifferentInputsSeparately() {
+        // Given
+        final DatasonnetExpression withoutInputs = expression("'constant'");
+        final DatasonnetExpression withInput = expression("'constant'", "first");
+        final DatasonnetExpression sameAsWithoutInputs = expression("'constant'");
+
+        // When
+        withoutInputs.init(context);
+        withInput.init(context);
+        sameAsWithoutInputs.init(context);
+
+        // Then
+        final DatasonnetMapperCache cache = getLanguage().getMapperCache();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getCompilations()).isEqualTo(2);
+        assertThat(evaluate(withInput)).isEqualTo("constant");
+        assertThat(evaluate(sameAsWithoutInputs)).isEqualTo("constant");
+    }
+
+    @Test
+    public void ShouldCompileResolvedPlaceholderScriptOncePerScript() {
+        // Given
+        final DatasonnetExpression placeholder = expression("${header.script}");
+        placeholder.init(context);
+
+        // When
+        final List<String> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(evaluate(placeholder, i % 2 == 0 ? "'first'" : "'second'"));
+        }
+
+        // Then
+        assertThat(results).containsExactly("first", "second", "first", "second", "first", "second", "first",
+                "second", "first", "second");
+        final DatasonnetMapperCache cache = getLanguage().getMapperCache();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getCompilations()).isEqualTo(2);
+        assertThat(cache.getHits()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    public void ShouldCompileResolvedPlaceholderScriptOnceWhenEvaluatedConcurrently() throws Exception {
+        // Given
+        final DatasonnetExpression placeholder = expression("${header.script}");
+        placeholder.init(context);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            final List<CompletableFuture<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    final List<String> results = new ArrayList<>();
+                    for (int j = 0; j < 20; j++) {
+                        results.add(evaluate(placeholder, "{ result: 'concurrent' }.result"));
+                    }
+                    return results;
+                }, executor));
+            }
+            start.countDown();
+
+            // Then
+            for (CompletableFuture<List<String>> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS)).hasSize(20).containsOnly("concurrent");
+            }
+            assertThat(getLanguage().getMapperCache().getCompilations()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ShouldCompileScriptAgainWhenImportedLibraryChanges() throws Exception {
+        // Given
+        final Path library = directory.resolve("greeting.libsonnet");
+        Files.writeString(library, "{ text: 'hello' }");
+        final DatasonnetExpression importing = expression(
+                "local greeting = import 'greeting.libsonnet'; greeting.text");
+        importing.setLibraryPaths(List.of(directory.toString()));
+        importing.init(context);
+        final DatasonnetExpression unrelated = expression("'unrelated'");
+        unrelated.setLibraryPaths(List.of(directory.toString()));
+        unrelated.init(context);
+        assertThat(evaluate(importing)).isEqualTo("hello");
+        final long compilations = getLanguage().getMapperCache().getCompilations();
+
+        // When
+        Files.writeString(library, "{ text: 'bye' }");
+
+        // Then
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!"bye".equals(evaluate(importing)) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(evaluate(importing)).isEqualTo("bye");
+        assertThat(evaluate(unrelated)).isEqualTo("unrelated");
+        assertThat(getLanguage().getMapperCache().getCompilations()).isEqualTo(compilations + 1);
+    }
+
+    @Test
+    public void ShouldForgetImportedLibrariesOfScriptsThatLeaveCache() throws Exception {
+        // Given
+        Files.writeString(directory.resolve("greeting.libsonnet"), "{ text: 'hello' }");
+        getLanguage().setCacheSize(2);
+        final DatasonnetExpression placeholder = expression("${header.script}");
+        placeholder.setLibraryPaths(List.of(directory.toString()));
+        placeholder.init(context);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            final String script = "local greeting = import 'greeting.libsonnet'; greeting.text + '" + i + "'";
+            assertThat(evaluate(placeholder, script)).isEqualTo("hello" + i);
+        }
+
+        // Then
+        assertThat(getLanguage().getMapperCache().getCompilations()).isEqualTo(10);
+        assertThat(getLanguage().getMapperCache().size()).isLessThanOrEqualTo(2);
+        assertThat(getLanguage().getImportCache().getTrackedScripts()).isLessThanOrEqualTo(2);
+    }
+
+    /**
+     * Creates an expression with inputs.
+     *
+     * @param theScript The DataSonnet script.
+     * @param theInputs The names of the inputs.
+     * @return The expression.
+     */
+    private static DatasonnetExpression expression(final String theScript, final String... theInputs) {
+        final DatasonnetExpression expression = new DatasonnetExpression(theScript);
+        expression.setInputs(Stream.of(theInputs).map(input -> DataSonnetInput.of(input, null)).toList());
+        expression.setOutputMediaType(MediaTypes.APPLICATION_JAVA);
+        return expression;
+    }
+
+    /**
+     * Evaluates an expression on an empty exchange.
+     *
+     * @param theExpression The expression.
+     * @return The result of the expression.
+     */
+    private String evaluate(final DatasonnetExpression theExpression) {
+        return theExpression.evaluate(new DefaultExchange(context), String.class);
+    }
+
+    /**
+     * Evaluates an expression on an exchange with a script in the {@code script} header.
+     *
+     * @param theExpression The expression.
+     * @param theScript     The script.
+     * @return The result of the expression.
+     */
+    private String evaluate(final DatasonnetExpression theExpression, final String theScript) {
+        final DefaultExchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("script", theScript);
+        return theExpression.evaluate(exchange, String.class);
+    }
+
+    /**
+     * Gets the DataSonnet language of the context.
+     *
+     * @return The DataSonnet language.
+     */
+    private DatasonnetLanguage getLanguage() {
+        return (DatasonnetLanguage) context.resolveLanguage("datasonnet");
+    }
+
+    /**
+     * Gets the library with the {@code ds} functions of DataSonnet, which is a Scala object.
+     *
+     * @return The library.
+     * @throws ReflectiveOperationException If the library could not be found.
+     */
+    private static Library defaultLibrary() throws ReflectiveOperationException {
+        return (Library) Class.forName("com.datasonnet.DS$").getField("MODULE$").get(null);
+    }
+
+}
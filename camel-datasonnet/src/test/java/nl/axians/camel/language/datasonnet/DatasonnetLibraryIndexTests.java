@@ -0,0 +1,75 @@
+package nl.axians.camel.language.datasonnet;
+
+import org.apache.camel.RuntimeCamelException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for finding the DataSonnet libraries on the classpath by the {@link DatasonnetLibraryIndex}.
+ */
+public class DatasonnetLibraryIndexTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void ShouldReadLibrariesListedInIndex() throws Exception {
+        // Given
+        write("META-INF/datasonnet/libraries.idx", "# Libraries\n\n/lib/indexed.libsonnet\nlib/missing.libsonnet\n");
+        write("lib/indexed.libsonnet", "{ indexed: 1 }");
+        write("lib/unlisted.libsonnet", "{ unlisted: true }");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+            // When
+            final Map<String, String> libraries = DatasonnetLibraryIndex.load(classLoader);
+            write("lib/indexed.libsonnet", "{ indexed: 2 }");
+
+            // Then
+            assertThat(libraries).isInstanceOf(DatasonnetLibraryIndex.class);
+            assertThat(libraries.keySet()).containsExactly("lib/indexed.libsonnet", "lib/missing.libsonnet");
+            assertThat(libraries.containsKey("lib/unlisted.libsonnet")).isFalse();
+            assertThat(libraries.get("lib/indexed.libsonnet")).isEqualTo("{ indexed: 2 }");
+            assertThatThrownBy(() -> libraries.get("lib/missing.libsonnet"))
+                    .isInstanceOf(RuntimeCamelException.class)
+                    .hasMessageContaining("lib/missing.libsonnet");
+        }
+    }
+
+    @Test
+    public void ShouldScanClasspathWithoutIndex() throws Exception {
+        // Given
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+            // When
+            final Map<String, String> libraries = DatasonnetLibraryIndex.load(classLoader);
+
+            // Then
+            assertThat(libraries)
+                    .isNotInstanceOf(DatasonnetLibraryIndex.class)
+                    .containsEntry("datasonnet/scanned.libsonnet", "{ scanned: true }");
+        }
+    }
+
+    /**
+     * Writes a file in the directory of the class loader.
+     *
+     * @param thePath    The path of the file in the directory.
+     * @param theContent The content of the file.
+     * @throws IOException If the file could not be written.
+     */
+    private void write(final String thePath, final String theContent) throws IOException {
+        final Path file = directory.resolve(thePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, theContent);
+    }
+
+}
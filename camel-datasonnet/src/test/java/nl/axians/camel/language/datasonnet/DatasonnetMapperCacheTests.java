@@ -0,0 +1,153 @@
+package nl.axians.camel.language.datasonnet;
+
+import com.datasonnet.Mapper;
+import com.datasonnet.MapperBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the compilation and eviction of scripts by the {@link DatasonnetMapperCache}.
+ */
+public class DatasonnetMapperCacheTests {
+
+    @Test
+    public void ShouldCompileScriptOnceWhenRequestedConcurrently() throws Exception {
+        // Given
+        final DatasonnetMapperCache cache = new DatasonnetMapperCache(10, DatasonnetMapperCache.ReferenceType.STRONG, 0);
+        final Mapper mapper = new MapperBuilder("1").build();
+        final AtomicInteger compilations = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            final List<CompletableFuture<Mapper>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    return cache.getOrCompile("key", () -> {
+                        compilations.incrementAndGet();
+                        sleep(200);
+                        return mapper;
+                    });
+                }, executor));
+            }
+            start.countDown();
+
+            // Then
+            for (CompletableFuture<Mapper> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(mapper);
+            }
+            assertThat(compilations).hasValue(1);
+            assertThat(cache.getCompilations()).isEqualTo(1);
+            assertThat(cache.size()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ShouldCompileScriptsWithDifferentKeysSeparately() {
+        // Given
+        final DatasonnetMapperCache cache = new DatasonnetMapperCache(10, DatasonnetMapperCache.ReferenceType.STRONG, 0);
+        final Mapper first = new MapperBuilder("1").build();
+        final Mapper second = new MapperBuilder("2").build();
+
+        // When
+        final Mapper firstResult = cache.getOrCompile("first", () -> first);
+        final Mapper secondResult = cache.getOrCompile("second", () -> second);
+        final Mapper cachedResult = cache.getOrCompile("first", () -> second);
+
+        // Then
+        assertThat(firstResult).isSameAs(first);
+        assertThat(secondResult).isSameAs(second);
+        assertThat(cachedResult).isSameAs(first);
+        assertThat(cache.getCompilations()).isEqualTo(2);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void ShouldNotKeepScriptThatIsInvalidatedWhileCompiling() {
+        // Given
+        final DatasonnetMapperCache cache = new DatasonnetMapperCache(10, DatasonnetMapperCache.ReferenceType.STRONG, 0);
+        final Mapper stale = new MapperBuilder("1").build();
+        final Mapper current = new MapperBuilder("2").build();
+
+        // When
+        final Mapper staleResult = cache.getOrCompile("key", () -> {
+            cache.invalidate("key");
+            return stale;
+        });
+        final Mapper currentResult = cache.getOrCompile("key", () -> current);
+
+        // Then
+        assertThat(staleResult).isSameAs(stale);
+        assertThat(currentResult).isSameAs(current);
+        assertThat(cache.getCompilations()).isEqualTo(2);
+        assertThat(cache.get("key")).isSameAs(current);
+    }
+
+    @Test
+    public void ShouldEvictScriptWhenFull() {
+        // Given
+        final DatasonnetMapperCache cache = new DatasonnetMapperCache(2, DatasonnetMapperCache.ReferenceType.STRONG, 0);
+        final Mapper mapper = new MapperBuilder("1").build();
+        cache.getOrCompile("first", () -> mapper);
+        cache.getOrCompile("second", () -> mapper);
+        cache.getOrCompile("first", () -> mapper);
+
+        // When
+        cache.getOrCompile("third", () -> mapper);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("third")).isSameAs(mapper);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void ShouldEvictExpiredScriptWhenLookedUp() {
+        // Given
+        final DatasonnetMapperCache cache = new DatasonnetMapperCache(10, DatasonnetMapperCache.ReferenceType.STRONG, 1);
+        final Mapper mapper = new MapperBuilder("1").build();
+        cache.getOrCompile("expired", () -> mapper);
+        sleep(1100);
+
+        // When
+        final Mapper result = cache.get("expired");
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    /**
+     * Sleeps without throwing a checked exception.
+     *
+     * @param theMillis The number of milliseconds to sleep.
+     */
+    private static void sleep(final long theMillis) {
+        try {
+            Thread.sleep(theMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
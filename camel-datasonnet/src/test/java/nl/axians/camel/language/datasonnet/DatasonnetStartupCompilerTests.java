@@ -0,0 +1,105 @@
+package nl.axians.camel.language.datasonnet;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Route;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.RoutePolicySupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static nl.axians.camel.language.datasonnet.DatasonnetBuilderSupport.dsonnet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the compilation of the DataSonnet scripts of the routes by the {@link DatasonnetStartupCompiler}.
+ */
+public class DatasonnetStartupCompilerTests {
+
+    @Test
+    public void ShouldCompileScriptsOfRoutesWhenContextStarts() throws Exception {
+        // Given
+        try (CamelContext context = new DefaultCamelContext()) {
+            context.addRoutes(new RouteBuilder() {
+
+                @Override
+                public void configure() {
+                    from("direct:first").transform(dsonnet("'first'"));
+                    from("direct:second").transform(dsonnet("'second'", String.class));
+                    from("direct:same").transform(dsonnet("'first'"));
+                }
+
+            });
+
+            // When
+            context.start();
+
+            // Then
+            final DatasonnetMapperCache cache = ((DatasonnetLanguage) context.resolveLanguage("datasonnet"))
+                    .getMapperCache();
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.getCompilations()).isEqualTo(2);
+            assertThat(context.createProducerTemplate().requestBody("direct:second", null, String.class))
+                    .isEqualTo("second");
+        }
+    }
+
+    @Test
+    public void ShouldCompileScriptsBeforeRoutesStart() throws Exception {
+        // Given
+        final AtomicLong compilationsOnRouteStart = new AtomicLong(-1);
+        try (CamelContext context = new DefaultCamelContext()) {
+            context.addRoutes(new RouteBuilder() {
+
+                @Override
+                public void configure() {
+                    from("direct:first")
+                            .routePolicy(new RoutePolicySupport() {
+
+                                @Override
+                                public void onStart(final Route theRoute) {
+                                    compilationsOnRouteStart.set(((DatasonnetLanguage) theRoute.getCamelContext()
+                                            .resolveLanguage("datasonnet")).getMapperCache().getCompilations());
+                                }
+
+                            })
+                            .transform(dsonnet("'first'"));
+                    from("direct:second").transform(dsonnet("'second'"));
+                }
+
+            });
+
+            // When
+            context.start();
+
+            // Then
+            assertThat(compilationsOnRouteStart).hasValue(2);
+        }
+    }
+
+    @Test
+    public void ShouldReportAllScriptsThatFailToCompileInSingleError() throws Exception {
+        // Given
+        try (CamelContext context = new DefaultCamelContext()) {
+            context.addRoutes(new RouteBuilder() {
+
+                @Override
+                public void configure() {
+                    from("direct:valid").transform(dsonnet("'valid'"));
+                    from("direct:first").transform(dsonnet("{ first: }"));
+                    from("direct:second").transform(dsonnet("[1, 2"));
+                }
+
+            });
+
+            // When / Then
+            assertThatThrownBy(context::start)
+                    .hasStackTraceContaining("Failed to compile 2 of 3 Datasonnet expressions")
+                    .hasStackTraceContaining("{ first: }")
+                    .hasStackTraceContaining("[1, 2");
+        }
+    }
+
+}
@@ -0,0 +1 @@
+{ scanned: true }
\ No newline at end of file
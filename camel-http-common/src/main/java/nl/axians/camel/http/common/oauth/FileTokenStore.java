@@ -0,0 +1,366 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link TokenStore} that keeps every token in its own file in a directory, e.g. on a volume that is shared by the
+ * pods of a deployment or that survives a restart. The tokens are encrypted at rest with AES-GCM using a key derived
+ * from a secret, and a file is replaced atomically, so readers never see a partially written token. The file name is a
+ * hash of the key of the credential set. Files that cannot be decrypted, e.g. because they were written with another
+ * secret, are treated as missing.
+ * <p>
+ * The refresh of a token is claimed by creating a lock file next to the token file, which fails if the file already
+ * exists. A lock file whose lease has passed is taken over by the next claimant, which replaces it atomically with its
+ * own claim. The takeover itself is claimed by creating a file for the expired claim, so of several claimants that find
+ * the same expired lock file only one takes it over. A claim is released under the same takeover file, so a lock file
+ * cannot be taken over between the check that it still contains the claim and its removal.
+ */
+@Slf4j
+public class FileTokenStore implements TokenStore {
+
+    private static final String SUFFIX = ".token";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TAKEOVER_SUFFIX = ".takeover";
+    private static final byte[] SALT = FileTokenStore.class.getName().getBytes(StandardCharsets.UTF_8);
+    private static final int KEY_ITERATIONS = 65536;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final Path directory;
+    private final SecretKey secretKey;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, String> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. The directory is created if it does not exist.
+     *
+     * @param theDirectory The directory to store the tokens in.
+     * @param theSecret    The secret to derive the encryption key from. All processes that share the directory must
+     *                     use the same secret.
+     * @throws IOException If the directory could not be created.
+     */
+    public FileTokenStore(@Nonnull final Path theDirectory, @Nonnull final String theSecret) throws IOException {
+        if (theSecret.isBlank()) {
+            throw new IllegalArgumentException("The secret of the token store must not be blank.");
+        }
+
+        directory = Files.createDirectories(theDirectory);
+        try {
+            final SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            final byte[] key = factory.generateSecret(
+                    new PBEKeySpec(theSecret.toCharArray(), SALT, KEY_ITERATIONS, 256)).getEncoded();
+            secretKey = new SecretKeySpec(key, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive the key of the token store", e);
+        }
+    }
+
+    /**
+     * Loads the token for a credential set from its file.
+     *
+     * @param theKey The key of the credential set.
+     * @return The token or {@code null} if there is no file, the file cannot be decrypted or the token has expired.
+     * @throws IOException If the file could not be read.
+     */
+    @Override
+    public OAuthToken load(@Nonnull final String theKey) throws IOException {
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(getFile(theKey, SUFFIX));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        final OAuthToken token;
+        try {
+            token = decrypt(theKey, content);
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable token file for {}: {}", theKey, e.getMessage());
+            return null;
+        }
+
+        return token.isExpired() ? null : token;
+    }
+
+    /**
+     * Saves the token for a credential set. The token is written to a temporary file, which then replaces the file of
+     * the credential set.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theToken The token.
+     * @throws IOException If the file could not be written.
+     */
+    @Override
+    public void save(@Nonnull final String theKey, @Nonnull final OAuthToken theToken) throws IOException {
+        final Path file = getFile(theKey, SUFFIX);
+        final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            if (Files.getFileStore(temporary).supportsFileAttributeView("posix")) {
+                Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+            }
+
+            Files.write(temporary, encrypt(theKey, theToken));
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to encrypt the token for " + theKey, e);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Claims the refresh of the token for a credential set by creating its lock file. The lock file contains the time
+     * at which the claim expires.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theLease The time after which the claim expires.
+     * @return Whether the claim was granted.
+     * @throws IOException If the lock file could not be created or read.
+     */
+    @Override
+    public boolean claimRefresh(@Nonnull final String theKey, @Nonnull final Duration theLease) throws IOException {
+        final Path lock = getFile(theKey, LOCK_SUFFIX);
+        final String claim = UUID.randomUUID() + "|" + (System.currentTimeMillis() + theLease.toMillis());
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                Files.writeString(lock, claim, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                claims.put(theKey, claim);
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                final String current = readClaim(lock);
+                if (current == null) {
+                    // The lock file was released in the meantime, so try to create it again.
+                    continue;
+                }
+
+                if (!isExpired(lock, current) || !takeOver(lock, current, claim)) {
+                    return false;
+                }
+
+                claims.put(theKey, claim);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Takes over a lock file whose lease has passed by replacing it with a new claim. Only the claimant that creates
+     * the takeover file of the expired claim may replace the lock file, and only if the lock file still contains the
+     * expired claim, so of several claimants that found the same expired lock file only one succeeds. A takeover file
+     * left behind by a process that stopped during the takeover is removed after a minute.
+     *
+     * @param theLock         The lock file.
+     * @param theExpiredClaim The content of the expired lock file.
+     * @param theClaim        The new claim.
+     * @return Whether the lock file was replaced with the new claim.
+     * @throws IOException If the lock file could not be replaced.
+     */
+    private boolean takeOver(@Nonnull final Path theLock, @Nonnull final String theExpiredClaim,
+                             @Nonnull final String theClaim) throws IOException {
+        final Path takeover = getFile(theExpiredClaim, TAKEOVER_SUFFIX);
+        try {
+            Files.createFile(takeover);
+        } catch (FileAlreadyExistsException e) {
+            if (isAbandoned(takeover)) {
+                Files.deleteIfExists(takeover);
+            }
+
+            return false;
+        }
+
+        try {
+            if (!theExpiredClaim.equals(readClaim(theLock))) {
+                // Another claimant took the lock file over first.
+                return false;
+            }
+
+            // The process that claimed the refresh did not release it in time.
+            final Path temporary = Files.createTempFile(directory, theLock.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temporary, theClaim, StandardCharsets.UTF_8);
+                try {
+                    Files.move(temporary, theLock, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, theLock, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+
+            return true;
+        } finally {
+            Files.deleteIfExists(takeover);
+        }
+    }
+
+    /**
+     * Releases a claim by removing the lock file, if it still contains the claim of this store. The takeover file of
+     * the claim is created first, so no other claimant can take the lock file over while it is checked and removed. If
+     * the takeover file already exists, another claimant is taking the expired claim over and the lock file is left to
+     * that claimant.
+     *
+     * @param theKey The key of the credential set.
+     * @throws IOException If the lock file could not be removed.
+     */
+    @Override
+    public void releaseRefresh(@Nonnull final String theKey) throws IOException {
+        final String claim = claims.remove(theKey);
+        if (claim == null) {
+            return;
+        }
+
+        final Path lock = getFile(theKey, LOCK_SUFFIX);
+        final Path takeover = getFile(claim, TAKEOVER_SUFFIX);
+        try {
+            Files.createFile(takeover);
+        } catch (FileAlreadyExistsException e) {
+            return;
+        }
+
+        try {
+            if (claim.equals(readClaim(lock))) {
+                Files.deleteIfExists(lock);
+            }
+        } finally {
+            Files.deleteIfExists(takeover);
+        }
+    }
+
+    /**
+     * Reads the claim in a lock file.
+     *
+     * @param theLock The lock file.
+     * @return The claim or {@code null} if there is no lock file.
+     * @throws IOException If the lock file could not be read.
+     */
+    private static String readClaim(@Nonnull final Path theLock) throws IOException {
+        try {
+            return Files.readString(theLock, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check whether the lease of a lock file has passed.
+     *
+     * @param theLock  The lock file.
+     * @param theClaim The claim in the lock file.
+     * @return Whether the lease has passed. A claim that cannot be parsed is considered expired when the lock file is
+     * abandoned.
+     * @throws IOException If the lock file could not be read.
+     */
+    private static boolean isExpired(@Nonnull final Path theLock, @Nonnull final String theClaim) throws IOException {
+        try {
+            return Long.parseLong(theClaim.substring(theClaim.indexOf('|') + 1)) < System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return isAbandoned(theLock);
+        }
+    }
+
+    /**
+     * Check whether a file was last modified more than a minute ago.
+     *
+     * @param theFile The file.
+     * @return Whether the file is abandoned. A file that no longer exists is considered abandoned.
+     * @throws IOException If the file could not be read.
+     */
+    private static boolean isAbandoned(@Nonnull final Path theFile) throws IOException {
+        try {
+            return Files.getLastModifiedTime(theFile).toMillis() < System.currentTimeMillis() - 60_000;
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Get a file of a credential set.
+     *
+     * @param theKey    The key of the credential set.
+     * @param theSuffix The suffix of the file.
+     * @return The file.
+     */
+    private Path getFile(@Nonnull final String theKey, @Nonnull final String theSuffix) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(theKey.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + theSuffix);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Encrypts a token. The key of the credential set is used as additional authenticated data, so the file of one
+     * credential set cannot be used for another.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theToken The token.
+     * @return The random IV followed by the encrypted token.
+     * @throws GeneralSecurityException If the token could not be encrypted.
+     * @throws IOException              If the token could not be serialized.
+     */
+    private byte[] encrypt(@Nonnull final String theKey, @Nonnull final OAuthToken theToken)
+            throws GeneralSecurityException, IOException {
+        final byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        final Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        cipher.updateAAD(theKey.getBytes(StandardCharsets.UTF_8));
+        final byte[] encrypted = cipher.doFinal(TokenCodec.write(theToken));
+
+        return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+    }
+
+    /**
+     * Decrypts a token.
+     *
+     * @param theKey     The key of the credential set.
+     * @param theContent The random IV followed by the encrypted token.
+     * @return The token.
+     * @throws GeneralSecurityException If the token could not be decrypted.
+     * @throws IOException              If the token could not be parsed.
+     */
+    private OAuthToken decrypt(@Nonnull final String theKey, @Nonnull final byte[] theContent)
+            throws GeneralSecurityException, IOException {
+        final Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, theContent, 0, IV_LENGTH));
+        cipher.updateAAD(theKey.getBytes(StandardCharsets.UTF_8));
+        return TokenCodec.read(cipher.doFinal(theContent, IV_LENGTH, theContent.length - IV_LENGTH));
+    }
+
+}
@@ -0,0 +1,66 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link TokenStore} that keeps the tokens in memory. It can be shared by token managers in the same JVM that are
+ * not shared through the {@link TokenRegistry}, e.g. in different class loaders, and is useful for testing.
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    private final Map<String, OAuthToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the token for a credential set.
+     *
+     * @param theKey The key of the credential set.
+     * @return The token or {@code null} if there is no valid token for the key.
+     */
+    @Override
+    public OAuthToken load(@Nonnull final String theKey) {
+        final OAuthToken token = tokens.get(theKey);
+        return token != null && !token.isExpired() ? token : null;
+    }
+
+    /**
+     * Saves the token for a credential set.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theToken The token.
+     */
+    @Override
+    public void save(@Nonnull final String theKey, @Nonnull final OAuthToken theToken) {
+        tokens.put(theKey, theToken);
+    }
+
+    /**
+     * Claims the refresh of the token for a credential set if it has not been claimed or the claim has expired.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theLease The time after which the claim expires.
+     * @return Whether the claim was granted.
+     */
+    @Override
+    public boolean claimRefresh(@Nonnull final String theKey, @Nonnull final Duration theLease) {
+        final long now = System.currentTimeMillis();
+        final long expiresAt = now + theLease.toMillis();
+        return claims.compute(theKey, (key, current) -> current == null || current < now ? expiresAt : current)
+                == expiresAt;
+    }
+
+    /**
+     * Releases a claim.
+     *
+     * @param theKey The key of the credential set.
+     */
+    @Override
+    public void releaseRefresh(@Nonnull final String theKey) {
+        claims.remove(theKey);
+    }
+
+}
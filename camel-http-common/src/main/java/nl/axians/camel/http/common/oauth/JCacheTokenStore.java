@@ -0,0 +1,124 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.cache.Cache;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link TokenStore} backed by a JCache (JSR-107) cache, e.g. a distributed cache that is shared by all nodes of a
+ * cluster. The refresh of a token is claimed with the atomic {@link Cache#putIfAbsent(Object, Object)} and
+ * {@link Cache#replace(Object, Object, Object)} operations of the cache, so only one node fetches a new token for a
+ * credential set and the other nodes pick it up from the cache.
+ * <p>
+ * The tokens are stored as JSON strings, so the cache does not need to know any classes of this library. The tokens
+ * are not encrypted, so the cache must be protected accordingly.
+ */
+@Slf4j
+public class JCacheTokenStore implements TokenStore {
+
+    private static final String CLAIM_SUFFIX = "#refresh";
+
+    private final Cache<String, String> cache;
+    private final Map<String, String> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param theCache The cache to store the tokens and claims in.
+     */
+    public JCacheTokenStore(@Nonnull final Cache<String, String> theCache) {
+        cache = theCache;
+    }
+
+    /**
+     * Loads the token for a credential set from the cache.
+     *
+     * @param theKey The key of the credential set.
+     * @return The token or {@code null} if there is no valid token for the key.
+     */
+    @Override
+    public OAuthToken load(@Nonnull final String theKey) {
+        final String json = cache.get(theKey);
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            final OAuthToken token = TokenCodec.read(json.getBytes(StandardCharsets.UTF_8));
+            return token.isExpired() ? null : token;
+        } catch (IOException e) {
+            log.warn("Ignoring invalid cached token for {}: {}", theKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the token for a credential set in the cache.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theToken The token.
+     * @throws IOException If the token could not be serialized.
+     */
+    @Override
+    public void save(@Nonnull final String theKey, @Nonnull final OAuthToken theToken) throws IOException {
+        cache.put(theKey, new String(TokenCodec.write(theToken), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Claims the refresh of the token for a credential set. The claim is an entry in the cache that holds a unique ID
+     * and the time at which it expires. An expired claim is replaced using compare-and-set, so only one node can take
+     * it over.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theLease The time after which the claim expires.
+     * @return Whether the claim was granted.
+     */
+    @Override
+    public boolean claimRefresh(@Nonnull final String theKey, @Nonnull final Duration theLease) {
+        final String claimKey = theKey + CLAIM_SUFFIX;
+        final String claim = UUID.randomUUID() + "|" + (System.currentTimeMillis() + theLease.toMillis());
+        final String current = cache.get(claimKey);
+        final boolean claimed = current == null ? cache.putIfAbsent(claimKey, claim) :
+                isExpired(current) && cache.replace(claimKey, current, claim);
+        if (claimed) {
+            claims.put(theKey, claim);
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Releases a claim by removing it from the cache, if the cache still holds the claim of this store.
+     *
+     * @param theKey The key of the credential set.
+     */
+    @Override
+    public void releaseRefresh(@Nonnull final String theKey) {
+        final String claim = claims.remove(theKey);
+        if (claim != null) {
+            cache.remove(theKey + CLAIM_SUFFIX, claim);
+        }
+    }
+
+    /**
+     * Check whether a claim has expired.
+     *
+     * @param theClaim The claim.
+     * @return Whether the claim has expired. A claim that cannot be parsed is considered expired.
+     */
+    private static boolean isExpired(@Nonnull final String theClaim) {
+        try {
+            return Long.parseLong(theClaim.substring(theClaim.indexOf('|') + 1)) < System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+}
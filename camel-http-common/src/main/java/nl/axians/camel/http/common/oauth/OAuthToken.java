@@ -3,6 +3,7 @@ package nl.axians.camel.http.common.oauth;
 import jakarta.annotation.Nonnull;
 
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents an OAuth token.
@@ -10,19 +11,56 @@ import java.time.Instant;
 public class OAuthToken implements Token {
 
     private final String accessToken;
+    private final String tokenType;
     private final Instant expiresAt;
+    private final long expiresAtMillis;
+    private final Instant validUntil;
+
+    /**
+     * Creates a new OAuth bearer token.
+     *
+     * @param theAccessToken The access token.
+     * @param theExpiresAt The expiration date and time of the token.
+     */
+    public OAuthToken(
+            @Nonnull final String theAccessToken,
+            @Nonnull final Instant theExpiresAt) {
+        this(theAccessToken, "Bearer", theExpiresAt);
+    }
 
     /**
      * Creates a new OAuth token.
      *
      * @param theAccessToken The access token.
+     * @param theTokenType The type of the token, e.g. {@code Bearer}.
      * @param theExpiresAt The expiration date and time of the token.
      */
     public OAuthToken(
             @Nonnull final String theAccessToken,
+            @Nonnull final String theTokenType,
             @Nonnull final Instant theExpiresAt) {
+        this(theAccessToken, theTokenType, theExpiresAt, theExpiresAt);
+    }
+
+    /**
+     * Creates a new OAuth token that is considered expired before the token issuer stops accepting it.
+     *
+     * @param theAccessToken The access token.
+     * @param theTokenType The type of the token, e.g. {@code Bearer}.
+     * @param theExpiresAt The expiration date and time of the token.
+     * @param theValidUntil The date and time until which the token issuer accepts the token, at or after the
+     *                      expiration date and time.
+     */
+    public OAuthToken(
+            @Nonnull final String theAccessToken,
+            @Nonnull final String theTokenType,
+            @Nonnull final Instant theExpiresAt,
+            @Nonnull final Instant theValidUntil) {
         accessToken = theAccessToken;
+        tokenType = theTokenType;
         expiresAt = theExpiresAt;
+        expiresAtMillis = theExpiresAt.toEpochMilli();
+        validUntil = theValidUntil.isBefore(theExpiresAt) ? theExpiresAt : theValidUntil;
     }
 
     /**
@@ -34,13 +72,51 @@ public class OAuthToken implements Token {
         return accessToken;
     }
 
+    /**
+     * Gets the type of the token, e.g. {@code Bearer}.
+     *
+     * @return The type of the token.
+     */
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Gets the expiration date and time of the token.
+     *
+     * @return The expiration date and time of the token.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the date and time until which the token issuer accepts the token. This is later than the expiration date and
+     * time when an expiration threshold was applied.
+     *
+     * @return The date and time until which the token is valid.
+     */
+    public Instant getValidUntil() {
+        return validUntil;
+    }
+
     /**
      * Check whether the token is expired.
      *
      * @return Whether the token is expired.
      */
     public boolean isExpired() {
-        return Instant.now().isAfter(expiresAt);
+        return System.currentTimeMillis() > expiresAtMillis;
+    }
+
+    /**
+     * Check whether the token expires within the given number of seconds.
+     *
+     * @param theSeconds The number of seconds.
+     * @return Whether the token is expired or expires within the given number of seconds.
+     */
+    public boolean expiresWithin(final long theSeconds) {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(theSeconds) > expiresAtMillis;
     }
 
 }
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -13,19 +15,72 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Manages OAuth tokens.
+ * Manages OAuth tokens. The manager is thread-safe: a valid token is read without locking, and when the token has to be
+ * refreshed only one request is sent to the token endpoint, which all concurrent callers wait for.
+ * <p>
+ * When a refresh-ahead window is set, the token is renewed in the background on a scheduler shared by all managers,
+ * at a random moment in the last part of its lifetime, while the current token keeps being used. Managers with a
+ * refresh-ahead window must be closed to stop the background renewal.
+ * <p>
+ * When a {@link TokenStore} is set, a valid token in the store is used instead of fetching a new token, and every
+ * fetched token is saved in the store, so a restarted process or another process can reuse it. A manager only fetches
+ * a token when it has claimed the refresh in the store; otherwise it polls the store until the process that holds the
+ * claim has saved the new token, or until the claim has expired.
+ * <p>
+ * Token requests are guarded by a circuit breaker. After a number of consecutive failures, requests for a new token
+ * fail immediately with the last error for a backoff window, instead of waiting for a degraded token endpoint. After
+ * the window, a single probe request is sent while other callers keep failing fast; the breaker closes when the probe
+ * succeeds and opens again when it fails. Optionally, a token that has expired locally but is still within its
+ * expiration threshold keeps being served while token requests fail or the breaker is open.
  */
-public class OAuthTokenManager {
+@Slf4j
+public class OAuthTokenManager implements TokenManager, Closeable {
 
     public static final String OAUTH_REQUEST_BODY_TEMPLATE = "grant_type={0}&client_id={1}&client_secret={2}";
 
-    private OAuthToken token;
+    // The time after which a claimed refresh expires if the process that claimed it does not release it.
+    private static final Duration REFRESH_LEASE = Duration.ofSeconds(30);
+
+    // The interval in milliseconds at which the token store is polled while another process refreshes the token.
+    private static final long STORE_POLL_INTERVAL_MILLIS = 200;
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_FAILURE_BACKOFF_SECONDS = 30;
+
+    private volatile OAuthToken token;
+    private volatile CompletableFuture<OAuthToken> completedToken;
+    private final Object refreshLock = new Object();
+    private CompletableFuture<OAuthToken> refresh;
+    private ScheduledFuture<?> scheduledRefresh;
+    private volatile long refreshAheadSeconds;
+    private volatile long expirationThresholdSeconds;
+    private volatile boolean closed;
+    private volatile TokenStore tokenStore;
+    private volatile String tokenStoreKey;
+    private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private volatile long failureBackoffSeconds = DEFAULT_FAILURE_BACKOFF_SECONDS;
+    private volatile boolean serveStaleToken;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean open;
+    private boolean probing;
+    private Throwable lastFailure;
     private final HttpClient httpClient;
     private final String tokenUrl;
     private final String requestBody;
+    private final HttpRequest tokenRequest;
     private final ObjectMapper objectMapper;
 
     /**
@@ -85,6 +140,7 @@ public class OAuthTokenManager {
         }
 
         requestBody = body;
+        tokenRequest = null;
     }
 
     /**
@@ -109,6 +165,143 @@ public class OAuthTokenManager {
                 "client_credentials", null, null);
     }
 
+    /**
+     * Creates a new OAuth token manager that sends the given request to fetch a token. Use this constructor when the
+     * token endpoint requires a request that the other constructors cannot create, e.g. with basic authorization.
+     *
+     * @param theHttpClient   The HTTP client to use.
+     * @param theTokenRequest The request to send to the token endpoint.
+     */
+    public OAuthTokenManager(
+            @Nonnull final HttpClient theHttpClient,
+            @Nonnull final HttpRequest theTokenRequest) {
+        httpClient = theHttpClient;
+        tokenUrl = theTokenRequest.uri().toString();
+        requestBody = null;
+        tokenRequest = theTokenRequest;
+        objectMapper = new ObjectMapper();
+    }
+
+
+    /**
+     * Gets the refresh-ahead window.
+     *
+     * @return The number of seconds before the token expires in which it is renewed in the background.
+     */
+    public long getRefreshAheadSeconds() {
+        return refreshAheadSeconds;
+    }
+
+    /**
+     * Sets the refresh-ahead window. The token is renewed in the background at a random moment between the start and
+     * the middle of the window. The window is limited to half of the lifetime of a token. If {@code 0}, the token is
+     * only fetched when it has expired.
+     *
+     * @param theRefreshAheadSeconds The number of seconds before the token expires in which it is renewed in the
+     *                               background.
+     */
+    public void setRefreshAheadSeconds(final long theRefreshAheadSeconds) {
+        refreshAheadSeconds = Math.max(0, theRefreshAheadSeconds);
+    }
+
+    /**
+     * Gets the expiration threshold.
+     *
+     * @return The number of seconds that is subtracted from the lifetime of a token.
+     */
+    public long getExpirationThresholdSeconds() {
+        return expirationThresholdSeconds;
+    }
+
+    /**
+     * Sets the expiration threshold. The threshold is subtracted from the lifetime of the tokens fetched afterward, so
+     * a token is not handed out when it expires within the threshold.
+     *
+     * @param theExpirationThresholdSeconds The number of seconds that is subtracted from the lifetime of a token.
+     */
+    public void setExpirationThresholdSeconds(final long theExpirationThresholdSeconds) {
+        expirationThresholdSeconds = Math.max(0, theExpirationThresholdSeconds);
+    }
+
+    /**
+     * Gets the number of consecutive failures after which the circuit breaker opens.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive failures after which the circuit breaker opens. If {@code 0}, the circuit breaker
+     * is disabled and every request for a new token is sent to the token endpoint. Default is
+     * {@value #DEFAULT_FAILURE_THRESHOLD}.
+     *
+     * @param theFailureThreshold The failure threshold.
+     */
+    public void setFailureThreshold(final int theFailureThreshold) {
+        failureThreshold = Math.max(0, theFailureThreshold);
+    }
+
+    /**
+     * Gets the backoff window of the circuit breaker.
+     *
+     * @return The number of seconds the circuit breaker stays open before a probe request is sent.
+     */
+    public long getFailureBackoffSeconds() {
+        return failureBackoffSeconds;
+    }
+
+    /**
+     * Sets the backoff window of the circuit breaker. Default is {@value #DEFAULT_FAILURE_BACKOFF_SECONDS} seconds.
+     *
+     * @param theFailureBackoffSeconds The number of seconds the circuit breaker stays open before a probe request is
+     *                                 sent.
+     */
+    public void setFailureBackoffSeconds(final long theFailureBackoffSeconds) {
+        failureBackoffSeconds = Math.max(0, theFailureBackoffSeconds);
+    }
+
+    /**
+     * Check whether a locally expired token is served while token requests fail.
+     *
+     * @return Whether a stale token is served.
+     */
+    public boolean isServeStaleToken() {
+        return serveStaleToken;
+    }
+
+    /**
+     * Sets whether a token that has expired locally, but is still within its expiration threshold, is served when a
+     * token request fails or the circuit breaker is open, instead of failing.
+     *
+     * @param theServeStaleToken Whether a stale token is served.
+     */
+    public void setServeStaleToken(final boolean theServeStaleToken) {
+        serveStaleToken = theServeStaleToken;
+    }
+
+    /**
+     * Gets the token store.
+     *
+     * @return The token store or {@code null} if tokens are not stored.
+     */
+    public TokenStore getTokenStore() {
+        return tokenStore;
+    }
+
+    /**
+     * Sets the token store. A valid token in the store is used instead of fetching a new token, and fetched tokens are
+     * saved in the store. Failures of the store are logged and otherwise ignored.
+     *
+     * @param theTokenStore The token store or {@code null} to not store tokens.
+     * @param theKey        The key of the credential set of this manager in the store. The key must not contain
+     *                      secrets.
+     */
+    public void setTokenStore(final TokenStore theTokenStore, @Nonnull final String theKey) {
+        tokenStoreKey = theKey;
+        tokenStore = theTokenStore;
+    }
 
     /**
      * Gets the OAuth token. Will fetch a new token if the current token has not been set or is expired.
@@ -117,38 +310,511 @@ public class OAuthTokenManager {
      * @throws IOException          If an error occurs while fetching the token.
      * @throws InterruptedException If the thread is interrupted while fetching the token.
      */
+    @Override
     public OAuthToken getToken() throws IOException, InterruptedException {
-        if (token == null || token.isExpired()) {
-            fetchToken();
+        final OAuthToken current = token;
+        if (current != null && !current.isExpired()) {
+            return current;
         }
 
-        return token;
+        return refreshToken(current);
     }
 
     /**
-     * Fetches a new OAuth token.
+     * Fetches a new OAuth token. If a token is already being fetched, waits for that token instead.
      *
      * @throws IOException          If an error occurs while fetching the token.
      * @throws InterruptedException If the thread is interrupted while fetching the token.
      */
+    @Override
     public void fetchToken() throws IOException, InterruptedException {
-        final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(tokenUrl))
-                .header("Content-Type", "application/x-www-form-urlencoded" )
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
+        refreshToken(token);
+    }
+
+    /**
+     * Gets the OAuth token without blocking the calling thread. Will fetch a new token if the current token has not
+     * been set or is expired. If the current token is valid, a future that has already completed is returned.
+     *
+     * @return The future OAuth token.
+     */
+    @Override
+    public CompletableFuture<OAuthToken> getTokenAsync() {
+        final OAuthToken current = token;
+        if (current != null && !current.isExpired()) {
+            return completedToken;
+        }
+
+        return refreshTokenAsync(current);
+    }
+
+    /**
+     * Gets the OAuth token without blocking the calling thread, making sure it does not expire within the given number
+     * of seconds. This lets every user of a shared manager apply its own expiration threshold: if the current token
+     * expires within the threshold, it is replaced, and all callers share the new token. If the current token is valid
+     * long enough, a future that has already completed is returned.
+     *
+     * @param theMinValiditySeconds The number of seconds the token must at least be valid.
+     * @return The future OAuth token.
+     */
+    public CompletableFuture<OAuthToken> getTokenAsync(final long theMinValiditySeconds) {
+        final OAuthToken current = token;
+        if (current != null && !current.expiresWithin(theMinValiditySeconds)) {
+            return completedToken;
+        }
+
+        return refreshTokenAsync(current);
+    }
+
+    /**
+     * Replaces a stale token, e.g. a token that was rejected with a 401 status. If the token has already been replaced
+     * by a valid token, that token is returned. If a token is already being fetched, waits for that token. Otherwise, a
+     * new token is fetched.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @return The new OAuth token.
+     * @throws IOException          If an error occurs while fetching the token.
+     * @throws InterruptedException If the thread is interrupted while fetching the token.
+     */
+    @Override
+    public OAuthToken refreshToken(final Token theStaleToken) throws IOException, InterruptedException {
+        return await(refreshTokenAsync(theStaleToken));
+    }
+
+    /**
+     * Replaces a stale token without blocking the calling thread. If the token has already been replaced by a valid
+     * token, that token is returned. If a token is already being fetched, the future of that token is returned.
+     * Otherwise, a new token is fetched. While the circuit breaker is open, the future fails immediately.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @return The future OAuth token.
+     */
+    @Override
+    public CompletableFuture<OAuthToken> refreshTokenAsync(final Token theStaleToken) {
+        final CompletableFuture<OAuthToken> future;
+        final OAuthToken previous;
+        synchronized (refreshLock) {
+            previous = token;
+            if (previous != null && previous != theStaleToken && !previous.isExpired()) {
+                return completedToken;
+            }
+
+            if (refresh != null) {
+                return probing ? failFast(previous) : refresh;
+            }
+
+            if (open) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return failFast(previous);
+                }
+
+                // Half-open: this request is the probe.
+                probing = true;
+            }
+
+            future = new CompletableFuture<>();
+            refresh = future;
+        }
+
+        // A synchronous failure must complete the refresh as well, or all later callers would wait for it forever.
+        CompletableFuture<OAuthToken> obtained;
+        try {
+            obtained = obtainTokenAsync(theStaleToken);
+        } catch (RuntimeException e) {
+            obtained = CompletableFuture.failedFuture(e);
+        }
+
+        obtained.whenComplete((fetched, error) -> {
+            final Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                    error.getCause() : error;
+            synchronized (refreshLock) {
+                if (error == null) {
+                    completedToken = CompletableFuture.completedFuture(fetched);
+                    token = fetched;
+                }
+                refresh = null;
+                recordResult(cause);
+            }
+
+            if (error == null) {
+                scheduleRefresh(fetched);
+                future.complete(fetched);
+            } else if (isServable(previous)) {
+                log.warn("Serving stale OAuth token for {} after failure: {}", tokenUrl, cause.getMessage());
+                future.complete(previous);
+            } else {
+                future.completeExceptionally(cause);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Stops the background renewal of the token.
+     */
+    @Override
+    public void close() {
+        synchronized (refreshLock) {
+            closed = true;
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+                scheduledRefresh = null;
+            }
+        }
+    }
+
+    /**
+     * Schedules the background renewal of a token if a refresh-ahead window is set. The renewal is randomized within the
+     * first half of the window, so managers that fetched their tokens at the same time do not all renew them at once.
+     *
+     * @param theToken The token to renew.
+     */
+    private void scheduleRefresh(@Nonnull final OAuthToken theToken) {
+        final long remaining = Duration.between(Instant.now(), theToken.getExpiresAt()).toMillis();
+        final long window = Math.min(TimeUnit.SECONDS.toMillis(refreshAheadSeconds), remaining / 2);
+        if (window <= 0) {
+            return;
+        }
+
+        schedule(theToken, remaining - window + ThreadLocalRandom.current().nextLong(window / 2 + 1));
+    }
+
+    /**
+     * Schedules the renewal of a token, replacing a previously scheduled renewal.
+     *
+     * @param theToken The token to renew.
+     * @param theDelay The delay in milliseconds.
+     */
+    private void schedule(@Nonnull final OAuthToken theToken, final long theDelay) {
+        synchronized (refreshLock) {
+            if (closed) {
+                return;
+            }
+
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+
+            scheduledRefresh = RefreshScheduler.INSTANCE.schedule(() -> refreshInBackground(theToken), theDelay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Renews a token in the background. If the renewal fails, it is retried halfway the remaining lifetime of the
+     * token, until the token has expired and is fetched on demand again.
+     *
+     * @param theToken The token to renew.
+     */
+    private void refreshInBackground(@Nonnull final OAuthToken theToken) {
+        refreshTokenAsync(theToken).whenComplete((fetched, error) -> {
+            final long remaining = Duration.between(Instant.now(), theToken.getExpiresAt()).toMillis();
+            if (error != null && token == theToken && remaining > 2000) {
+                schedule(theToken, remaining / 2);
+            }
+        });
+    }
+
+    /**
+     * Waits for a token that is being fetched.
+     *
+     * @param theFuture The future token.
+     * @return The OAuth token.
+     * @throws IOException          If an error occurred while fetching the token.
+     * @throws InterruptedException If the thread is interrupted while waiting for the token.
+     */
+    private static OAuthToken await(@Nonnull final CompletableFuture<OAuthToken> theFuture)
+            throws IOException, InterruptedException {
+        try {
+            return theFuture.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IOException("Failed to fetch OAuth token", e.getCause());
+        }
+    }
+
+    /**
+     * Records the result of a token request in the circuit breaker. Must be called while holding the refresh lock.
+     *
+     * @param theFailure The failure or {@code null} if the request succeeded.
+     */
+    private void recordResult(final Throwable theFailure) {
+        probing = false;
+        if (theFailure == null) {
+            if (open) {
+                log.info("Circuit breaker for OAuth token endpoint {} closed", tokenUrl);
+            }
+
+            consecutiveFailures = 0;
+            open = false;
+            lastFailure = null;
+            return;
+        }
+
+        consecutiveFailures++;
+        lastFailure = theFailure;
+        final int threshold = failureThreshold;
+        if (threshold > 0 && (open || consecutiveFailures >= threshold)) {
+            if (!open) {
+                log.warn("Circuit breaker for OAuth token endpoint {} opened after {} failures: {}", tokenUrl,
+                        consecutiveFailures, theFailure.getMessage());
+            }
+
+            open = true;
+            openUntilNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(failureBackoffSeconds);
+        }
+    }
+
+    /**
+     * Creates the result for a request for a new token while the circuit breaker is open. Must be called while holding
+     * the refresh lock.
+     *
+     * @param theCurrent The current token or {@code null} if there is no token.
+     * @return A future of the current token if it may be served, otherwise a future that failed with the last error.
+     */
+    private CompletableFuture<OAuthToken> failFast(final OAuthToken theCurrent) {
+        if (isServable(theCurrent)) {
+            return CompletableFuture.completedFuture(theCurrent);
+        }
+
+        final String message = lastFailure != null ? lastFailure.getMessage() : "probe in progress";
+        return CompletableFuture.failedFuture(new IOException(
+                "Failed to fetch OAuth token, circuit breaker is open: " + message, lastFailure));
+    }
+
+    /**
+     * Check whether a token may be served while the circuit breaker is open.
+     *
+     * @param theToken The token or {@code null}.
+     * @return Whether stale tokens are served and the token is still accepted by the token issuer.
+     */
+    private boolean isServable(final OAuthToken theToken) {
+        return serveStaleToken && theToken != null
+                && System.currentTimeMillis() < theToken.getValidUntil().toEpochMilli();
+    }
+
+    /**
+     * Obtains a new token from the token store or the token endpoint. If the store holds no valid token, the token is
+     * fetched when this manager claims the refresh, otherwise the store is polled until another process has saved the
+     * token.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @return The future OAuth token.
+     */
+    private CompletableFuture<OAuthToken> obtainTokenAsync(final Token theStaleToken) {
+        final OAuthToken stored = loadStoredToken(theStaleToken);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        if (claimRefresh()) {
+            return fetchAndStoreTokenAsync();
+        }
+
+        final CompletableFuture<OAuthToken> future = new CompletableFuture<>();
+        awaitStoredToken(theStaleToken, future);
+        return future;
+    }
+
+    /**
+     * Polls the token store until another process has saved a new token. If the claim of the other process is
+     * released or expires before a token was saved, this manager claims the refresh and fetches the token itself.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @param theFuture     The future to complete with the token.
+     */
+    private void awaitStoredToken(final Token theStaleToken, @Nonnull final CompletableFuture<OAuthToken> theFuture) {
+        RefreshScheduler.INSTANCE.schedule(() -> {
+            try {
+                final OAuthToken stored = loadStoredToken(theStaleToken);
+                if (stored != null) {
+                    theFuture.complete(stored);
+                } else if (claimRefresh()) {
+                    fetchAndStoreTokenAsync().whenComplete((fetched, error) -> {
+                        if (error == null) {
+                            theFuture.complete(fetched);
+                        } else {
+                            theFuture.completeExceptionally(error);
+                        }
+                    });
+                } else {
+                    awaitStoredToken(theStaleToken, theFuture);
+                }
+            } catch (RuntimeException e) {
+                theFuture.completeExceptionally(e);
+            }
+        }, STORE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches a token from the token endpoint, saves it in the token store and releases the claimed refresh.
+     *
+     * @return The future OAuth token.
+     */
+    private CompletableFuture<OAuthToken> fetchAndStoreTokenAsync() {
+        return requestTokenAsync()
+                .thenApply(this::storeToken)
+                .whenComplete((fetched, error) -> releaseRefresh());
+    }
+
+    /**
+     * Claims the refresh of the token in the token store. Without a store, or if the store fails, the refresh is
+     * always claimed.
+     *
+     * @return Whether this manager may fetch the token.
+     */
+    private boolean claimRefresh() {
+        final TokenStore store = tokenStore;
+        if (store == null) {
+            return true;
+        }
+
+        try {
+            return store.claimRefresh(tokenStoreKey, REFRESH_LEASE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to claim the refresh of the OAuth token for {}", tokenStoreKey, e);
+            return true;
+        }
+    }
+
+    /**
+     * Releases the claimed refresh of the token in the token store.
+     */
+    private void releaseRefresh() {
+        final TokenStore store = tokenStore;
+        if (store != null) {
+            try {
+                store.releaseRefresh(tokenStoreKey);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to release the refresh of the OAuth token for {}", tokenStoreKey, e);
+            }
+        }
+    }
+
+    /**
+     * Loads a valid token from the token store, if set.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet. A stored token with the same
+     *                      access token is ignored.
+     * @return The stored token or {@code null} if there is no valid stored token.
+     */
+    private OAuthToken loadStoredToken(final Token theStaleToken) {
+        final TokenStore store = tokenStore;
+        if (store == null) {
+            return null;
+        }
+
+        try {
+            final OAuthToken stored = store.load(tokenStoreKey);
+            if (stored == null || stored.isExpired()
+                    || theStaleToken != null && stored.getAccessToken().equals(theStaleToken.getAccessToken())) {
+                return null;
+            }
+
+            log.debug("Using stored OAuth token for {}, valid until {}", tokenStoreKey, stored.getExpiresAt());
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load OAuth token for {} from the token store", tokenStoreKey, e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves a fetched token in the token store, if set.
+     *
+     * @param theToken The fetched token.
+     * @return The token.
+     */
+    private OAuthToken storeToken(@Nonnull final OAuthToken theToken) {
+        final TokenStore store = tokenStore;
+        if (store != null) {
+            try {
+                store.save(tokenStoreKey, theToken);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to save OAuth token for {} in the token store", tokenStoreKey, e);
+            }
+        }
+
+        return theToken;
+    }
+
+    /**
+     * Sends a request for a new OAuth token to the token endpoint without blocking the calling thread.
+     *
+     * @return The future OAuth token.
+     */
+    private CompletableFuture<OAuthToken> requestTokenAsync() {
+        final HttpRequest request;
+        try {
+            request = tokenRequest != null ? tokenRequest : HttpRequest.newBuilder()
+                    .uri(URI.create(tokenUrl))
+                    .header("Content-Type", "application/x-www-form-urlencoded" )
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .build();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            try {
+                return handleTokenResponse(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Handles the response of the token endpoint.
+     *
+     * @param theResponse The response.
+     * @return The OAuth token.
+     * @throws IOException If the token endpoint returned an error or the token could not be parsed.
+     */
+    private OAuthToken handleTokenResponse(@Nonnull final HttpResponse<String> theResponse) throws IOException {
+        if (theResponse.statusCode() != 200) {
+            throw new TokenResponseException(theResponse.statusCode(), theResponse.body());
+        }
+
+        return parseToken(theResponse);
+    }
+
+    /**
+     * Holds the scheduler that renews the tokens of all managers in the background and polls the token stores. Its
+     * threads are daemon threads, so they do not keep the JVM alive.
+     */
+    private static final class RefreshScheduler {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
 
-        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200) {
-            throw new IOException("Failed to fetch OAuth token: " + response.body());
+        /**
+         * Creates the scheduler.
+         *
+         * @return The scheduler.
+         */
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            final AtomicInteger count = new AtomicInteger();
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+                final Thread thread = new Thread(runnable, "OAuthTokenRefresh-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
         }
 
-        token = parseToken(response);
     }
 
     /**
      * Parses the token from the response. This default implementation expects the token to be in JSON format as
-     * described in the OAuth 2.0 specification. If your token is in a different format, you can override this method.
+     * described in the OAuth 2.0 specification. The expiration threshold is subtracted from the lifetime of the token,
+     * while the full lifetime is kept as the time until which the token is valid. If your token is in a different
+     * format, you can override this method.
      *
      * @param theResponse The response.
      * @return The OAuth token.
@@ -158,8 +824,10 @@ public class OAuthTokenManager {
         final JsonNode jsonNode = objectMapper.readTree(theResponse.body());
         final String accessToken = jsonNode.get("access_token" ).asText();
         final long expiresIn = jsonNode.get("expires_in" ).asLong();
-        final Instant expirationTime = Instant.now().plusSeconds(expiresIn);
-        return new OAuthToken(accessToken, expirationTime);
+        final String tokenType = jsonNode.hasNonNull("token_type") ? jsonNode.get("token_type").asText() : "Bearer";
+        final Instant now = Instant.now();
+        final Instant expirationTime = now.plusSeconds(Math.max(0, expiresIn - expirationThresholdSeconds));
+        return new OAuthToken(accessToken, tokenType, expirationTime, now.plusSeconds(Math.max(0, expiresIn)));
     }
 
 }
@@ -0,0 +1,59 @@
+package nl.axians.camel.http.common.oauth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Serializes tokens for the {@link TokenStore} implementations.
+ */
+final class TokenCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Constructor.
+     */
+    private TokenCodec() {
+    }
+
+    /**
+     * Serializes a token to JSON.
+     *
+     * @param theToken The token.
+     * @return The JSON representation of the token.
+     * @throws IOException If the token could not be serialized.
+     */
+    static byte[] write(@Nonnull final OAuthToken theToken) throws IOException {
+        final ObjectNode node = OBJECT_MAPPER.createObjectNode()
+                .put("access_token", theToken.getAccessToken())
+                .put("token_type", theToken.getTokenType())
+                .put("expires_at", theToken.getExpiresAt().toEpochMilli())
+                .put("valid_until", theToken.getValidUntil().toEpochMilli());
+        return OBJECT_MAPPER.writeValueAsBytes(node);
+    }
+
+    /**
+     * Parses a token from JSON.
+     *
+     * @param theJson The JSON representation of the token.
+     * @return The token.
+     * @throws IOException If the token could not be parsed.
+     */
+    static OAuthToken read(@Nonnull final byte[] theJson) throws IOException {
+        final JsonNode node = OBJECT_MAPPER.readTree(theJson);
+        if (node == null || !node.hasNonNull("access_token") || !node.hasNonNull("expires_at")) {
+            throw new IOException("Invalid stored token");
+        }
+
+        final Instant expiresAt = Instant.ofEpochMilli(node.get("expires_at").asLong());
+        return new OAuthToken(node.get("access_token").asText(),
+                node.hasNonNull("token_type") ? node.get("token_type").asText() : "Bearer", expiresAt,
+                node.hasNonNull("valid_until") ? Instant.ofEpochMilli(node.get("valid_until").asLong()) : expiresAt);
+    }
+
+}
@@ -1,11 +1,13 @@
 package nl.axians.camel.http.common.oauth;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages tokens for OAuth authentication.
  */
-public interface TokenManager {
+public interface TokenManager extends Closeable {
 
     /**
      * Get the current token. Will fetch a new token if the current token has not been set or is expired.
@@ -24,5 +26,39 @@ public interface TokenManager {
      */
     void fetchToken() throws IOException, InterruptedException;
 
+    /**
+     * Get the current token without blocking the calling thread. Will fetch a new token if the current token has not
+     * been set or is expired. If the current token is valid, the returned future has already completed.
+     *
+     * @return The future OAuth token, which completes exceptionally if an error occurs while fetching the token.
+     */
+    CompletableFuture<? extends Token> getTokenAsync();
+
+    /**
+     * Replace a stale token, e.g. a token that was rejected with a 401 status. If the token has already been replaced
+     * by a valid token, that token is returned.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @return The new token.
+     * @throws IOException          If an error occurs while fetching the token.
+     * @throws InterruptedException If the request is interrupted while fetching the token.
+     */
+    Token refreshToken(Token theStaleToken) throws IOException, InterruptedException;
+
+    /**
+     * Replace a stale token without blocking the calling thread. If the token has already been replaced by a valid
+     * token, that token is returned.
+     *
+     * @param theStaleToken The token to replace or {@code null} if there is no token yet.
+     * @return The future token, which completes exceptionally if an error occurs while fetching the token.
+     */
+    CompletableFuture<? extends Token> refreshTokenAsync(Token theStaleToken);
+
+    /**
+     * Release the resources of the token manager. The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+    }
 
 }
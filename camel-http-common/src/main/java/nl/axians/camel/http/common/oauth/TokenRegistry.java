@@ -0,0 +1,237 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A JVM-wide registry of {@link OAuthTokenManager} instances. Components that send the same token request to the same
+ * token endpoint share a single manager, so a token is fetched and renewed once per credential set instead of once per
+ * producer or client. The managers are reference counted: every acquired manager must be released using
+ * {@link #release(OAuthTokenManager)} and a manager is closed when it is no longer used.
+ * <p>
+ * The {@link TokenSettings} of a shared manager are those of the component that created it. When another component
+ * acquires the manager with different settings, a warning is logged and its settings are ignored. Settings that may
+ * differ per component, such as an expiration threshold, must be applied by the component itself, e.g. using
+ * {@link OAuthTokenManager#getTokenAsync(long)}.
+ */
+@Slf4j
+public final class TokenRegistry {
+
+    private static final TokenRegistry INSTANCE = new TokenRegistry();
+
+    private final Map<TokenKey, Registration> registrations = new HashMap<>();
+    private HttpClient httpClient;
+
+    /**
+     * Constructor.
+     */
+    private TokenRegistry() {
+    }
+
+    /**
+     * Get the registry.
+     *
+     * @return The JVM-wide registry.
+     */
+    public static TokenRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Acquires the token manager for the given key. If no manager is registered for the key, one is created with the
+     * given factory and the settings are applied to it. The factory receives the HTTP client of the registry, which is
+     * not tied to the lifecycle of any component. If a manager is registered with different settings, a warning is
+     * logged and the registered manager is returned unchanged.
+     *
+     * @param theKey      The key of the credential set.
+     * @param theSettings The settings of the token manager.
+     * @param theFactory  Creates the token manager if no manager is registered for the key.
+     * @return The token manager.
+     */
+    public synchronized OAuthTokenManager acquire(
+            @Nonnull final TokenKey theKey,
+            @Nonnull final TokenSettings theSettings,
+            @Nonnull final Function<HttpClient, OAuthTokenManager> theFactory) {
+        Registration registration = registrations.get(theKey);
+        if (registration == null) {
+            if (httpClient == null) {
+                httpClient = HttpClient.newHttpClient();
+            }
+
+            final OAuthTokenManager manager = theFactory.apply(httpClient);
+            theSettings.applyTo(manager, theKey.id());
+            registration = new Registration(manager, theSettings);
+            registrations.put(theKey, registration);
+        } else if (!registration.settings.equals(theSettings)) {
+            log.warn("OAuth token for {} is shared with settings {}, ignoring conflicting settings {}", theKey,
+                    registration.settings, theSettings);
+        }
+
+        registration.references++;
+        return registration.manager;
+    }
+
+    /**
+     * Releases a token manager acquired using {@link #acquire(TokenKey, TokenSettings, Function)}. The manager is
+     * closed and removed from the registry when it is no longer used.
+     *
+     * @param theManager The token manager to release.
+     */
+    public synchronized void release(@Nonnull final OAuthTokenManager theManager) {
+        final Iterator<Registration> iterator = registrations.values().iterator();
+        while (iterator.hasNext()) {
+            final Registration registration = iterator.next();
+            if (registration.manager == theManager) {
+                if (--registration.references <= 0) {
+                    iterator.remove();
+                    theManager.close();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * The key of a credential set. Tokens are shared between all components that send the same token request, so the
+     * key covers every part of the request. Secrets are only kept as a hash. Use
+     * {@link #of(String, String, String, String, String, String, String, String, String, boolean)} to create a key.
+     *
+     * @param tokenUrl           The OAuth token URL.
+     * @param clientId           The OAuth client ID.
+     * @param secretHash         The hash of the client secret and the password.
+     * @param scope              The OAuth scope or {@code null}.
+     * @param tenantId           The tenant ID or {@code null}.
+     * @param grantType          The OAuth grant type.
+     * @param username           The username for the {@code password} grant type or {@code null}.
+     * @param redirectUri        The redirect URI or {@code null}.
+     * @param basicAuthorization Whether the client credentials are sent in a basic {@code Authorization} header
+     *                           instead of the request body.
+     */
+    public record TokenKey(String tokenUrl, String clientId, String secretHash, String scope, String tenantId,
+                           String grantType, String username, String redirectUri, boolean basicAuthorization) {
+
+        /**
+         * Creates the key of a token request.
+         *
+         * @param theTokenUrl           The OAuth token URL.
+         * @param theClientId           The OAuth client ID.
+         * @param theClientSecret       The OAuth client secret or {@code null}.
+         * @param theScope              The OAuth scope or {@code null}.
+         * @param theTenantId           The tenant ID or {@code null}.
+         * @param theGrantType          The OAuth grant type.
+         * @param theUsername           The username for the {@code password} grant type or {@code null}.
+         * @param thePassword           The password for the {@code password} grant type or {@code null}.
+         * @param theRedirectUri        The redirect URI or {@code null}.
+         * @param theBasicAuthorization Whether the client credentials are sent in a basic {@code Authorization} header.
+         * @return The key.
+         */
+        public static TokenKey of(
+                final String theTokenUrl,
+                final String theClientId,
+                final String theClientSecret,
+                final String theScope,
+                final String theTenantId,
+                final String theGrantType,
+                final String theUsername,
+                final String thePassword,
+                final String theRedirectUri,
+                final boolean theBasicAuthorization) {
+            return new TokenKey(theTokenUrl, theClientId, hash(theClientSecret, thePassword), theScope, theTenantId,
+                    theGrantType, theUsername, theRedirectUri, theBasicAuthorization);
+        }
+
+        /**
+         * Get an identifier of the credential set, e.g. to use as key in a {@link TokenStore}. The identifier does not
+         * contain secrets.
+         *
+         * @return The identifier.
+         */
+        public String id() {
+            return String.join("|", tokenUrl, clientId, secretHash, String.valueOf(scope), String.valueOf(tenantId),
+                    grantType, String.valueOf(username), String.valueOf(redirectUri),
+                    basicAuthorization ? "basic" : "body");
+        }
+
+        @Override
+        public String toString() {
+            return tokenUrl + " (client " + clientId + ", scope " + scope + ")";
+        }
+
+        /**
+         * Calculates the SHA-256 hash of secrets, so they can be part of a key without being kept.
+         *
+         * @param theSecrets The secrets, which may be {@code null}.
+         * @return The hexadecimal hash.
+         */
+        public static String hash(final String... theSecrets) {
+            try {
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String secret : theSecrets) {
+                    digest.update(String.valueOf(secret).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+    }
+
+    /**
+     * The settings of a shared token manager, which are applied by the component that creates the manager.
+     *
+     * @param tokenStore            The store to keep the tokens in or {@code null}.
+     * @param failureThreshold      The number of consecutive failures after which the circuit breaker opens.
+     * @param failureBackoffSeconds The number of seconds the circuit breaker stays open before a probe request is sent.
+     * @param serveStaleToken       Whether a token that expired locally is served while token requests fail.
+     * @param refreshAheadSeconds   The number of seconds before the token expires in which it is renewed in the
+     *                              background.
+     */
+    public record TokenSettings(TokenStore tokenStore, int failureThreshold, long failureBackoffSeconds,
+                                boolean serveStaleToken, long refreshAheadSeconds) {
+
+        /**
+         * Applies the settings to a token manager.
+         *
+         * @param theManager  The token manager.
+         * @param theStoreKey The key of the token in the token store.
+         */
+        private void applyTo(@Nonnull final OAuthTokenManager theManager, @Nonnull final String theStoreKey) {
+            theManager.setTokenStore(tokenStore, theStoreKey);
+            theManager.setFailureThreshold(failureThreshold);
+            theManager.setFailureBackoffSeconds(failureBackoffSeconds);
+            theManager.setServeStaleToken(serveStaleToken);
+            theManager.setRefreshAheadSeconds(refreshAheadSeconds);
+        }
+
+    }
+
+    /**
+     * A registered token manager.
+     */
+    private static final class Registration {
+
+        private final OAuthTokenManager manager;
+        private final TokenSettings settings;
+        private int references;
+
+        private Registration(@Nonnull final OAuthTokenManager theManager, @Nonnull final TokenSettings theSettings) {
+            manager = theManager;
+            settings = theSettings;
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when the token endpoint responds with an error status code.
+ */
+public class TokenResponseException extends IOException {
+
+    private final int statusCode;
+    private final String body;
+
+    /**
+     * Creates a new token response exception.
+     *
+     * @param theStatusCode The HTTP status code of the response.
+     * @param theBody       The body of the response.
+     */
+    public TokenResponseException(final int theStatusCode, @Nonnull final String theBody) {
+        super("Failed to fetch OAuth token: " + theBody);
+        statusCode = theStatusCode;
+        body = theBody;
+    }
+
+    /**
+     * Get the HTTP status code of the response.
+     *
+     * @return The status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the body of the response.
+     *
+     * @return The body.
+     */
+    public String getBody() {
+        return body;
+    }
+
+}
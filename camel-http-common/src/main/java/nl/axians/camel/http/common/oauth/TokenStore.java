@@ -0,0 +1,60 @@
+package nl.axians.camel.http.common.oauth;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Stores OAuth tokens outside the {@link OAuthTokenManager}, so a token can be reused after a restart or by other
+ * processes instead of being fetched from the token endpoint again. A token manager consults its store before it
+ * fetches a token and saves every token it fetches.
+ * <p>
+ * Stores that are shared by several processes can coordinate the refresh of a token: a manager only fetches a token
+ * when it has claimed the refresh of the credential set, while the managers of the other processes wait for the new
+ * token to appear in the store.
+ */
+public interface TokenStore {
+
+    /**
+     * Loads the token for a credential set.
+     *
+     * @param theKey The key of the credential set.
+     * @return The token or {@code null} if there is no valid token for the key.
+     * @throws IOException If the token could not be loaded.
+     */
+    OAuthToken load(@Nonnull String theKey) throws IOException;
+
+    /**
+     * Saves the token for a credential set, replacing a previously saved token.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theToken The token.
+     * @throws IOException If the token could not be saved.
+     */
+    void save(@Nonnull String theKey, @Nonnull OAuthToken theToken) throws IOException;
+
+    /**
+     * Claims the refresh of the token for a credential set. At most one claim per key is granted at a time. A claim is
+     * released using {@link #releaseRefresh(String)} and expires after the lease, e.g. when the process that holds it
+     * has died. The default implementation grants every claim, so the token is not coordinated.
+     *
+     * @param theKey   The key of the credential set.
+     * @param theLease The time after which the claim expires.
+     * @return Whether the claim was granted.
+     * @throws IOException If the claim could not be made.
+     */
+    default boolean claimRefresh(@Nonnull final String theKey, @Nonnull final Duration theLease) throws IOException {
+        return true;
+    }
+
+    /**
+     * Releases a claim made using {@link #claimRefresh(String, Duration)}.
+     *
+     * @param theKey The key of the credential set.
+     * @throws IOException If the claim could not be released.
+     */
+    default void releaseRefresh(@Nonnull final String theKey) throws IOException {
+    }
+
+}
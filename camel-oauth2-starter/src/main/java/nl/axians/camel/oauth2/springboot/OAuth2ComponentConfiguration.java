@@ -51,4 +51,42 @@ public class OAuth2ComponentConfiguration extends ComponentConfigurationProperti
      */
     private String redirectURI;
 
+    /**
+     * The reference to the store to keep tokens in, e.g. {@code #fileTokenStore}. A valid stored token is used instead
+     * of fetching a new one, e.g. after a restart.
+     */
+    private String tokenStore;
+
+    /**
+     * The number of consecutive token request failures after which requests fail immediately for the failure backoff
+     * window. If 0, every request is sent to the token endpoint. The default is 3.
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * The number of seconds token requests fail immediately after repeated failures, before a single probe request is
+     * sent. The default is 30 seconds.
+     */
+    private long failureBackoff = 30;
+
+    /**
+     * Whether a token that expired within the token expiration threshold is still used while token requests fail.
+     */
+    private boolean serveStaleToken;
+
+    /**
+     * Whether the token is fetched when a producer starts, so the first exchange does not wait for the token endpoint.
+     */
+    private boolean warmUp;
+
+    /**
+     * The maximum number of seconds to wait for the token when a producer starts. The default is 10 seconds.
+     */
+    private long warmUpTimeout = 10;
+
+    /**
+     * Whether a producer fails to start when the token could not be fetched during the warm-up.
+     */
+    private boolean warmUpFailOnError;
+
 }
@@ -1,5 +1,7 @@
 package nl.axians.camel.oauth2;
 
+import nl.axians.camel.http.common.oauth.OAuthTokenManager;
+import nl.axians.camel.http.common.oauth.TokenStore;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriParams;
@@ -49,6 +51,27 @@ public class OAuth2Configuration implements Cloneable {
     @UriParam(label = "security")
     private boolean useBasicAuthorization = true;
 
+    @UriParam(label = "advanced")
+    private TokenStore tokenStore;
+
+    @UriParam(label = "advanced", defaultValue = "3")
+    private int failureThreshold = OAuthTokenManager.DEFAULT_FAILURE_THRESHOLD;
+
+    @UriParam(label = "advanced", defaultValue = "30")
+    private long failureBackoff = OAuthTokenManager.DEFAULT_FAILURE_BACKOFF_SECONDS;
+
+    @UriParam(label = "advanced")
+    private boolean serveStaleToken;
+
+    @UriParam(label = "producer")
+    private boolean warmUp;
+
+    @UriParam(label = "producer", defaultValue = "10")
+    private long warmUpTimeout = 10;
+
+    @UriParam(label = "producer")
+    private boolean warmUpFailOnError;
+
     /**
      * The name of the access token. This is a user provided name and should be unique for each OAuth2
      * access token urt.
@@ -251,6 +274,140 @@ public class OAuth2Configuration implements Cloneable {
         useBasicAuthorization = theUseBasicAuthorization;
     }
 
+    /**
+     * Get the store to keep tokens in.
+     *
+     * @return The token store or {@code null} if tokens are not stored.
+     */
+    public TokenStore getTokenStore() {
+        return tokenStore;
+    }
+
+    /**
+     * Set the store to keep tokens in. A valid token in the store is used instead of fetching a new token, e.g. after
+     * a restart, and fetched tokens are saved in the store.
+     *
+     * @param theTokenStore The token store or {@code null} to not store tokens.
+     */
+    public void setTokenStore(TokenStore theTokenStore) {
+        tokenStore = theTokenStore;
+    }
+
+    /**
+     * Get the number of consecutive token request failures after which requests fail immediately for the failure
+     * backoff window. Default is 3.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Set the number of consecutive token request failures after which requests fail immediately for the failure
+     * backoff window.
+     *
+     * @param theFailureThreshold The failure threshold. If 0, every request is sent to the token endpoint.
+     */
+    public void setFailureThreshold(int theFailureThreshold) {
+        failureThreshold = theFailureThreshold;
+    }
+
+    /**
+     * Get the number of seconds token requests fail immediately after repeated failures, before a single probe request
+     * is sent. Default is 30 seconds.
+     *
+     * @return The failure backoff in seconds.
+     */
+    public long getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    /**
+     * Set the number of seconds token requests fail immediately after repeated failures.
+     *
+     * @param theFailureBackoff The failure backoff in seconds.
+     */
+    public void setFailureBackoff(long theFailureBackoff) {
+        failureBackoff = theFailureBackoff;
+    }
+
+    /**
+     * Get the flag to indicate if a token that expired within the token expiration threshold is still used while token
+     * requests fail.
+     *
+     * @return The flag to indicate if a stale token is used.
+     */
+    public boolean isServeStaleToken() {
+        return serveStaleToken;
+    }
+
+    /**
+     * Set the flag to indicate if a token that expired within the token expiration threshold is still used while token
+     * requests fail.
+     *
+     * @param theServeStaleToken The flag to indicate if a stale token is used.
+     */
+    public void setServeStaleToken(boolean theServeStaleToken) {
+        serveStaleToken = theServeStaleToken;
+    }
+
+    /**
+     * Get the flag to indicate if the token is fetched when the producer starts.
+     *
+     * @return The flag to indicate if the token is fetched when the producer starts.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Set the flag to indicate if the token is fetched when the producer starts, so the first exchange does not wait
+     * for the token endpoint.
+     *
+     * @param theWarmUp The flag to indicate if the token is fetched when the producer starts.
+     */
+    public void setWarmUp(boolean theWarmUp) {
+        warmUp = theWarmUp;
+    }
+
+    /**
+     * Get the maximum number of seconds to wait for the token when the producer starts.
+     *
+     * @return The warm-up timeout in seconds.
+     */
+    public long getWarmUpTimeout() {
+        return warmUpTimeout;
+    }
+
+    /**
+     * Set the maximum number of seconds to wait for the token when the producer starts.
+     *
+     * @param theWarmUpTimeout The warm-up timeout in seconds.
+     */
+    public void setWarmUpTimeout(long theWarmUpTimeout) {
+        warmUpTimeout = theWarmUpTimeout;
+    }
+
+    /**
+     * Get the flag to indicate if the producer fails to start when the token could not be fetched during the warm-up.
+     *
+     * @return The flag to indicate if a failed warm-up fails the start of the producer.
+     */
+    public boolean isWarmUpFailOnError() {
+        return warmUpFailOnError;
+    }
+
+    /**
+     * Set the flag to indicate if the producer fails to start when the token could not be fetched during the warm-up.
+     * If not set, the failure is logged and the token is fetched by the first exchange.
+     *
+     * @param theWarmUpFailOnError The flag to indicate if a failed warm-up fails the start of the producer.
+     */
+    public void setWarmUpFailOnError(boolean theWarmUpFailOnError) {
+        warmUpFailOnError = theWarmUpFailOnError;
+    }
+
     public String getAuthorizationHeader() {
         final String value = clientId + ":" + clientSecret;
         return "Basic " + Base64.getEncoder().encodeToString(value.getBytes());
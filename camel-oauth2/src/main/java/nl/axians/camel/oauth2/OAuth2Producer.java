@@ -1,34 +1,49 @@
 package nl.axians.camel.oauth2;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import nl.axians.camel.http.common.oauth.OAuthToken;
+import nl.axians.camel.http.common.oauth.OAuthTokenManager;
+import nl.axians.camel.http.common.oauth.TokenRegistry;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenSettings;
+import nl.axians.camel.http.common.oauth.TokenResponseException;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
-import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.support.DefaultAsyncProducer;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+/**
+ * Sets the {@code Authorization} header of an exchange to the token of the endpoint. The producer keeps an immutable
+ * snapshot of the current token with the precomputed header value and a monotonic deadline, so an exchange only
+ * reads the snapshot and sets the header while the token is valid. The token manager is consulted when the snapshot
+ * has expired. The producer does not block while a token is fetched: the exchange continues when the future of the
+ * token completes, and all exchanges that arrive during a refresh wait on the same future.
+ */
 @Slf4j
-public class OAuth2Producer extends DefaultProducer {
+public class OAuth2Producer extends DefaultAsyncProducer {
+
+    private static final String AUTHORIZATION = "Authorization";
 
-    private final OAuth2Endpoint endpoint;
-    private final ObjectMapper objectMapper;
     private final OAuth2Configuration configuration;
-    private HttpClient httpClient;
     private HttpRequest httpRequest;
-    private String accessToken;
-    private String tokenType;
-    private Instant tokenExpiration;
+    private OAuthTokenManager tokenManager;
+    private volatile TokenSnapshot snapshot;
 
     /**
      * Create a new OAuth2 producer.
@@ -39,20 +54,89 @@ public class OAuth2Producer extends DefaultProducer {
     public OAuth2Producer(final OAuth2Endpoint endpoint) throws URISyntaxException {
         super(endpoint);
 
-        this.endpoint = endpoint;
         this.configuration = endpoint.getConfiguration();
-        this.objectMapper = new ObjectMapper();
-        initHttpClient();
+        initHttpRequest();
     }
 
     /**
-     * Initialize the HTTP client and request.
+     * Acquires the token manager for the token request of the endpoint from the {@link TokenRegistry}, so the token is
+     * shared with all producers and components that send the same request. If warm-up is enabled, the token is
+     * fetched before the producer is started.
      *
-     * @throws URISyntaxException If the URI is invalid.
+     * @throws Exception If the producer could not be started.
      */
-    private void initHttpClient() throws URISyntaxException {
-        httpClient = HttpClient.newBuilder().build();
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        final TokenKey key = TokenKey.of(configuration.getAccessTokenUrl(), configuration.getClientId(),
+                configuration.getClientSecret(), configuration.getScope(), null, configuration.getGrantType(),
+                configuration.getUsername(), configuration.getPassword(), configuration.getRedirectURI(),
+                configuration.isUseBasicAuthorization());
+        final TokenSettings settings = new TokenSettings(configuration.getTokenStore(),
+                configuration.getFailureThreshold(), configuration.getFailureBackoff(),
+                configuration.isServeStaleToken(), 0);
+        tokenManager = TokenRegistry.getInstance().acquire(key, settings,
+                client -> new OAuthTokenManager(client, httpRequest));
+
+        if (configuration.isWarmUp()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Fetches the token, which also opens the connection to the token endpoint, so the first exchange does not wait
+     * for either. A failure or timeout fails the start of the producer if configured, otherwise it is logged and the
+     * first exchange waits for the token instead.
+     *
+     * @throws OAuth2Exception If the token could not be fetched and the warm-up must not fail silently.
+     */
+    private void warmUp() throws OAuth2Exception {
+        final String error;
+        try {
+            updateSnapshot(tokenManager.getTokenAsync(configuration.getTokenExpirationThreshold())
+                    .get(configuration.getWarmUpTimeout(), TimeUnit.SECONDS));
+            log.info("Fetched access token {} during warm-up", configuration.getName());
+            return;
+        } catch (ExecutionException e) {
+            error = e.getCause() instanceof TokenResponseException response
+                    ? response.getStatusCode() + " " + response.getBody()
+                    : e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        } catch (TimeoutException e) {
+            error = "no token within " + configuration.getWarmUpTimeout() + " seconds";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+        }
+
+        if (configuration.isWarmUpFailOnError()) {
+            throw new OAuth2Exception("Failed to warm up access token {0}: {1}", configuration.getName(), error);
+        }
 
+        log.warn("Failed to warm up access token {}, the first exchange fetches the token: {}",
+                configuration.getName(), error);
+    }
+
+    /**
+     * Releases the token manager.
+     *
+     * @throws Exception If the producer could not be stopped.
+     */
+    @Override
+    protected void doStop() throws Exception {
+        snapshot = null;
+        if (tokenManager != null) {
+            TokenRegistry.getInstance().release(tokenManager);
+            tokenManager = null;
+        }
+        super.doStop();
+    }
+
+    /**
+     * Initialize the access token request.
+     *
+     * @throws URISyntaxException If the URI is invalid.
+     */
+    private void initHttpRequest() throws URISyntaxException {
         // Create the access token request form data request parameters
         final Map<String, String> formData = new HashMap<>();
         formData.put("grant_type", configuration.getGrantType());
@@ -105,26 +189,94 @@ public class OAuth2Producer extends DefaultProducer {
                 .collect(Collectors.joining("&"));
     }
 
+    /**
+     * Sets the {@code Authorization} header. While the snapshot of the token is valid, this completes synchronously
+     * and does not allocate. Otherwise, the exchange continues when the token manager has the token.
+     *
+     * @param exchange The exchange.
+     * @param callback The callback to invoke when the header has been set or the token could not be retrieved.
+     * @return Whether the exchange was processed synchronously.
+     */
     @Override
-    public void process(Exchange exchange) throws Exception {
-        if (accessToken == null || tokenExpiration.isBefore(Instant.now())) {
-            log.debug("Retrieving access token from {} for scope {}", httpRequest.uri().toString(), configuration.getScope());
-            final HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200) {
-                throw new OAuth2Exception("Failed to retrieve access token {0}: {1} {2}",
-                        configuration.getName(), response.statusCode(), response.body());
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        final TokenSnapshot current = snapshot;
+        if (current != null && current.deadlineNanos - System.nanoTime() > 0) {
+            exchange.getIn().setHeader(AUTHORIZATION, current.header);
+            callback.done(true);
+            return true;
+        }
+
+        final CompletableFuture<OAuthToken> future = tokenManager.getTokenAsync(configuration.getTokenExpirationThreshold());
+        if (future.isDone()) {
+            complete(exchange, future);
+            callback.done(true);
+            return true;
+        }
+
+        future.whenComplete((token, error) -> {
+            complete(exchange, future);
+            callback.done(false);
+        });
+        return false;
+    }
+
+    /**
+     * Sets the {@code Authorization} header from a completed future of the token, or sets the exception on the exchange
+     * if the token could not be retrieved.
+     *
+     * @param exchange The exchange.
+     * @param future   The completed future of the token.
+     */
+    private void complete(Exchange exchange, CompletableFuture<OAuthToken> future) {
+        try {
+            exchange.getIn().setHeader(AUTHORIZATION, updateSnapshot(future.join()).header);
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TokenResponseException response) {
+                exchange.setException(new OAuth2Exception("Failed to retrieve access token {0}: {1} {2}",
+                        configuration.getName(), response.getStatusCode(), response.getBody()));
+            } else {
+                exchange.setException(cause instanceof IOException ?
+                        new OAuth2Exception("Failed to retrieve access token {0}: {1}", configuration.getName(),
+                                cause.getMessage()) : cause);
             }
+        } catch (RuntimeException e) {
+            exchange.setException(e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with a snapshot of the given token. The snapshot expires {@code tokenExpirationThreshold}
+     * seconds before the token, so the threshold of this producer applies even when the token is shared.
+     *
+     * @param token The token retrieved from the token manager.
+     * @return The new snapshot.
+     */
+    private TokenSnapshot updateSnapshot(OAuthToken token) {
+        final Duration remaining = Duration.between(Instant.now(), token.getExpiresAt())
+                .minusSeconds(configuration.getTokenExpirationThreshold());
+        final TokenSnapshot created = new TokenSnapshot(token.getTokenType() + " " + token.getAccessToken(),
+                System.nanoTime() + remaining.toNanos());
+        if (log.isDebugEnabled()) {
+            log.debug("Using access token {} with token type {} and expiration {}", configuration.getName(),
+                    token.getTokenType(), token.getExpiresAt());
+        }
 
-            final TokenResponse tokenResponse = objectMapper.readValue(response.body(), TokenResponse.class);
-            long timeToLive = tokenResponse.getExpiresIn() - endpoint.getConfiguration().getTokenExpirationThreshold();
-            accessToken = tokenResponse.getAccessToken();
-            tokenType = tokenResponse.getTokenType();
-            tokenExpiration = Instant.now().plusSeconds(timeToLive > 0 ? timeToLive : 0);
+        // A stale token served while the token endpoint fails is not cached, so the next exchange asks again.
+        if (!remaining.isNegative() && !remaining.isZero()) {
+            snapshot = created;
         }
 
-        log.debug("Setting Authorization header with token type {} and expiration {}", tokenType,
-                DateTimeFormatter.ISO_INSTANT.format(tokenExpiration));
-        exchange.getIn().setHeader("Authorization", tokenType + " " + accessToken);
+        return created;
+    }
+
+    /**
+     * An immutable snapshot of the current token.
+     *
+     * @param header        The value of the {@code Authorization} header.
+     * @param deadlineNanos The {@link System#nanoTime()} at which the token expires for this producer.
+     */
+    private record TokenSnapshot(String header, long deadlineNanos) {
     }
 
 }
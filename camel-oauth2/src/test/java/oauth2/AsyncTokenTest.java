@@ -0,0 +1,50 @@
+package oauth2;
+
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.Exchange;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} does not block while a token is fetched and that all exchanges that arrive during
+ * the fetch wait for the same token.
+ */
+public class AsyncTokenTest extends BaseOAuth2Test {
+
+    @Test
+    public void Should_Continue_All_Exchanges_After_Single_Fetch() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withDelay(Delay.milliseconds(500))
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        final List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(template.asyncSendBody("direct:start", null));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+
+        final List<Exchange> exchanges = getMockEndpoint("mock:result").getExchanges();
+        assertThat(exchanges).hasSize(10)
+                .allSatisfy(exchange -> assertThat(exchange.getIn().getHeader("Authorization"))
+                        .isEqualTo("Bearer 1234567890"));
+    }
+
+}
@@ -1,11 +1,15 @@
 package oauth2;
 
 import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.AsyncProducer;
 import org.apache.camel.Exchange;
 import org.junit.jupiter.api.Test;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.verify.VerificationTimes;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
@@ -43,4 +47,41 @@ public class CachedTokenTest extends BaseOAuth2Test {
         assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer 1234567890");
     }
 
+    @Test
+    public void Should_Process_Synchronously_While_Token_Is_Cached() throws Exception
+    {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        final OAuth2Endpoint endpoint = context.getEndpoint(
+                "oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope",
+                OAuth2Endpoint.class);
+        final AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+        try {
+            producer.process(endpoint.createExchange(), doneSync -> {
+            });
+
+            // Act
+            final List<Boolean> callbacks = new ArrayList<>();
+            final List<Exchange> exchanges = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final Exchange exchange = endpoint.createExchange();
+                assertThat(producer.process(exchange, callbacks::add)).isTrue();
+                exchanges.add(exchange);
+            }
+
+            // Assert
+            assertThat(callbacks).hasSize(100).containsOnly(true);
+            assertThat(exchanges).allSatisfy(exchange ->
+                    assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer 1234567890"));
+            mockServer.verify(request, VerificationTimes.exactly(1));
+        } finally {
+            producer.stop();
+        }
+    }
+
 }
@@ -0,0 +1,54 @@
+package oauth2;
+
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import nl.axians.camel.oauth2.OAuth2Exception;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} stops sending token requests to a failing token endpoint.
+ */
+public class CircuitBreakerTest extends BaseOAuth2Test {
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .to("oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope&failureThreshold=2&failureBackoff=60")
+                        .to("mock:result");
+            }
+
+        };
+    }
+
+    @Test
+    public void Should_Fail_Fast_When_Token_Endpoint_Keeps_Failing() {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(503)
+                        .withBody("Service Unavailable"));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> template.sendBody("direct:start", null))
+                    .hasCauseInstanceOf(OAuth2Exception.class);
+        }
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(2));
+        assertThat(getMockEndpoint("mock:result").getExchanges()).isEmpty();
+    }
+
+}
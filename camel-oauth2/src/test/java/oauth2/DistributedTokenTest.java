@@ -0,0 +1,110 @@
+package oauth2;
+
+import nl.axians.camel.http.common.oauth.JCacheTokenStore;
+import nl.axians.camel.http.common.oauth.OAuthToken;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.spi.Registry;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} instances on different nodes coordinate the refresh of a token through a
+ * {@link JCacheTokenStore}. The other node is simulated with a second store on the same in-process cache.
+ */
+public class DistributedTokenTest extends BaseOAuth2Test {
+
+    private static final String KEY = TokenKey.of("http://localhost:1080/token", "client", "secret", "scope",
+            null, "client_credentials", null, null, null, true).id();
+
+    private Cache<String, String> cache;
+
+    @Override
+    protected void bindToRegistry(Registry registry) throws Exception {
+        cache = Caching.getCachingProvider("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .getCacheManager()
+                .createCache("tokens-" + System.nanoTime(),
+                        new MutableConfiguration<String, String>().setTypes(String.class, String.class));
+        registry.bind("tokenStore", new JCacheTokenStore(cache));
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .to("oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope&tokenStore=#tokenStore")
+                        .to("mock:result");
+            }
+
+        };
+    }
+
+    @Test
+    public void Should_Wait_For_Token_Of_Other_Node() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        final JCacheTokenStore otherNode = new JCacheTokenStore(cache);
+        assertThat(otherNode.claimRefresh(KEY, Duration.ofSeconds(30))).isTrue();
+        CompletableFuture.runAsync(() -> {
+            try {
+                otherNode.save(KEY, new OAuthToken("other", Instant.now().plusSeconds(3600)));
+                otherNode.releaseRefresh(KEY);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+
+        // Act
+        template.sendBody("direct:start", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(0));
+
+        final Exchange exchange = getMockEndpoint("mock:result").getExchanges().get(0);
+        assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer other");
+    }
+
+    @Test
+    public void Should_Fetch_And_Share_Token_When_Claimed() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        template.sendBody("direct:start", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+
+        final JCacheTokenStore otherNode = new JCacheTokenStore(cache);
+        assertThat(otherNode.load(KEY)).isNotNull()
+                .extracting(OAuthToken::getAccessToken).isEqualTo("1234567890");
+        assertThat(otherNode.claimRefresh(KEY, Duration.ofSeconds(30))).isTrue();
+    }
+
+}
@@ -0,0 +1,80 @@
+package oauth2;
+
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} instances with the same credentials share a single token.
+ */
+public class SharedTokenTest extends BaseOAuth2Test {
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .to("oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope")
+                        .to("mock:result");
+
+                from("direct:other")
+                        .to("oauth2://other?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope")
+                        .to("mock:other");
+
+                from("direct:secret")
+                        .to("oauth2://secret?clientId=client&clientSecret=other&accessTokenUrl=http://localhost:1080/token&scope=scope")
+                        .to("mock:secret");
+            }
+
+        };
+    }
+
+    @Test
+    public void Should_Share_Token_Between_Endpoints() {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        template.sendBody("direct:start", null);
+        template.sendBody("direct:other", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+
+        final Exchange exchange = getMockEndpoint("mock:other").getExchanges().get(0);
+        assertThat(exchange).isNotNull();
+        assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer 1234567890");
+    }
+
+    @Test
+    public void Should_Not_Share_Token_Between_Endpoints_With_Different_Secrets() {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        template.sendBody("direct:start", null);
+        template.sendBody("direct:secret", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(2));
+        mockServer.verify(request().withHeader("Authorization", "Basic " + "Y2xpZW50Om90aGVy"),
+                VerificationTimes.exactly(1));
+    }
+
+}
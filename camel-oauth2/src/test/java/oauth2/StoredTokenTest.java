@@ -0,0 +1,184 @@
+package oauth2;
+
+import nl.axians.camel.http.common.oauth.FileTokenStore;
+import nl.axians.camel.http.common.oauth.OAuthToken;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.spi.Registry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} uses and saves tokens in a {@link FileTokenStore}.
+ */
+public class StoredTokenTest extends BaseOAuth2Test {
+
+    private static final String KEY = TokenKey.of("http://localhost:1080/token", "client", "secret", "scope",
+            null, "client_credentials", null, null, null, true).id();
+
+    @TempDir
+    Path directory;
+
+    private FileTokenStore tokenStore;
+
+    @Override
+    protected void bindToRegistry(Registry registry) throws Exception {
+        tokenStore = new FileTokenStore(directory, "secret");
+        registry.bind("fileTokenStore", tokenStore);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .to("oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope&tokenStore=#fileTokenStore")
+                        .to("mock:result");
+            }
+
+        };
+    }
+
+    @Test
+    public void Should_Use_Stored_Token() throws Exception {
+        // Arrange
+        tokenStore.save(KEY, new OAuthToken("stored", Instant.now().plusSeconds(3600)));
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        template.sendBody("direct:start", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(0));
+
+        final Exchange exchange = getMockEndpoint("mock:result").getExchanges().get(0);
+        assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer stored");
+    }
+
+    @Test
+    public void Should_Save_Fetched_Token() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act
+        template.sendBody("direct:start", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+        assertThat(tokenStore.load(KEY)).isNotNull()
+                .extracting(OAuthToken::getAccessToken).isEqualTo("1234567890");
+        assertThat(new FileTokenStore(directory, "other").load(KEY)).isNull();
+    }
+
+    @Test
+    public void Should_Grant_Expired_Claim_To_Single_Claimant() throws Exception {
+        // Arrange
+        final int count = 8;
+        final List<FileTokenStore> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new FileTokenStore(directory, "secret"));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            for (int round = 0; round < 20; round++) {
+                final String key = KEY + round;
+                assertThat(tokenStore.claimRefresh(key, Duration.ofSeconds(-1))).isTrue();
+
+                // Act
+                final CyclicBarrier barrier = new CyclicBarrier(count);
+                final List<CompletableFuture<Boolean>> claims = new ArrayList<>();
+                for (FileTokenStore node : nodes) {
+                    claims.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            barrier.await(10, TimeUnit.SECONDS);
+                            return node.claimRefresh(key, Duration.ofSeconds(30));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor));
+                }
+
+                // Assert
+                assertThat(claims.stream().filter(claim -> claim.join()).count()).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void Should_Not_Release_Claim_That_Was_Taken_Over() throws Exception {
+        // Arrange
+        final FileTokenStore owner = new FileTokenStore(directory, "secret");
+        final FileTokenStore first = new FileTokenStore(directory, "secret");
+        final FileTokenStore second = new FileTokenStore(directory, "secret");
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < 200; round++) {
+                final String key = KEY + round;
+                assertThat(owner.claimRefresh(key, Duration.ofSeconds(-1))).isTrue();
+
+                // Act: the owner releases its expired claim while two other nodes claim the refresh.
+                final CyclicBarrier barrier = new CyclicBarrier(3);
+                final CompletableFuture<Void> release = CompletableFuture.runAsync(() -> {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        owner.releaseRefresh(key);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor);
+                final List<CompletableFuture<Boolean>> claims = new ArrayList<>();
+                for (FileTokenStore node : List.of(first, second)) {
+                    claims.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            barrier.await(10, TimeUnit.SECONDS);
+                            return node.claimRefresh(key, Duration.ofSeconds(30));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor));
+                }
+                release.join();
+                final boolean claimedAfterRelease = owner.claimRefresh(key, Duration.ofSeconds(30));
+
+                // Assert
+                final long granted = claims.stream().filter(claim -> claim.join()).count();
+                assertThat(granted).isLessThanOrEqualTo(1);
+                assertThat(granted + (claimedAfterRelease ? 1 : 0)).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package oauth2;
 
 import nl.axians.camel.oauth2.OAuth2Endpoint;
 import nl.axians.camel.oauth2.OAuth2Exception;
+import org.apache.camel.Exchange;
 import org.junit.jupiter.api.Test;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
@@ -44,5 +45,22 @@ public class TokenErrorTest extends BaseOAuth2Test {
         mockServer.verify(request().withHeader("Content-Type", "application/x-www-form-urlencoded"));
     }
 
+    @Test
+    public void Should_Report_Status_Code_Of_Token_Endpoint() {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(401)
+                        .withBody("{\"error\":\"invalid_client\"}"));
+
+        // Act
+        final Exchange exchange = template.send("direct:start", theExchange -> {
+        });
+
+        // Assert
+        assertThat(exchange.getException())
+                .isInstanceOf(OAuth2Exception.class)
+                .hasMessage("Failed to retrieve access token test: 401 {\"error\":\"invalid_client\"}");
+    }
 
 }
@@ -0,0 +1,304 @@
+package oauth2;
+
+import nl.axians.camel.http.common.oauth.OAuthToken;
+import nl.axians.camel.http.common.oauth.OAuthTokenManager;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.Delay;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.RegexBody;
+import org.mockserver.verify.VerificationTimes;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test the refresh of the token by {@link OAuthTokenManager}.
+ */
+public class TokenRefreshTest extends BaseOAuth2Test {
+
+    private static final String TOKEN_URL = "http://localhost:1080/token";
+
+    @Test
+    public void Should_Share_Single_Refresh_Between_Concurrent_Callers() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withDelay(Delay.milliseconds(500))
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        try (OAuthTokenManager manager = new OAuthTokenManager(HttpClient.newHttpClient(), TOKEN_URL, "client",
+                "secret", "scope", null)) {
+            // Act
+            final List<CompletableFuture<OAuthToken>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(manager.getTokenAsync());
+            }
+            final OAuthToken token = futures.get(0).get(10, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(futures).allSatisfy(future -> assertThat(future).isSameAs(futures.get(0)));
+            assertThat(token.getAccessToken()).isEqualTo("1234567890");
+            mockServer.verify(request, VerificationTimes.exactly(1));
+        }
+    }
+
+    @Test
+    public void Should_Return_Completed_Token_While_Refresh_Is_In_Flight() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request, Times.once())
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"first\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withDelay(Delay.seconds(2))
+                        .withBody("{\"access_token\":\"second\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        try (OAuthTokenManager manager = new OAuthTokenManager(HttpClient.newHttpClient(), TOKEN_URL, "client",
+                "secret", "scope", null)) {
+            final OAuthToken first = manager.getTokenAsync().get(10, TimeUnit.SECONDS);
+            final CompletableFuture<OAuthToken> cached = manager.getTokenAsync();
+            final CompletableFuture<OAuthToken> refresh = manager.refreshTokenAsync(first);
+
+            // Act
+            final List<CompletableFuture<OAuthToken>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(manager.getTokenAsync());
+                futures.add(manager.getTokenAsync(60));
+            }
+
+            // Assert
+            assertThat(refresh).isNotDone();
+            assertThat(cached).isDone();
+            assertThat(futures).allSatisfy(future -> assertThat(future).isSameAs(cached));
+            assertThat(refresh.get(10, TimeUnit.SECONDS).getAccessToken()).isEqualTo("second");
+            assertThat(manager.getTokenAsync().get(10, TimeUnit.SECONDS).getAccessToken()).isEqualTo("second");
+            mockServer.verify(request, VerificationTimes.exactly(2));
+        }
+    }
+
+    @Test
+    public void Should_Complete_Refresh_When_Request_Fails_Synchronously() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        final FailingHttpClient client = new FailingHttpClient(HttpClient.newHttpClient(), 1);
+        try (OAuthTokenManager manager = new OAuthTokenManager(client, TOKEN_URL, "client", "secret", "scope", null)) {
+            // Act
+            final CompletableFuture<OAuthToken> failed = manager.getTokenAsync();
+            final OAuthToken token = manager.getTokenAsync().get(10, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(failed).isCompletedExceptionally();
+            assertThatThrownBy(() -> failed.get(1, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(token.getAccessToken()).isEqualTo("1234567890");
+            mockServer.verify(request, VerificationTimes.exactly(1));
+        }
+    }
+
+    @Test
+    public void Should_Renew_Token_In_Background_Before_It_Expires() throws Exception {
+        // Arrange
+        HttpRequest request = request().withMethod("POST").withPath("/token");
+        mockServer.when(request, Times.once())
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"first\",\"token_type\":\"Bearer\",\"expires_in\":4}"));
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"second\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        try (OAuthTokenManager manager = new OAuthTokenManager(HttpClient.newHttpClient(), TOKEN_URL, "client",
+                "secret", "scope", null)) {
+            manager.setRefreshAheadSeconds(2);
+
+            // Act
+            final OAuthToken first = manager.getTokenAsync().get(10, TimeUnit.SECONDS);
+            final long elapsed = awaitRenewals(List.of(manager), System.nanoTime()).get(0);
+
+            // Assert
+            assertThat(first.getAccessToken()).isEqualTo("first");
+            assertThat(elapsed).isBetween(1800L, 3900L);
+            mockServer.verify(request, VerificationTimes.exactly(2));
+        }
+    }
+
+    @Test
+    public void Should_Spread_Background_Renewals_Within_Refresh_Ahead_Window() throws Exception {
+        // Arrange
+        final int count = 5;
+        for (int i = 0; i < count; i++) {
+            mockServer.when(request().withMethod("POST").withPath("/token")
+                            .withBody(new RegexBody(".*client_id=client" + i + "&.*")), Times.once())
+                    .respond(response().withStatusCode(200)
+                            .withBody("{\"access_token\":\"first\",\"token_type\":\"Bearer\",\"expires_in\":4}"));
+        }
+        mockServer.when(request().withMethod("POST").withPath("/token"))
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"second\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        final List<OAuthTokenManager> managers = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                final OAuthTokenManager manager = new OAuthTokenManager(HttpClient.newHttpClient(), TOKEN_URL,
+                        "client" + i, "secret", "scope", null);
+                manager.setRefreshAheadSeconds(2);
+                managers.add(manager);
+            }
+
+            // Act
+            final long start = System.nanoTime();
+            for (OAuthTokenManager manager : managers) {
+                manager.getTokenAsync().get(10, TimeUnit.SECONDS);
+            }
+            final List<Long> renewals = awaitRenewals(managers, start);
+
+            // Assert: every renewal falls in the refresh-ahead window before expiry, at different moments.
+            assertThat(renewals).allSatisfy(elapsed -> assertThat(elapsed).isBetween(1800L, 3900L));
+            assertThat(renewals.stream().map(elapsed -> elapsed / 50).distinct().count()).isGreaterThan(1);
+        } finally {
+            managers.forEach(OAuthTokenManager::close);
+        }
+    }
+
+    /**
+     * Waits until all managers have renewed their token in the background.
+     *
+     * @param theManagers The managers.
+     * @param theStart    The value of {@link System#nanoTime()} to measure from.
+     * @return For every manager, the milliseconds between the start and the moment its renewed token was seen.
+     * @throws Exception If a token could not be read.
+     */
+    private static List<Long> awaitRenewals(final List<OAuthTokenManager> theManagers, final long theStart)
+            throws Exception {
+        final Long[] renewals = new Long[theManagers.size()];
+        final long deadline = theStart + TimeUnit.SECONDS.toNanos(10);
+        int remaining = renewals.length;
+        while (remaining > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Token was not renewed in the background");
+            }
+
+            for (int i = 0; i < renewals.length; i++) {
+                if (renewals[i] == null && "second".equals(
+                        theManagers.get(i).getTokenAsync().get(10, TimeUnit.SECONDS).getAccessToken())) {
+                    renewals[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - theStart);
+                    remaining--;
+                }
+            }
+
+            Thread.sleep(10);
+        }
+
+        return List.of(renewals);
+    }
+
+    /**
+     * An HTTP client that throws from {@code sendAsync} for a number of requests before delegating to another client.
+     */
+    private static final class FailingHttpClient extends HttpClient {
+
+        private final HttpClient delegate;
+        private final AtomicInteger failures;
+
+        private FailingHttpClient(final HttpClient theDelegate, final int theFailures) {
+            delegate = theDelegate;
+            failures = new AtomicInteger(theFailures);
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return delegate.cookieHandler();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return delegate.connectTimeout();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return delegate.followRedirects();
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return delegate.proxy();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return delegate.sslContext();
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return delegate.sslParameters();
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return delegate.authenticator();
+        }
+
+        @Override
+        public Version version() {
+            return delegate.version();
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return delegate.executor();
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(final java.net.http.HttpRequest theRequest,
+                                        final HttpResponse.BodyHandler<T> theHandler)
+                throws IOException, InterruptedException {
+            return delegate.send(theRequest, theHandler);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(final java.net.http.HttpRequest theRequest,
+                                                                final HttpResponse.BodyHandler<T> theHandler) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Client is not available");
+            }
+
+            return delegate.sendAsync(theRequest, theHandler);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(final java.net.http.HttpRequest theRequest,
+                                                                final HttpResponse.BodyHandler<T> theHandler,
+                                                                final HttpResponse.PushPromiseHandler<T> thePushPromiseHandler) {
+            return sendAsync(theRequest, theHandler);
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package oauth2;
+
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+/**
+ * Test that {@link OAuth2Endpoint} fetches the token when the route starts if warm-up is enabled, and how a failed or
+ * timed out warm-up affects the start of the route.
+ */
+public class WarmUpTest extends BaseOAuth2Test {
+
+    private final HttpRequest request = request().withMethod("POST").withPath("/token");
+
+    @Override
+    protected void doPreSetup() throws Exception {
+        super.doPreSetup();
+        mockServer.when(request)
+                .respond(response().withStatusCode(200)
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .to("oauth2://test?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope&warmUp=true&warmUpFailOnError=true")
+                        .to("mock:result");
+            }
+
+        };
+    }
+
+    @Test
+    public void Should_Fetch_Token_On_Startup() {
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+
+        // Act
+        template.sendBody("direct:start", null);
+
+        // Assert
+        mockServer.verify(request, VerificationTimes.exactly(1));
+
+        final Exchange exchange = getMockEndpoint("mock:result").getExchanges().get(0);
+        assertThat(exchange.getIn().getHeader("Authorization")).isEqualTo("Bearer 1234567890");
+    }
+
+    @Test
+    public void Should_Fail_Start_When_Warm_Up_Fails_And_Fail_On_Error_Is_Set() {
+        // Arrange
+        final HttpRequest failing = request().withMethod("POST").withPath("/failing-token");
+        mockServer.when(failing)
+                .respond(response().withStatusCode(401).withBody("{\"error\":\"invalid_client\"}"));
+
+        // Act / Assert
+        assertThatThrownBy(() -> context.addRoutes(route("direct:failing",
+                "oauth2://failing?clientId=client&clientSecret=secret"
+                        + "&accessTokenUrl=http://localhost:1080/failing-token&scope=scope"
+                        + "&warmUp=true&warmUpFailOnError=true")))
+                .hasStackTraceContaining("Failed to warm up access token failing: 401 {\"error\":\"invalid_client\"}");
+        mockServer.verify(failing, VerificationTimes.exactly(1));
+    }
+
+    @Test
+    public void Should_Start_When_Warm_Up_Fails_Without_Fail_On_Error() throws Exception {
+        // Arrange
+        final HttpRequest failing = request().withMethod("POST").withPath("/failing-token");
+        mockServer.when(failing)
+                .respond(response().withStatusCode(401).withBody("{\"error\":\"invalid_client\"}"));
+
+        // Act
+        context.addRoutes(route("direct:lenient",
+                "oauth2://lenient?clientId=client&clientSecret=secret"
+                        + "&accessTokenUrl=http://localhost:1080/failing-token&scope=scope&warmUp=true"));
+
+        // Assert
+        assertThat(context.getRouteController().getRouteStatus("lenient").isStarted()).isTrue();
+        mockServer.verify(failing, VerificationTimes.exactly(1));
+    }
+
+    @Test
+    public void Should_Fail_Start_When_Warm_Up_Times_Out_And_Fail_On_Error_Is_Set() {
+        // Arrange
+        final HttpRequest slow = request().withMethod("POST").withPath("/slow-token");
+        mockServer.when(slow)
+                .respond(response().withStatusCode(200)
+                        .withDelay(Delay.seconds(3))
+                        .withBody("{\"access_token\":\"1234567890\",\"token_type\":\"Bearer\",\"expires_in\":3600}"));
+
+        // Act / Assert
+        assertThatThrownBy(() -> context.addRoutes(route("direct:slow",
+                "oauth2://slow?clientId=client&clientSecret=secret"
+                        + "&accessTokenUrl=http://localhost:1080/slow-token&scope=scope"
+                        + "&warmUp=true&warmUpTimeout=1&warmUpFailOnError=true")))
+                .hasStackTraceContaining("Failed to warm up access token slow: no token within 1 seconds");
+    }
+
+    /**
+     * Creates a route that sends to an OAuth2 endpoint. The id of the route is the name of the direct endpoint.
+     *
+     * @param theFrom The URI of the direct endpoint the route consumes from.
+     * @param theTo   The URI of the OAuth2 endpoint.
+     * @return The route builder.
+     */
+    private static RouteBuilder route(final String theFrom, final String theTo) {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                from(theFrom)
+                        .routeId(theFrom.substring(theFrom.indexOf(':') + 1))
+                        .to(theTo)
+                        .to("mock:result");
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,110 @@
+package oauth2.benchmark;
+
+import nl.axians.camel.http.common.oauth.InMemoryTokenStore;
+import nl.axians.camel.http.common.oauth.OAuthToken;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.oauth2.OAuth2Endpoint;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProducer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of setting the {@code Authorization} header with a cached token. The token is taken from a
+ * {@link InMemoryTokenStore}, so no token endpoint is needed. Run it with the {@link #main(String[])} method from the
+ * IDE; the {@code gc.alloc.rate.norm} of the GC profiler should be zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OAuth2ProducerBenchmark {
+
+    private static final AsyncCallback DONE = doneSync -> {
+    };
+
+    private CamelContext context;
+    private AsyncProducer producer;
+    private Exchange exchange;
+
+    /**
+     * Starts a producer and sets the header once, so the token is cached.
+     *
+     * @throws Exception If the producer could not be started.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        final InMemoryTokenStore tokenStore = new InMemoryTokenStore();
+        tokenStore.save(TokenKey.of("http://localhost:1080/token", "client", "secret", "scope", null,
+                        "client_credentials", null, null, null, true).id(),
+                new OAuthToken("1234567890", Instant.now().plusSeconds(3600)));
+
+        context = new DefaultCamelContext();
+        context.getRegistry().bind("tokenStore", tokenStore);
+        context.start();
+
+        final OAuth2Endpoint endpoint = context.getEndpoint(
+                "oauth2://benchmark?clientId=client&clientSecret=secret&accessTokenUrl=http://localhost:1080/token&scope=scope&tokenStore=#tokenStore",
+                OAuth2Endpoint.class);
+        producer = endpoint.createAsyncProducer();
+        producer.start();
+
+        exchange = endpoint.createExchange();
+        producer.process(exchange, DONE);
+    }
+
+    /**
+     * Stops the producer and the context.
+     */
+    @TearDown
+    public void tearDown() {
+        producer.stop();
+        context.stop();
+    }
+
+    /**
+     * Sets the {@code Authorization} header with the cached token.
+     *
+     * @return The header, so the call is not eliminated.
+     */
+    @Benchmark
+    public Object process() {
+        producer.process(exchange, DONE);
+        return exchange.getIn().getHeader("Authorization");
+    }
+
+    /**
+     * Runs the benchmark with the GC profiler.
+     *
+     * @param args Not used.
+     * @throws RunnerException If the benchmark failed.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuth2ProducerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -9,11 +9,22 @@ public class SnowflakeComponentConfiguration {
     private String clientSecret;
     private String scope;
     private String tokenUrl;
+    private long tokenExpirationThreshold;
+    private String tokenStore;
+    private int failureThreshold = 3;
+    private long failureBackoff = 30;
+    private String account;
+    private String user;
+    private String privateKey;
+    private String privateKeyFile;
     private String baseUrl;
     private String database;
     private String warehouse;
     private String role;
     private String schema;
+    private boolean warmUp;
+    private long warmUpTimeout = 10;
+    private boolean warmUpFailOnError;
 
     /**
      * The OAuth2 client ID.
@@ -87,6 +98,150 @@ public class SnowflakeComponentConfiguration {
         tokenUrl = theTokenUrl;
     }
 
+    /**
+     * The number of seconds before the OAuth2 token expires in which it is renewed in the background.
+     *
+     * @return The token expiration threshold in seconds.
+     */
+    public long getTokenExpirationThreshold() {
+        return tokenExpirationThreshold;
+    }
+
+    /**
+     * Sets the number of seconds before the OAuth2 token expires in which it is renewed in the background.
+     *
+     * @param theTokenExpirationThreshold The token expiration threshold in seconds.
+     */
+    public void setTokenExpirationThreshold(long theTokenExpirationThreshold) {
+        tokenExpirationThreshold = theTokenExpirationThreshold;
+    }
+
+    /**
+     * The reference to the store to keep OAuth2 tokens in, e.g. {@code #fileTokenStore}.
+     *
+     * @return The reference to the token store.
+     */
+    public String getTokenStore() {
+        return tokenStore;
+    }
+
+    /**
+     * Sets the reference to the store to keep OAuth2 tokens in.
+     *
+     * @param theTokenStore The reference to the token store, e.g. {@code #fileTokenStore}.
+     */
+    public void setTokenStore(String theTokenStore) {
+        tokenStore = theTokenStore;
+    }
+
+    /**
+     * The number of consecutive OAuth2 token request failures after which token requests fail immediately.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive OAuth2 token request failures after which token requests fail immediately.
+     *
+     * @param theFailureThreshold The failure threshold. If 0, every token request is sent to the token endpoint.
+     */
+    public void setFailureThreshold(int theFailureThreshold) {
+        failureThreshold = theFailureThreshold;
+    }
+
+    /**
+     * The number of seconds OAuth2 token requests fail immediately after repeated failures.
+     *
+     * @return The failure backoff in seconds.
+     */
+    public long getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    /**
+     * Sets the number of seconds OAuth2 token requests fail immediately after repeated failures.
+     *
+     * @param theFailureBackoff The failure backoff in seconds.
+     */
+    public void setFailureBackoff(long theFailureBackoff) {
+        failureBackoff = theFailureBackoff;
+    }
+
+    /**
+     * The Snowflake account identifier for key-pair authentication.
+     *
+     * @return The Snowflake account identifier for key-pair authentication.
+     */
+    public String getAccount() {
+        return account;
+    }
+
+    /**
+     * Sets the Snowflake account identifier for key-pair authentication.
+     *
+     * @param theAccount The Snowflake account identifier for key-pair authentication.
+     */
+    public void setAccount(String theAccount) {
+        account = theAccount;
+    }
+
+    /**
+     * The Snowflake user for key-pair authentication.
+     *
+     * @return The Snowflake user for key-pair authentication.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Sets the Snowflake user for key-pair authentication.
+     *
+     * @param theUser The Snowflake user for key-pair authentication.
+     */
+    public void setUser(String theUser) {
+        user = theUser;
+    }
+
+    /**
+     * The unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     *
+     * @return The unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     */
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * Sets the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     *
+     * @param thePrivateKey The unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     */
+    public void setPrivateKey(String thePrivateKey) {
+        privateKey = thePrivateKey;
+    }
+
+    /**
+     * The file containing the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     *
+     * @return The file containing the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     */
+    public String getPrivateKeyFile() {
+        return privateKeyFile;
+    }
+
+    /**
+     * Sets the file containing the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     *
+     * @param thePrivateKeyFile The file containing the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+     */
+    public void setPrivateKeyFile(String thePrivateKeyFile) {
+        privateKeyFile = thePrivateKeyFile;
+    }
+
     /**
      * The Snowflake API base URL.
      *
@@ -177,4 +332,58 @@ public class SnowflakeComponentConfiguration {
         schema = theSchema;
     }
 
+    /**
+     * Whether the token is fetched and the connection is opened when an endpoint starts.
+     *
+     * @return Whether endpoints are warmed up when they start.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Sets whether the token is fetched and the connection is opened when an endpoint starts.
+     *
+     * @param theWarmUp Whether endpoints are warmed up when they start.
+     */
+    public void setWarmUp(boolean theWarmUp) {
+        warmUp = theWarmUp;
+    }
+
+    /**
+     * The maximum number of seconds to wait for the warm-up when an endpoint starts.
+     *
+     * @return The warm-up timeout in seconds.
+     */
+    public long getWarmUpTimeout() {
+        return warmUpTimeout;
+    }
+
+    /**
+     * Sets the maximum number of seconds to wait for the warm-up when an endpoint starts.
+     *
+     * @param theWarmUpTimeout The warm-up timeout in seconds.
+     */
+    public void setWarmUpTimeout(long theWarmUpTimeout) {
+        warmUpTimeout = theWarmUpTimeout;
+    }
+
+    /**
+     * Whether an endpoint fails to start when the warm-up failed or timed out.
+     *
+     * @return Whether a failed warm-up fails the start of an endpoint.
+     */
+    public boolean isWarmUpFailOnError() {
+        return warmUpFailOnError;
+    }
+
+    /**
+     * Sets whether an endpoint fails to start when the warm-up failed or timed out.
+     *
+     * @param theWarmUpFailOnError Whether a failed warm-up fails the start of an endpoint.
+     */
+    public void setWarmUpFailOnError(boolean theWarmUpFailOnError) {
+        warmUpFailOnError = theWarmUpFailOnError;
+    }
+
 }
@@ -14,6 +14,11 @@ public final class Snowflake {
     public static final String SNOWFLAKE_PARTITION = "SnowflakePartition";
     public static final String SNOWFLAKE_STATEMENT_COUNT = "SnowflakeStatementCount";
     public static final String SNOWFLAKE_RETRY = "SnowflakeRetry";
+    public static final String SNOWFLAKE_RESULT_SET_META_DATA = "SnowflakeResultSetMetaData";
+    public static final String SNOWFLAKE_STATEMENT = "SnowflakeStatement";
+    public static final String SNOWFLAKE_BINDINGS = "SnowflakeBindings";
+    public static final String SNOWFLAKE_ROWS_INSERTED = "SnowflakeRowsInserted";
+    public static final String SNOWFLAKE_STATEMENT_STATUS = "SnowflakeStatementStatus";
 
     /**
      * Constructor. Private to prevent instantiation.
@@ -50,13 +55,34 @@ public final class Snowflake {
         private String clientSecret;
         private String scope;
         private String tokenUrl;
+        private Long tokenExpirationThreshold;
+        private String tokenStore;
+        private Integer failureThreshold;
+        private Long failureBackoff;
+        private String account;
+        private String user;
+        private String privateKey;
+        private String privateKeyFile;
         private String baseUrl;
         private String database;
         private String warehouse;
         private String role;
         private String schema;
+        private boolean warmUp = false;
+        private Long warmUpTimeout;
+        private boolean warmUpFailOnError = false;
         private Long timeoutSecs;
         private boolean async = false;
+        private boolean fetchPartitions = false;
+        private Integer partitionConcurrency;
+        private boolean streamResults = false;
+        private boolean columnar = false;
+        private Integer statementCacheSize;
+        private Integer batchMaxRows;
+        private Long batchMaxBytes;
+        private Long batchMaxLatency;
+        private Long pollInitialDelay;
+        private Long pollMaxDelay;
 
         /**
          * Sets the operation to perform.
@@ -157,6 +183,95 @@ public final class Snowflake {
             return this;
         }
 
+        /**
+         * Sets the number of seconds before the OAuth2 token expires in which it is renewed in the background.
+         *
+         * @param theTokenExpirationThreshold The token expiration threshold in seconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder tokenExpirationThreshold(final long theTokenExpirationThreshold) {
+            tokenExpirationThreshold = theTokenExpirationThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the store to keep OAuth2 tokens in.
+         *
+         * @param theTokenStore The name of the {@link nl.axians.camel.http.common.oauth.TokenStore} bean in the
+         *                      registry.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder tokenStore(final String theTokenStore) {
+            tokenStore = theTokenStore;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive OAuth2 token request failures after which token requests fail immediately.
+         *
+         * @param theFailureThreshold The failure threshold. If 0, every token request is sent to the token endpoint.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder failureThreshold(final int theFailureThreshold) {
+            failureThreshold = theFailureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the number of seconds OAuth2 token requests fail immediately after repeated failures.
+         *
+         * @param theFailureBackoff The failure backoff in seconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder failureBackoff(final long theFailureBackoff) {
+            failureBackoff = theFailureBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the Snowflake account identifier for key-pair authentication.
+         *
+         * @param theAccount The Snowflake account identifier.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder account(final String theAccount) {
+            account = theAccount;
+            return this;
+        }
+
+        /**
+         * Sets the Snowflake user for key-pair authentication.
+         *
+         * @param theUser The Snowflake user.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder user(final String theUser) {
+            user = theUser;
+            return this;
+        }
+
+        /**
+         * Sets the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+         *
+         * @param thePrivateKey The PEM encoded private key.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder privateKey(final String thePrivateKey) {
+            privateKey = thePrivateKey;
+            return this;
+        }
+
+        /**
+         * Sets the file containing the unencrypted PKCS#8 PEM encoded private key for key-pair authentication.
+         *
+         * @param thePrivateKeyFile The file containing the PEM encoded private key.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder privateKeyFile(final String thePrivateKeyFile) {
+            privateKeyFile = thePrivateKeyFile;
+            return this;
+        }
+
         /**
          * Sets the Snowflake schema.
          *
@@ -168,6 +283,39 @@ public final class Snowflake {
             return this;
         }
 
+        /**
+         * Sets whether the token is fetched and the connection is opened when the endpoint starts.
+         *
+         * @param theWarmUp Whether the endpoint is warmed up when it starts.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder warmUp(final boolean theWarmUp) {
+            warmUp = theWarmUp;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of seconds to wait for the warm-up when the endpoint starts.
+         *
+         * @param theWarmUpTimeout The warm-up timeout in seconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder warmUpTimeout(final long theWarmUpTimeout) {
+            warmUpTimeout = theWarmUpTimeout;
+            return this;
+        }
+
+        /**
+         * Sets whether the endpoint fails to start when the warm-up failed or timed out.
+         *
+         * @param theWarmUpFailOnError Whether a failed warm-up fails the start of the endpoint.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder warmUpFailOnError(final boolean theWarmUpFailOnError) {
+            warmUpFailOnError = theWarmUpFailOnError;
+            return this;
+        }
+
         /**
          * Sets the statement timeout in seconds.
          *
@@ -190,6 +338,116 @@ public final class Snowflake {
             return this;
         }
 
+        /**
+         * Sets whether all partitions of the result set should be fetched.
+         *
+         * @param theFetchPartitions Whether all partitions of the result set should be fetched.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder fetchPartitions(final boolean theFetchPartitions) {
+            fetchPartitions = theFetchPartitions;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of partitions to download in parallel.
+         *
+         * @param thePartitionConcurrency The maximum number of partitions to download in parallel.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder partitionConcurrency(final int thePartitionConcurrency) {
+            partitionConcurrency = thePartitionConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets whether the rows of the result set should be streamed from the response.
+         *
+         * @param theStreamResults Whether the rows of the result set should be streamed from the response.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder streamResults(final boolean theStreamResults) {
+            streamResults = theStreamResults;
+            return this;
+        }
+
+        /**
+         * Sets whether the rows of the result set should be decoded into a columnar representation.
+         *
+         * @param theColumnar Whether the rows of the result set should be decoded into a columnar representation.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder columnar(final boolean theColumnar) {
+            columnar = theColumnar;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of parameterized statement templates to cache.
+         *
+         * @param theStatementCacheSize The maximum number of statement templates to cache.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder statementCacheSize(final int theStatementCacheSize) {
+            statementCacheSize = theStatementCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of exchanges to combine into a single statement with array bindings.
+         *
+         * @param theBatchMaxRows The maximum number of exchanges in a batch.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder batchMaxRows(final int theBatchMaxRows) {
+            batchMaxRows = theBatchMaxRows;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size in bytes of the bindings of a batch.
+         *
+         * @param theBatchMaxBytes The maximum size in bytes of the bindings of a batch.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder batchMaxBytes(final long theBatchMaxBytes) {
+            batchMaxBytes = theBatchMaxBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time in milliseconds an exchange waits for its batch to be submitted.
+         *
+         * @param theBatchMaxLatency The maximum time in milliseconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder batchMaxLatency(final long theBatchMaxLatency) {
+            batchMaxLatency = theBatchMaxLatency;
+            return this;
+        }
+
+        /**
+         * Sets the delay in milliseconds until the status of an asynchronous statement is polled for the first time.
+         *
+         * @param thePollInitialDelay The delay in milliseconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder pollInitialDelay(final long thePollInitialDelay) {
+            pollInitialDelay = thePollInitialDelay;
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay in milliseconds between two polls of the status of an asynchronous statement.
+         *
+         * @param thePollMaxDelay The maximum delay in milliseconds.
+         * @return The Snowflake URI builder.
+         */
+        public URIBuilder pollMaxDelay(final long thePollMaxDelay) {
+            pollMaxDelay = thePollMaxDelay;
+            return this;
+        }
+
         /**
          * Builds the Camel URI.
          *
@@ -226,6 +484,55 @@ public final class Snowflake {
                 query.append("&");
             }
 
+            if (tokenExpirationThreshold != null) {
+                query.append("tokenExpirationThreshold=");
+                query.append(tokenExpirationThreshold);
+                query.append("&");
+            }
+
+            if (tokenStore != null && !tokenStore.isBlank()) {
+                query.append("tokenStore=#");
+                query.append(tokenStore);
+                query.append("&");
+            }
+
+            if (failureThreshold != null) {
+                query.append("failureThreshold=");
+                query.append(failureThreshold);
+                query.append("&");
+            }
+
+            if (failureBackoff != null) {
+                query.append("failureBackoff=");
+                query.append(failureBackoff);
+                query.append("&");
+            }
+
+            if (account != null && !account.isBlank()) {
+                query.append("account=");
+                query.append(account);
+                query.append("&");
+            }
+
+            if (user != null && !user.isBlank()) {
+                query.append("user=");
+                query.append(user);
+                query.append("&");
+            }
+
+            if (privateKey != null && !privateKey.isBlank()) {
+                // The PEM encoded key contains characters that must not be URL decoded.
+                query.append("privateKey=RAW(");
+                query.append(privateKey);
+                query.append(")&");
+            }
+
+            if (privateKeyFile != null && !privateKeyFile.isBlank()) {
+                query.append("privateKeyFile=");
+                query.append(privateKeyFile);
+                query.append("&");
+            }
+
             if (baseUrl != null && !baseUrl.isBlank()) {
                 query.append("baseUrl=");
                 query.append(baseUrl);
@@ -256,6 +563,20 @@ public final class Snowflake {
                 query.append("&");
             }
 
+            if (warmUp) {
+                query.append("warmUp=true&");
+            }
+
+            if (warmUpTimeout != null) {
+                query.append("warmUpTimeout=");
+                query.append(warmUpTimeout);
+                query.append("&");
+            }
+
+            if (warmUpFailOnError) {
+                query.append("warmUpFailOnError=true&");
+            }
+
             if (timeoutSecs != null) {
                 query.append("timeoutSecs=");
                 query.append(timeoutSecs);
@@ -263,7 +584,61 @@ public final class Snowflake {
             }
 
             if (async) {
-                query.append("async=true");
+                query.append("async=true&");
+            }
+
+            if (fetchPartitions) {
+                query.append("fetchPartitions=true&");
+            }
+
+            if (partitionConcurrency != null) {
+                query.append("partitionConcurrency=");
+                query.append(partitionConcurrency);
+                query.append("&");
+            }
+
+            if (streamResults) {
+                query.append("streamResults=true&");
+            }
+
+            if (columnar) {
+                query.append("columnar=true&");
+            }
+
+            if (statementCacheSize != null) {
+                query.append("statementCacheSize=");
+                query.append(statementCacheSize);
+                query.append("&");
+            }
+
+            if (batchMaxRows != null) {
+                query.append("batchMaxRows=");
+                query.append(batchMaxRows);
+                query.append("&");
+            }
+
+            if (batchMaxBytes != null) {
+                query.append("batchMaxBytes=");
+                query.append(batchMaxBytes);
+                query.append("&");
+            }
+
+            if (batchMaxLatency != null) {
+                query.append("batchMaxLatency=");
+                query.append(batchMaxLatency);
+                query.append("&");
+            }
+
+            if (pollInitialDelay != null) {
+                query.append("pollInitialDelay=");
+                query.append(pollInitialDelay);
+                query.append("&");
+            }
+
+            if (pollMaxDelay != null) {
+                query.append("pollMaxDelay=");
+                query.append(pollMaxDelay);
+                query.append("&");
             }
 
             // Remove trailing '&' if present.
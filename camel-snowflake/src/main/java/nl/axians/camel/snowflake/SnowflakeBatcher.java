@@ -0,0 +1,275 @@
+package nl.axians.camel.snowflake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import nl.axians.camel.snowflake.model.ResultSet;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static nl.axians.camel.snowflake.Snowflake.SNOWFLAKE_ROWS_INSERTED;
+import static nl.axians.camel.snowflake.Snowflake.SNOWFLAKE_STATEMENT_HANDLE;
+
+/**
+ * Collects exchanges with bindings for the same statement into batches and submits every batch as a single statement
+ * with array bindings. A batch is submitted when it contains {@code maxRows} rows, when its bindings exceed
+ * {@code maxBytes} or when the first exchange of the batch has waited {@code maxLatency} milliseconds, whichever comes
+ * first. If Snowflake responds with 202 because the batch is still running, its status is polled by the
+ * {@link SnowflakeStatementPoller} until it completes. A batch is executed as a single statement, so it succeeds or
+ * fails as a whole: the callback of every exchange is completed with the outcome of the batch.
+ */
+@Slf4j
+public class SnowflakeBatcher {
+
+    private final Supplier<SnowflakeClient> client;
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<SnowflakeStatementPoller> poller;
+    private final long pollInitialDelay;
+    private final long pollMaxDelay;
+    private final int maxRows;
+    private final long maxBytes;
+    private final long maxLatency;
+    private final Map<String, Batch> batches = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param theClient           Supplies the client to submit the batches with.
+     * @param theObjectMapper     The object mapper to use for serializing and parsing.
+     * @param theUri              The URI to submit the statements to.
+     * @param theScheduler        The scheduler for submitting batches that reached their maximum latency.
+     * @param thePoller           Supplies the poller for batches that are still running.
+     * @param thePollInitialDelay The delay in milliseconds until the first poll of a running batch.
+     * @param thePollMaxDelay     The maximum delay in milliseconds between two polls of a running batch.
+     * @param theMaxRows          The maximum number of rows in a batch.
+     * @param theMaxBytes         The maximum size in bytes of the bindings of a batch.
+     * @param theMaxLatency       The maximum time in milliseconds an exchange waits before its batch is submitted.
+     */
+    public SnowflakeBatcher(
+            @Nonnull final Supplier<SnowflakeClient> theClient,
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final URI theUri,
+            @Nonnull final ScheduledExecutorService theScheduler,
+            @Nonnull final Supplier<SnowflakeStatementPoller> thePoller,
+            final long thePollInitialDelay,
+            final long thePollMaxDelay,
+            final int theMaxRows,
+            final long theMaxBytes,
+            final long theMaxLatency) {
+        client = theClient;
+        objectMapper = theObjectMapper;
+        uri = theUri;
+        scheduler = theScheduler;
+        poller = thePoller;
+        pollInitialDelay = thePollInitialDelay;
+        pollMaxDelay = thePollMaxDelay;
+        maxRows = Math.max(1, theMaxRows);
+        maxBytes = theMaxBytes;
+        maxLatency = theMaxLatency;
+    }
+
+    /**
+     * Adds an exchange to the batch of its statement.
+     *
+     * @param theExchange The exchange.
+     * @param theCallback The callback to complete when the batch has been executed.
+     * @param theKey      The key of the statement.
+     * @param theTemplate The template of the statement.
+     * @param theValues   The binding values of the exchange.
+     */
+    public void add(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final AsyncCallback theCallback,
+            @Nonnull final String theKey,
+            @Nonnull final SnowflakeStatementTemplate theTemplate,
+            @Nonnull final List<Object> theValues) {
+        Batch full = null;
+        synchronized (batches) {
+            Batch batch = batches.get(theKey);
+            if (batch == null) {
+                final Batch created = new Batch(theTemplate);
+                created.timer = scheduler.schedule(() -> flush(theKey, created), maxLatency, TimeUnit.MILLISECONDS);
+                batches.put(theKey, created);
+                batch = created;
+            }
+
+            batch.entries.add(new Entry(theExchange, theCallback, theValues));
+            batch.bytes += SnowflakeStatementTemplate.estimateSize(theValues);
+            if (batch.entries.size() >= maxRows || batch.bytes >= maxBytes) {
+                batches.remove(theKey);
+                batch.timer.cancel(false);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            submit(full);
+        }
+    }
+
+    /**
+     * Submits all pending batches.
+     */
+    public void flushAll() {
+        final List<Batch> pending;
+        synchronized (batches) {
+            pending = new ArrayList<>(batches.values());
+            pending.forEach(batch -> batch.timer.cancel(false));
+            batches.clear();
+        }
+
+        pending.forEach(this::submit);
+    }
+
+    /**
+     * Submits the batch with the given key if it is still pending.
+     *
+     * @param theKey   The key of the statement.
+     * @param theBatch The batch that reached its maximum latency.
+     */
+    private void flush(@Nonnull final String theKey, @Nonnull final Batch theBatch) {
+        synchronized (batches) {
+            if (!batches.remove(theKey, theBatch)) {
+                return;
+            }
+        }
+
+        submit(theBatch);
+    }
+
+    /**
+     * Submits a batch as a single statement with array bindings.
+     *
+     * @param theBatch The batch.
+     */
+    private void submit(@Nonnull final Batch theBatch) {
+        final List<List<Object>> rows = new ArrayList<>(theBatch.entries.size());
+        theBatch.entries.forEach(entry -> rows.add(entry.values));
+        log.debug("Submitting batch of {} rows ({} bytes)", rows.size(), theBatch.bytes);
+
+        final HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(theBatch.template.createBatchRequestBody(objectMapper, rows)))
+                    .build();
+        } catch (Exception e) {
+            complete(theBatch, null, e);
+            return;
+        }
+
+        client.get().sendRequestAsync(request).whenComplete((response, error) -> {
+            if (error != null) {
+                complete(theBatch, null,
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else if (response.statusCode() == 202) {
+                await(theBatch, response);
+            } else {
+                complete(theBatch, response, null);
+            }
+        });
+    }
+
+    /**
+     * Polls the status of a batch that is still running and completes its exchanges when it has completed or failed.
+     *
+     * @param theBatch    The batch.
+     * @param theResponse The 202 response to the submitted batch.
+     */
+    private void await(
+            @Nonnull final Batch theBatch,
+            @Nonnull final HttpResponse<String> theResponse) {
+        try {
+            final ResultSet status = objectMapper.readValue(theResponse.body(), ResultSet.class);
+            final String statementUrl = status.getStatementStatusUrl() != null ?
+                    uri.resolve(status.getStatementStatusUrl()).toString() :
+                    uri + "/" + status.getStatementHandle();
+            log.debug("Waiting for batch {} to complete", status.getStatementHandle());
+            poller.get().poll(client.get(), statementUrl, status.getStatementHandle(), pollInitialDelay, pollMaxDelay,
+                    (response, error) -> complete(theBatch, response, error));
+        } catch (Exception e) {
+            complete(theBatch, null, new SnowflakeException("Failed to poll the status of a running batch", e));
+        }
+    }
+
+    /**
+     * Completes the exchanges of a batch. Array bindings are executed as a single statement, so the batch succeeds or
+     * fails as a whole. Every exchange gets the response of the batch as body and the number of rows inserted by the
+     * whole batch in the {@link Snowflake#SNOWFLAKE_ROWS_INSERTED} header.
+     *
+     * @param theBatch    The batch.
+     * @param theResponse The response of the Snowflake API or {@code null} if the request failed.
+     * @param theError    The error or {@code null} if the request succeeded.
+     */
+    private void complete(
+            @Nonnull final Batch theBatch,
+            final HttpResponse<String> theResponse,
+            final Throwable theError) {
+        Throwable error = theError;
+        ResultSet resultSet = null;
+        if (error == null) {
+            try {
+                resultSet = objectMapper.readValue(theResponse.body(), ResultSet.class);
+            } catch (Exception e) {
+                error = new SnowflakeException("Failed to parse the response of a batch", e);
+            }
+        }
+
+        for (Entry entry : theBatch.entries) {
+            if (error != null) {
+                entry.exchange.setException(error);
+            } else {
+                entry.exchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_HANDLE, resultSet.getStatementHandle());
+                if (resultSet.getStats() != null) {
+                    entry.exchange.getMessage().setHeader(SNOWFLAKE_ROWS_INSERTED, resultSet.getStats().getNumRowsInserted());
+                }
+                entry.exchange.getMessage().setBody(theResponse.body());
+            }
+
+            entry.callback.done(false);
+        }
+    }
+
+    /**
+     * The pending exchanges for a statement.
+     */
+    private static final class Batch {
+
+        private final SnowflakeStatementTemplate template;
+        private final List<Entry> entries = new ArrayList<>();
+        private long bytes;
+        private ScheduledFuture<?> timer;
+
+        private Batch(@Nonnull final SnowflakeStatementTemplate theTemplate) {
+            template = theTemplate;
+        }
+
+    }
+
+    /**
+     * A pending exchange.
+     *
+     * @param exchange The exchange.
+     * @param callback The callback to complete.
+     * @param values   The binding values of the exchange.
+     */
+    private record Entry(Exchange exchange, AsyncCallback callback, List<Object> values) {
+    }
+
+}
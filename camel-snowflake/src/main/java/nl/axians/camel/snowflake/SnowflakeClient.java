@@ -2,18 +2,36 @@ package nl.axians.camel.snowflake;
 
 import jakarta.annotation.Nonnull;
 import nl.axians.camel.http.common.oauth.OAuthTokenManager;
+import nl.axians.camel.http.common.oauth.Token;
+import nl.axians.camel.http.common.oauth.TokenManager;
+import nl.axians.camel.http.common.oauth.TokenRegistry;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenSettings;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
- * The Snowflake client, which is used to interact with the Snowflake API.
+ * The Snowflake client, which is used to interact with the Snowflake API. A client is thread-safe and is shared by all
+ * endpoints of a {@link SnowflakeComponent} with the same connection settings, see
+ * {@link SnowflakeComponent#acquireClient(SnowflakeConfiguration)}.
  */
 public class SnowflakeClient {
 
     private final HttpClient httpClient;
-    private final OAuthTokenManager tokenManager;
+    private final TokenManager tokenManager;
+    private final String tokenType;
 
     /**
      * Constructor.
@@ -21,9 +39,110 @@ public class SnowflakeClient {
      * @param theConfiguration The configuration for the Snowflake client.
      */
     public SnowflakeClient(@Nonnull final SnowflakeConfiguration theConfiguration) {
-        httpClient = HttpClient.newHttpClient();
-        tokenManager = new OAuthTokenManager(httpClient, theConfiguration.getTokenUrl(),
-                theConfiguration.getClientId(), theConfiguration.getClientSecret(), theConfiguration.getScope(), null);
+        this(theConfiguration, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param theConfiguration The configuration for the Snowflake client.
+     * @param theExecutor      The executor for the asynchronous tasks of the HTTP client. If {@code null}, the default
+     *                         executor of the HTTP client is used.
+     */
+    public SnowflakeClient(
+            @Nonnull final SnowflakeConfiguration theConfiguration,
+            final Executor theExecutor) {
+        final HttpClient.Builder builder = HttpClient.newBuilder();
+        if (theExecutor != null) {
+            builder.executor(theExecutor);
+        }
+
+        httpClient = builder.build();
+
+        if (isKeyPairAuthentication(theConfiguration)) {
+            final PrivateKey privateKey = theConfiguration.getPrivateKey() != null
+                    && !theConfiguration.getPrivateKey().isBlank() ?
+                    KeyPairJwtTokenManager.readPrivateKey(theConfiguration.getPrivateKey()) :
+                    KeyPairJwtTokenManager.readPrivateKey(Path.of(theConfiguration.getPrivateKeyFile()));
+            tokenManager = new KeyPairJwtTokenManager(theConfiguration.getAccount(), theConfiguration.getUser(),
+                    privateKey, theConfiguration.getTokenExpirationThreshold(), theExecutor);
+            tokenType = KeyPairJwtTokenManager.TOKEN_TYPE;
+            return;
+        }
+
+        // The token manager is shared with all other components that send the same token request.
+        final TokenKey key = createTokenKey(theConfiguration);
+        final TokenSettings settings = createTokenSettings(theConfiguration);
+        final OAuthTokenManager manager = TokenRegistry.getInstance().acquire(key, settings, client ->
+                new OAuthTokenManager(client, theConfiguration.getTokenUrl(), theConfiguration.getClientId(),
+                        theConfiguration.getClientSecret(), theConfiguration.getScope(), null));
+        tokenManager = manager;
+        tokenType = null;
+    }
+
+    /**
+     * Creates the key of the OAuth token request for the configuration.
+     *
+     * @param theConfiguration The configuration.
+     * @return The key of the token request.
+     */
+    static TokenKey createTokenKey(@Nonnull final SnowflakeConfiguration theConfiguration) {
+        return TokenKey.of(theConfiguration.getTokenUrl(), theConfiguration.getClientId(),
+                theConfiguration.getClientSecret(), theConfiguration.getScope(), null, "client_credentials", null, null,
+                null, false);
+    }
+
+    /**
+     * Creates the settings of the shared OAuth token manager for the configuration.
+     *
+     * @param theConfiguration The configuration.
+     * @return The settings of the token manager.
+     */
+    static TokenSettings createTokenSettings(@Nonnull final SnowflakeConfiguration theConfiguration) {
+        return new TokenSettings(theConfiguration.getTokenStore(), theConfiguration.getFailureThreshold(),
+                theConfiguration.getFailureBackoff(), false, theConfiguration.getTokenExpirationThreshold());
+    }
+
+    /**
+     * Check whether the configuration uses key-pair authentication, i.e. whether a private key is configured.
+     *
+     * @param theConfiguration The configuration.
+     * @return Whether the configuration uses key-pair authentication.
+     */
+    public static boolean isKeyPairAuthentication(@Nonnull final SnowflakeConfiguration theConfiguration) {
+        return (theConfiguration.getPrivateKey() != null && !theConfiguration.getPrivateKey().isBlank())
+                || (theConfiguration.getPrivateKeyFile() != null && !theConfiguration.getPrivateKeyFile().isBlank());
+    }
+
+    /**
+     * Closes the client, which releases its token manager.
+     */
+    public void close() {
+        if (tokenManager instanceof OAuthTokenManager manager) {
+            TokenRegistry.getInstance().release(manager);
+        } else {
+            tokenManager.close();
+        }
+    }
+
+    /**
+     * Fetches the token and opens a connection to the Snowflake API in parallel, so the first request does not wait for
+     * the token endpoint or the TLS handshake. The connection is opened with a {@code HEAD} request to the base URL,
+     * whose status is ignored, and is kept in the connection pool of the HTTP client.
+     *
+     * @param theBaseUrl The Snowflake API base URL or {@code null} to only fetch the token.
+     * @return The future that completes when the token has been fetched and the connection has been opened.
+     */
+    public CompletableFuture<Void> warmUp(final String theBaseUrl) {
+        final CompletableFuture<?> token = tokenManager.getTokenAsync();
+        if (theBaseUrl == null || theBaseUrl.isBlank()) {
+            return token.thenApply(result -> null);
+        }
+
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(theBaseUrl))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        return CompletableFuture.allOf(token, httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
     }
 
     /**
@@ -34,15 +153,7 @@ public class SnowflakeClient {
      * @throws Exception If an error occurred while sending the request.
      */
     public HttpResponse<String> sendRequest(@Nonnull final HttpRequest theRequest) throws Exception {
-        HttpRequest requestWithAuth = addAuthorization(theRequest);
-        HttpResponse<String> response = httpClient.send(requestWithAuth, HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() == 401) {
-            // If the request returned a 401 status, fetch a new token and retry the request.
-            tokenManager.fetchToken();
-            requestWithAuth = addAuthorization(theRequest);
-            response = httpClient.send(requestWithAuth, HttpResponse.BodyHandlers.ofString());
-        }
+        final HttpResponse<String> response = send(theRequest, HttpResponse.BodyHandlers.ofString());
 
         // We throw an exception if the request was unsuccessful.
         if (response.statusCode() >= 400) {
@@ -52,13 +163,141 @@ public class SnowflakeClient {
         return response;
     }
 
+    /**
+     * Sends a request to the Snowflake API and returns the response body as a stream, so large responses do not have
+     * to be held in memory. Automatically fetches a new token if the request returns a 401 status. The caller is
+     * responsible for closing the stream.
+     *
+     * @param theRequest The request to send.
+     * @return The response from the Snowflake API.
+     * @throws Exception If an error occurred while sending the request.
+     */
+    public HttpResponse<InputStream> sendStreamingRequest(@Nonnull final HttpRequest theRequest) throws Exception {
+        final HttpResponse<InputStream> response = send(theRequest, HttpResponse.BodyHandlers.ofInputStream());
+
+        // We throw an exception if the request was unsuccessful. The error body is small, so we can read it.
+        if (response.statusCode() >= 400) {
+            try (InputStream body = response.body()) {
+                throw new SnowflakeException("Request failed with status code " + response.statusCode() + ": " +
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * Sends a request to the Snowflake API without blocking the calling thread. Automatically fetches a new token if
+     * the request returns a 401 status. The returned future completes exceptionally with a {@link SnowflakeException}
+     * if the request was unsuccessful.
+     *
+     * @param theRequest The request to send.
+     * @return The future response from the Snowflake API.
+     */
+    public CompletableFuture<HttpResponse<String>> sendRequestAsync(@Nonnull final HttpRequest theRequest) {
+        return sendAsync(theRequest, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() >= 400) {
+                throw new SnowflakeException("Request failed with status code " + response.statusCode() + ": " + response.body());
+            }
+
+            return response;
+        });
+    }
+
+    /**
+     * Sends a request to the Snowflake API without blocking the calling thread and returns the response body as a
+     * stream. Automatically fetches a new token if the request returns a 401 status. The returned future completes
+     * exceptionally with a {@link SnowflakeException} if the request was unsuccessful. The caller is responsible for
+     * closing the stream.
+     *
+     * @param theRequest The request to send.
+     * @return The future response from the Snowflake API.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> sendStreamingRequestAsync(@Nonnull final HttpRequest theRequest) {
+        return sendAsync(theRequest, HttpResponse.BodyHandlers.ofInputStream()).thenApply(response -> {
+            if (response.statusCode() >= 400) {
+                try (InputStream body = response.body()) {
+                    throw new SnowflakeException("Request failed with status code " + response.statusCode() + ": " +
+                            new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new SnowflakeException("Request failed with status code " + response.statusCode(), e);
+                }
+            }
+
+            return response;
+        });
+    }
+
+    /**
+     * Sends a request with authorization. If the request returned a 401 status, the rejected token is replaced and the
+     * request is retried once. Concurrent requests rejected with the same token share a single token refresh.
+     *
+     * @param theRequest     The request to send.
+     * @param theBodyHandler The handler for the response body.
+     * @param <T>            The type of the response body.
+     * @return The response from the Snowflake API.
+     * @throws Exception If an error occurred while sending the request.
+     */
+    private <T> HttpResponse<T> send(
+            @Nonnull final HttpRequest theRequest,
+            @Nonnull final HttpResponse.BodyHandler<T> theBodyHandler) throws Exception {
+        final Token token = tokenManager.getToken();
+        HttpResponse<T> response = httpClient.send(addAuthorization(theRequest, token), theBodyHandler);
+
+        if (response.statusCode() == 401) {
+            // If the request returned a 401 status, replace the rejected token and retry the request.
+            if (response.body() instanceof Closeable body) {
+                body.close();
+            }
+
+            response = httpClient.send(addAuthorization(theRequest, tokenManager.refreshToken(token)), theBodyHandler);
+        }
+
+        return response;
+    }
+
+    /**
+     * Sends a request with authorization without blocking the calling thread. The token is obtained without blocking as
+     * well. If the request returned a 401 status, the rejected token is replaced and the request is retried once.
+     *
+     * @param theRequest     The request to send.
+     * @param theBodyHandler The handler for the response body.
+     * @param <T>            The type of the response body.
+     * @return The future response from the Snowflake API.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            @Nonnull final HttpRequest theRequest,
+            @Nonnull final HttpResponse.BodyHandler<T> theBodyHandler) {
+        return tokenManager.getTokenAsync().thenCompose(token ->
+                httpClient.sendAsync(addAuthorization(theRequest, token), theBodyHandler).thenCompose(response -> {
+                    if (response.statusCode() != 401) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+
+                    // If the request returned a 401 status, replace the rejected token and retry the request.
+                    try {
+                        if (response.body() instanceof Closeable body) {
+                            body.close();
+                        }
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+
+                    return tokenManager.refreshTokenAsync(token).thenCompose(refreshed ->
+                            httpClient.sendAsync(addAuthorization(theRequest, refreshed), theBodyHandler));
+                }));
+    }
+
     /**
      * Adds the Authorization header with the access token to the request.
      *
      * @param theRequest The request to add the Authorization header to.
+     * @param theToken   The token to authorize the request with.
      * @return The request with the Authorization header.
      */
-    private HttpRequest addAuthorization(@Nonnull final HttpRequest theRequest) throws Exception {
+    private HttpRequest addAuthorization(
+            @Nonnull final HttpRequest theRequest,
+            @Nonnull final Token theToken) {
         final HttpRequest.Builder builder = HttpRequest.newBuilder(theRequest.uri())
                 .method(theRequest.method(), theRequest.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody()));
 
@@ -66,7 +305,10 @@ public class SnowflakeClient {
         theRequest.headers().map().forEach((key, value) -> builder.header(key, value.get(0)));
 
         // Add the Authorization header with the access token.
-        builder.header("Authorization", "Bearer " + tokenManager.getToken().getAccessToken());
+        builder.header("Authorization", "Bearer " + theToken.getAccessToken());
+        if (tokenType != null) {
+            builder.header("X-Snowflake-Authorization-Token-Type", tokenType);
+        }
         return builder.build();
     }
 
@@ -1,23 +1,39 @@
 package nl.axians.camel.snowflake;
 
 import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenKey;
+import nl.axians.camel.http.common.oauth.TokenRegistry.TokenSettings;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.annotations.Component;
 import org.apache.camel.support.DefaultComponent;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
- * Represents the component that is responsible for creating {@link SnowflakeEndpoint} instances.
+ * Represents the component that is responsible for creating {@link SnowflakeEndpoint} instances. The component owns
+ * the {@link SnowflakeClient} instances used by its endpoints. Endpoints with the same base URL and credentials share
+ * a single client, and therefore the connections and the token.
  */
+@Slf4j
 @Component("snowflake")
 public class SnowflakeComponent extends DefaultComponent {
 
+    private static final long POLLER_TICK_MILLIS = 100;
+
     @Metadata
     private SnowflakeConfiguration configuration;
 
+    private final Map<ClientKey, SharedClient> clients = new HashMap<>();
+    private ScheduledExecutorService pollerScheduler;
+    private SnowflakeStatementPoller poller;
+
     /**
      * Default constructor.
      */
@@ -47,6 +63,105 @@ public class SnowflakeComponent extends DefaultComponent {
         return endpoint;
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        synchronized (this) {
+            if (poller != null) {
+                poller.stop();
+                getCamelContext().getExecutorServiceManager().shutdown(pollerScheduler);
+                poller = null;
+                pollerScheduler = null;
+            }
+        }
+
+        synchronized (clients) {
+            clients.values().forEach(this::closeClient);
+            clients.clear();
+        }
+
+        super.doStop();
+    }
+
+    /**
+     * Get the poller that polls the status of asynchronously submitted statements for the consumers of the component.
+     * The poller is created on first use and uses a single scheduled thread for all statements.
+     *
+     * @return The poller.
+     */
+    public synchronized SnowflakeStatementPoller getPoller() {
+        if (poller == null) {
+            pollerScheduler = getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadScheduledExecutor(this, "SnowflakeStatementPoller");
+            poller = new SnowflakeStatementPoller(pollerScheduler, POLLER_TICK_MILLIS);
+            poller.start();
+        }
+
+        return poller;
+    }
+
+    /**
+     * Acquires the client for the given configuration. If a client for the same base URL, credentials and token
+     * settings already exists, it is shared. The credentials are the complete OAuth token request, or the account, user
+     * and private key for key-pair authentication. Every acquired client must be released using
+     * {@link #releaseClient(SnowflakeClient)}.
+     *
+     * @param theConfiguration The configuration of the endpoint.
+     * @return The client.
+     */
+    public SnowflakeClient acquireClient(@Nonnull final SnowflakeConfiguration theConfiguration) {
+        final TokenSettings settings = SnowflakeClient.createTokenSettings(theConfiguration);
+        final ClientKey key = SnowflakeClient.isKeyPairAuthentication(theConfiguration) ?
+                new ClientKey(theConfiguration.getBaseUrl(), null, settings, theConfiguration.getAccount(),
+                        theConfiguration.getUser(),
+                        TokenKey.hash(theConfiguration.getPrivateKey(), theConfiguration.getPrivateKeyFile())) :
+                new ClientKey(theConfiguration.getBaseUrl(), SnowflakeClient.createTokenKey(theConfiguration), settings,
+                        null, null, null);
+
+        synchronized (clients) {
+            final SharedClient shared = clients.computeIfAbsent(key, k -> {
+                log.debug("Creating Snowflake client for {}", k);
+                final ExecutorService executor = getCamelContext().getExecutorServiceManager()
+                        .newCachedThreadPool(this, "SnowflakeHttpClient");
+                return new SharedClient(new SnowflakeClient(theConfiguration, executor), executor);
+            });
+            shared.references++;
+            return shared.client;
+        }
+    }
+
+    /**
+     * Releases a client acquired using {@link #acquireClient(SnowflakeConfiguration)}. The client is closed when it
+     * is no longer used by any endpoint.
+     *
+     * @param theClient The client to release.
+     */
+    public void releaseClient(@Nonnull final SnowflakeClient theClient) {
+        synchronized (clients) {
+            final Iterator<Map.Entry<ClientKey, SharedClient>> iterator = clients.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<ClientKey, SharedClient> entry = iterator.next();
+                if (entry.getValue().client == theClient) {
+                    if (--entry.getValue().references <= 0) {
+                        log.debug("Closing Snowflake client for {}", entry.getKey());
+                        closeClient(entry.getValue());
+                        iterator.remove();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes a shared client and shuts down its executor.
+     *
+     * @param theClient The shared client.
+     */
+    private void closeClient(@Nonnull final SharedClient theClient) {
+        theClient.client.close();
+        getCamelContext().getExecutorServiceManager().shutdown(theClient.executor);
+    }
+
     /**
      * Get the OAuth2 configuration to use for this component.
      *
@@ -65,4 +180,40 @@ public class SnowflakeComponent extends DefaultComponent {
         this.configuration = configuration;
     }
 
+    /**
+     * The key of a shared client.
+     *
+     * @param baseUrl        The Snowflake API base URL.
+     * @param token          The key of the OAuth token request or {@code null} if key-pair authentication is used.
+     * @param settings       The settings of the token.
+     * @param account        The Snowflake account if key-pair authentication is used.
+     * @param user           The Snowflake user if key-pair authentication is used.
+     * @param privateKeyHash The hash of the private key or private key file if key-pair authentication is used.
+     */
+    private record ClientKey(String baseUrl, TokenKey token, TokenSettings settings, String account, String user,
+                             String privateKeyHash) {
+
+        @Override
+        public String toString() {
+            return baseUrl + (token != null ? " (client " + token.clientId() + ")" : " (user " + user + ")");
+        }
+
+    }
+
+    /**
+     * A client shared by the endpoints of the component.
+     */
+    private static final class SharedClient {
+
+        private final SnowflakeClient client;
+        private final ExecutorService executor;
+        private int references;
+
+        private SharedClient(@Nonnull final SnowflakeClient theClient, @Nonnull final ExecutorService theExecutor) {
+            client = theClient;
+            executor = theExecutor;
+        }
+
+    }
+
 }
@@ -1,5 +1,7 @@
 package nl.axians.camel.snowflake;
 
+import nl.axians.camel.http.common.oauth.OAuthTokenManager;
+import nl.axians.camel.http.common.oauth.TokenStore;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriParams;
 
@@ -21,6 +23,37 @@ public class SnowflakeConfiguration implements Cloneable {
     @UriParam(label = "oauth", description = "The OAuth2 access token URL.")
     private String tokenUrl;
 
+    @UriParam(label = "oauth", defaultValue = "0", description = "The number of seconds before the OAuth2 token "
+            + "expires in which it is renewed in the background. If 0, the token is only renewed when it has expired.")
+    private long tokenExpirationThreshold;
+
+    @UriParam(label = "oauth", description = "The store to keep OAuth2 tokens in, e.g. a FileTokenStore, so a valid "
+            + "token can be reused after a restart or by other processes instead of being fetched again.")
+    private TokenStore tokenStore;
+
+    @UriParam(label = "oauth", defaultValue = "3", description = "The number of consecutive OAuth2 token request "
+            + "failures after which token requests fail immediately for the failure backoff. If 0, every token request "
+            + "is sent to the token endpoint.")
+    private int failureThreshold = OAuthTokenManager.DEFAULT_FAILURE_THRESHOLD;
+
+    @UriParam(label = "oauth", defaultValue = "30", description = "The number of seconds OAuth2 token requests fail "
+            + "immediately after repeated failures, before a single probe request is sent.")
+    private long failureBackoff = OAuthTokenManager.DEFAULT_FAILURE_BACKOFF_SECONDS;
+
+    @UriParam(label = "security", description = "The Snowflake account identifier, used for key-pair authentication.")
+    private String account;
+
+    @UriParam(label = "security", description = "The Snowflake user, used for key-pair authentication.")
+    private String user;
+
+    @UriParam(label = "security", secret = true, description = "The unencrypted PKCS#8 PEM encoded private key of "
+            + "the Snowflake user. If set, key-pair authentication is used instead of OAuth2.")
+    private String privateKey;
+
+    @UriParam(label = "security", description = "The file containing the unencrypted PKCS#8 PEM encoded private key "
+            + "of the Snowflake user. If set, key-pair authentication is used instead of OAuth2.")
+    private String privateKeyFile;
+
     @UriParam(label = "common", description = "The Snowflake API base URL.")
     private String baseUrl;
 
@@ -36,6 +69,18 @@ public class SnowflakeConfiguration implements Cloneable {
     @UriParam(label = "common", description = "The Snowflake schema to use.")
     private String schema;
 
+    @UriParam(label = "common", defaultValue = "false", description = "Whether the token is fetched and the connection "
+            + "to the Snowflake API is opened when the endpoint starts.")
+    private boolean warmUp;
+
+    @UriParam(label = "common", defaultValue = "10", description = "The maximum number of seconds to wait for the "
+            + "warm-up when the endpoint starts.")
+    private long warmUpTimeout = 10;
+
+    @UriParam(label = "common", defaultValue = "false", description = "Whether the endpoint fails to start when the "
+            + "warm-up failed or timed out. If not set, the failure is logged and the first exchange waits instead.")
+    private boolean warmUpFailOnError;
+
     /**
      * Gets the OAuth2 client ID.
      *
@@ -108,6 +153,150 @@ public class SnowflakeConfiguration implements Cloneable {
         tokenUrl = theTokenUrl;
     }
 
+    /**
+     * Gets the number of seconds before the OAuth2 token expires in which it is renewed in the background.
+     *
+     * @return The token expiration threshold in seconds.
+     */
+    public long getTokenExpirationThreshold() {
+        return tokenExpirationThreshold;
+    }
+
+    /**
+     * Sets the number of seconds before the OAuth2 token expires in which it is renewed in the background.
+     *
+     * @param theTokenExpirationThreshold The token expiration threshold in seconds.
+     */
+    public void setTokenExpirationThreshold(long theTokenExpirationThreshold) {
+        tokenExpirationThreshold = theTokenExpirationThreshold;
+    }
+
+    /**
+     * Gets the store to keep OAuth2 tokens in.
+     *
+     * @return The token store or {@code null} if tokens are not stored.
+     */
+    public TokenStore getTokenStore() {
+        return tokenStore;
+    }
+
+    /**
+     * Sets the store to keep OAuth2 tokens in.
+     *
+     * @param theTokenStore The token store or {@code null} to not store tokens.
+     */
+    public void setTokenStore(TokenStore theTokenStore) {
+        tokenStore = theTokenStore;
+    }
+
+    /**
+     * Gets the number of consecutive OAuth2 token request failures after which token requests fail immediately.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive OAuth2 token request failures after which token requests fail immediately.
+     *
+     * @param theFailureThreshold The failure threshold. If 0, every token request is sent to the token endpoint.
+     */
+    public void setFailureThreshold(int theFailureThreshold) {
+        failureThreshold = theFailureThreshold;
+    }
+
+    /**
+     * Gets the number of seconds OAuth2 token requests fail immediately after repeated failures.
+     *
+     * @return The failure backoff in seconds.
+     */
+    public long getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    /**
+     * Sets the number of seconds OAuth2 token requests fail immediately after repeated failures.
+     *
+     * @param theFailureBackoff The failure backoff in seconds.
+     */
+    public void setFailureBackoff(long theFailureBackoff) {
+        failureBackoff = theFailureBackoff;
+    }
+
+    /**
+     * Gets the Snowflake account identifier.
+     *
+     * @return The Snowflake account identifier.
+     */
+    public String getAccount() {
+        return account;
+    }
+
+    /**
+     * Sets the Snowflake account identifier.
+     *
+     * @param theAccount The Snowflake account identifier.
+     */
+    public void setAccount(String theAccount) {
+        account = theAccount;
+    }
+
+    /**
+     * Gets the Snowflake user.
+     *
+     * @return The Snowflake user.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Sets the Snowflake user.
+     *
+     * @param theUser The Snowflake user.
+     */
+    public void setUser(String theUser) {
+        user = theUser;
+    }
+
+    /**
+     * Gets the private key for key-pair authentication.
+     *
+     * @return The private key for key-pair authentication.
+     */
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * Sets the private key for key-pair authentication.
+     *
+     * @param thePrivateKey The private key for key-pair authentication.
+     */
+    public void setPrivateKey(String thePrivateKey) {
+        privateKey = thePrivateKey;
+    }
+
+    /**
+     * Gets the file containing the private key for key-pair authentication.
+     *
+     * @return The file containing the private key for key-pair authentication.
+     */
+    public String getPrivateKeyFile() {
+        return privateKeyFile;
+    }
+
+    /**
+     * Sets the file containing the private key for key-pair authentication.
+     *
+     * @param thePrivateKeyFile The file containing the private key for key-pair authentication.
+     */
+    public void setPrivateKeyFile(String thePrivateKeyFile) {
+        privateKeyFile = thePrivateKeyFile;
+    }
+
     /**
      * Gets the Snowflake API base URL.
      *
@@ -198,6 +387,60 @@ public class SnowflakeConfiguration implements Cloneable {
         schema = theSchema;
     }
 
+    /**
+     * Gets whether the token is fetched and the connection is opened when the endpoint starts.
+     *
+     * @return Whether the endpoint is warmed up when it starts.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Sets whether the token is fetched and the connection is opened when the endpoint starts.
+     *
+     * @param theWarmUp Whether the endpoint is warmed up when it starts.
+     */
+    public void setWarmUp(boolean theWarmUp) {
+        warmUp = theWarmUp;
+    }
+
+    /**
+     * Gets the maximum number of seconds to wait for the warm-up when the endpoint starts.
+     *
+     * @return The warm-up timeout in seconds.
+     */
+    public long getWarmUpTimeout() {
+        return warmUpTimeout;
+    }
+
+    /**
+     * Sets the maximum number of seconds to wait for the warm-up when the endpoint starts.
+     *
+     * @param theWarmUpTimeout The warm-up timeout in seconds.
+     */
+    public void setWarmUpTimeout(long theWarmUpTimeout) {
+        warmUpTimeout = theWarmUpTimeout;
+    }
+
+    /**
+     * Gets whether the endpoint fails to start when the warm-up failed or timed out.
+     *
+     * @return Whether a failed warm-up fails the start of the endpoint.
+     */
+    public boolean isWarmUpFailOnError() {
+        return warmUpFailOnError;
+    }
+
+    /**
+     * Sets whether the endpoint fails to start when the warm-up failed or timed out.
+     *
+     * @param theWarmUpFailOnError Whether a failed warm-up fails the start of the endpoint.
+     */
+    public void setWarmUpFailOnError(boolean theWarmUpFailOnError) {
+        warmUpFailOnError = theWarmUpFailOnError;
+    }
+
     /**
      * Copy the configuration.
      *
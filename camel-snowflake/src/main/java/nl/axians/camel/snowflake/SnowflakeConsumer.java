@@ -0,0 +1,73 @@
+package nl.axians.camel.snowflake;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.DefaultConsumer;
+
+import java.net.http.HttpResponse;
+
+import static nl.axians.camel.snowflake.Snowflake.SNOWFLAKE_STATEMENT_HANDLE;
+import static nl.axians.camel.snowflake.Snowflake.SNOWFLAKE_STATEMENT_STATUS;
+
+/**
+ * The Snowflake consumer, which emits an exchange when a statement submitted asynchronously by a
+ * {@link SnowflakeProducer} with the same connection settings completes or fails. The statements are polled by the
+ * {@link SnowflakeStatementPoller} of the component.
+ */
+@Slf4j
+public class SnowflakeConsumer extends DefaultConsumer {
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final SnowflakeEndpoint endpoint;
+
+    public SnowflakeConsumer(
+            @Nonnull final SnowflakeEndpoint theEndpoint,
+            @Nonnull final Processor theProcessor) {
+        super(theEndpoint, theProcessor);
+        endpoint = theEndpoint;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        endpoint.getComponent().getPoller().addConsumer(endpoint.getClient(), this);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        endpoint.getComponent().getPoller().removeConsumer(endpoint.getClient(), this);
+        super.doStop();
+    }
+
+    /**
+     * Emits an exchange for a completed or failed statement. The body is the response of the Snowflake API or the
+     * error message, the {@link Snowflake#SNOWFLAKE_STATEMENT_STATUS} header is {@value #STATUS_SUCCESS} or
+     * {@value #STATUS_FAILED}.
+     *
+     * @param theStatementHandle The handle of the statement.
+     * @param theResponse        The response or {@code null} if the statement failed.
+     * @param theError           The error or {@code null} if the statement completed.
+     */
+    void onStatementCompleted(
+            @Nonnull final String theStatementHandle,
+            final HttpResponse<String> theResponse,
+            final Throwable theError) {
+        final Exchange exchange = createExchange(true);
+        exchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_HANDLE, theStatementHandle);
+        if (theError == null) {
+            exchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_STATUS, STATUS_SUCCESS);
+            exchange.getMessage().setBody(theResponse.body());
+        } else {
+            log.debug("Statement {} failed", theStatementHandle, theError);
+            exchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_STATUS, STATUS_FAILED);
+            exchange.getMessage().setBody(theError.getMessage());
+        }
+
+        getAsyncProcessor().process(exchange, defaultConsumerCallback(exchange, true));
+    }
+
+}
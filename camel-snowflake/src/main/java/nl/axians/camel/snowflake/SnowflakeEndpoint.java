@@ -1,6 +1,7 @@
 package nl.axians.camel.snowflake;
 
 import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.camel.Category;
 import org.apache.camel.Consumer;
 import org.apache.camel.Processor;
@@ -11,12 +12,18 @@ import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriPath;
 import org.apache.camel.support.DefaultEndpoint;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Represents a Snowflake endpoint, which is capable of sending messages to the Snowflake API by creating a
- * {@link SnowflakeProducer} instances.
+ * {@link SnowflakeProducer} instances, and of receiving the results of asynchronously submitted statements by creating
+ * {@link SnowflakeConsumer} instances.
  */
 @UriEndpoint(firstVersion = "1.0.0", scheme = "snowflake", title = "Snowflake", syntax = "snowflake:operation",
-        producerOnly = true, category = {Category.API, Category.DATABASE})
+        category = {Category.API, Category.DATABASE})
+@Slf4j
 public class SnowflakeEndpoint extends DefaultEndpoint {
 
 
@@ -33,8 +40,37 @@ public class SnowflakeEndpoint extends DefaultEndpoint {
     @UriParam(label = "common", description = "Whether statement should be executed asynchronous.", defaultValue = "false")
     private Boolean async = false;
 
+    @UriParam(label = "producer", description = "Whether to fetch all partitions of the result set and return the rows as an ordered iterator.", defaultValue = "false")
+    private Boolean fetchPartitions = false;
+
+    @UriParam(label = "producer", description = "The maximum number of result set partitions to download in parallel.", defaultValue = "4")
+    private Integer partitionConcurrency = 4;
+
+    @UriParam(label = "producer", description = "Whether to stream the rows of the result set from the response instead of reading the full response into memory.", defaultValue = "false")
+    private Boolean streamResults = false;
+
+    @UriParam(label = "producer", description = "Whether to decode the rows of the result set into a columnar representation based on the column types.", defaultValue = "false")
+    private Boolean columnar = false;
+
+    @UriParam(label = "producer", description = "The maximum number of parameterized statement templates to cache.", defaultValue = "100")
+    private Integer statementCacheSize = 100;
+
+    @UriParam(label = "producer", description = "The maximum number of exchanges to combine into a single statement with array bindings. Batching is disabled if less than 2.", defaultValue = "0")
+    private Integer batchMaxRows = 0;
+
+    @UriParam(label = "producer", description = "The maximum size in bytes of the bindings of a batch.", defaultValue = "1048576")
+    private Long batchMaxBytes = 1048576L;
+
+    @UriParam(label = "producer", description = "The maximum time in milliseconds an exchange waits for its batch to be submitted.", defaultValue = "100")
+    private Long batchMaxLatency = 100L;
+
+    @UriParam(label = "common", description = "The delay in milliseconds until the status of an asynchronous statement is polled for the first time.", defaultValue = "500")
+    private Long pollInitialDelay = 500L;
 
-    private final SnowflakeClient client;
+    @UriParam(label = "common", description = "The maximum delay in milliseconds between two polls of the status of an asynchronous statement.", defaultValue = "30000")
+    private Long pollMaxDelay = 30000L;
+
+    private SnowflakeClient client;
 
     public SnowflakeEndpoint(
             @Nonnull String theUri,
@@ -44,7 +80,61 @@ public class SnowflakeEndpoint extends DefaultEndpoint {
         super(theUri, theComponent);
         configuration = theConfiguration;
         operation = theOperation;
-        client = new SnowflakeClient(configuration);
+    }
+
+    @Override
+    public SnowflakeComponent getComponent() {
+        return (SnowflakeComponent) super.getComponent();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        client = getComponent().acquireClient(configuration);
+        if (configuration.isWarmUp()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Fetches the token and opens the connection to the Snowflake API, so the first exchange does not wait for either.
+     * A failure or timeout fails the start of the endpoint if configured, otherwise it is logged and the first exchange
+     * waits instead.
+     *
+     * @throws SnowflakeException If the warm-up failed and the start of the endpoint must fail.
+     */
+    private void warmUp() {
+        final String error;
+        try {
+            client.warmUp(configuration.getBaseUrl()).get(configuration.getWarmUpTimeout(), TimeUnit.SECONDS);
+            log.info("Warmed up Snowflake endpoint for {}", configuration.getBaseUrl());
+            return;
+        } catch (ExecutionException e) {
+            error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        } catch (TimeoutException e) {
+            error = "not completed within " + configuration.getWarmUpTimeout() + " seconds";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+        }
+
+        if (configuration.isWarmUpFailOnError()) {
+            throw new SnowflakeException("Failed to warm up Snowflake endpoint for " + configuration.getBaseUrl() + ": "
+                    + error);
+        }
+
+        log.warn("Failed to warm up Snowflake endpoint for {}, the first exchange waits instead: {}",
+                configuration.getBaseUrl(), error);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (client != null) {
+            getComponent().releaseClient(client);
+            client = null;
+        }
+
+        super.doStop();
     }
 
     @Override
@@ -53,8 +143,10 @@ public class SnowflakeEndpoint extends DefaultEndpoint {
     }
 
     @Override
-    public Consumer createConsumer(Processor processor) {
-        throw new UnsupportedOperationException("Consumer not supported for Snowflake endpoint");
+    public Consumer createConsumer(Processor processor) throws Exception {
+        final SnowflakeConsumer consumer = new SnowflakeConsumer(this, processor);
+        configureConsumer(consumer);
+        return consumer;
     }
 
     @Override
@@ -125,4 +217,199 @@ public class SnowflakeEndpoint extends DefaultEndpoint {
         async = theAsync;
     }
 
+    /**
+     * Get whether all partitions of the result set should be fetched.
+     *
+     * @return Whether all partitions of the result set should be fetched.
+     */
+    public Boolean getFetchPartitions() {
+        return fetchPartitions;
+    }
+
+    /**
+     * Set whether all partitions of the result set should be fetched. If set, the rows of all partitions are returned
+     * as an ordered {@link java.util.Iterator} body.
+     *
+     * @param theFetchPartitions Whether all partitions of the result set should be fetched.
+     */
+    public void setFetchPartitions(Boolean theFetchPartitions) {
+        fetchPartitions = theFetchPartitions;
+    }
+
+    /**
+     * Get the maximum number of result set partitions to download in parallel.
+     *
+     * @return The maximum number of result set partitions to download in parallel.
+     */
+    public Integer getPartitionConcurrency() {
+        return partitionConcurrency;
+    }
+
+    /**
+     * Set the maximum number of result set partitions to download in parallel.
+     *
+     * @param thePartitionConcurrency The maximum number of result set partitions to download in parallel.
+     */
+    public void setPartitionConcurrency(Integer thePartitionConcurrency) {
+        partitionConcurrency = thePartitionConcurrency;
+    }
+
+    /**
+     * Get whether the rows of the result set should be streamed from the response.
+     *
+     * @return Whether the rows of the result set should be streamed from the response.
+     */
+    public Boolean getStreamResults() {
+        return streamResults;
+    }
+
+    /**
+     * Set whether the rows of the result set should be streamed from the response. If set, the rows are returned as an
+     * {@link java.util.Iterator} body that reads the rows from the response one at a time.
+     *
+     * @param theStreamResults Whether the rows of the result set should be streamed from the response.
+     */
+    public void setStreamResults(Boolean theStreamResults) {
+        streamResults = theStreamResults;
+    }
+
+    /**
+     * Get whether the rows of the result set should be decoded into a columnar representation.
+     *
+     * @return Whether the rows of the result set should be decoded into a columnar representation.
+     */
+    public Boolean getColumnar() {
+        return columnar;
+    }
+
+    /**
+     * Set whether the rows of the result set should be decoded into a columnar representation. If set, every
+     * partition is returned as a {@link nl.axians.camel.snowflake.columnar.ColumnarBatch} in an
+     * {@link java.util.Iterator} body.
+     *
+     * @param theColumnar Whether the rows of the result set should be decoded into a columnar representation.
+     */
+    public void setColumnar(Boolean theColumnar) {
+        columnar = theColumnar;
+    }
+
+    /**
+     * Get the maximum number of parameterized statement templates to cache.
+     *
+     * @return The maximum number of statement templates to cache.
+     */
+    public Integer getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Set the maximum number of parameterized statement templates to cache.
+     *
+     * @param theStatementCacheSize The maximum number of statement templates to cache.
+     */
+    public void setStatementCacheSize(Integer theStatementCacheSize) {
+        statementCacheSize = theStatementCacheSize;
+    }
+
+    /**
+     * Get the maximum number of exchanges to combine into a single statement with array bindings.
+     *
+     * @return The maximum number of exchanges in a batch.
+     */
+    public Integer getBatchMaxRows() {
+        return batchMaxRows;
+    }
+
+    /**
+     * Set the maximum number of exchanges to combine into a single statement with array bindings. If set to 2 or
+     * more, exchanges with bindings for the same statement are submitted in batches.
+     *
+     * @param theBatchMaxRows The maximum number of exchanges in a batch.
+     */
+    public void setBatchMaxRows(Integer theBatchMaxRows) {
+        batchMaxRows = theBatchMaxRows;
+    }
+
+    /**
+     * Get the maximum size in bytes of the bindings of a batch.
+     *
+     * @return The maximum size in bytes of the bindings of a batch.
+     */
+    public Long getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    /**
+     * Set the maximum size in bytes of the bindings of a batch.
+     *
+     * @param theBatchMaxBytes The maximum size in bytes of the bindings of a batch.
+     */
+    public void setBatchMaxBytes(Long theBatchMaxBytes) {
+        batchMaxBytes = theBatchMaxBytes;
+    }
+
+    /**
+     * Get the maximum time in milliseconds an exchange waits for its batch to be submitted.
+     *
+     * @return The maximum time in milliseconds.
+     */
+    public Long getBatchMaxLatency() {
+        return batchMaxLatency;
+    }
+
+    /**
+     * Set the maximum time in milliseconds an exchange waits for its batch to be submitted.
+     *
+     * @param theBatchMaxLatency The maximum time in milliseconds.
+     */
+    public void setBatchMaxLatency(Long theBatchMaxLatency) {
+        batchMaxLatency = theBatchMaxLatency;
+    }
+
+    /**
+     * Check whether exchanges are submitted in batches.
+     *
+     * @return Whether exchanges are submitted in batches.
+     */
+    public boolean isBatching() {
+        return operation == SnowflakeOperation.SubmitStatement && batchMaxRows != null && batchMaxRows > 1;
+    }
+
+    /**
+     * Get the delay in milliseconds until the status of an asynchronous statement is polled for the first time.
+     *
+     * @return The delay in milliseconds.
+     */
+    public Long getPollInitialDelay() {
+        return pollInitialDelay;
+    }
+
+    /**
+     * Set the delay in milliseconds until the status of an asynchronous statement is polled for the first time. The
+     * delay is doubled after every poll that returns 202, up to {@link #getPollMaxDelay()}.
+     *
+     * @param thePollInitialDelay The delay in milliseconds.
+     */
+    public void setPollInitialDelay(Long thePollInitialDelay) {
+        pollInitialDelay = thePollInitialDelay;
+    }
+
+    /**
+     * Get the maximum delay in milliseconds between two polls of the status of an asynchronous statement.
+     *
+     * @return The maximum delay in milliseconds.
+     */
+    public Long getPollMaxDelay() {
+        return pollMaxDelay;
+    }
+
+    /**
+     * Set the maximum delay in milliseconds between two polls of the status of an asynchronous statement.
+     *
+     * @param thePollMaxDelay The maximum delay in milliseconds.
+     */
+    public void setPollMaxDelay(Long thePollMaxDelay) {
+        pollMaxDelay = thePollMaxDelay;
+    }
+
 }
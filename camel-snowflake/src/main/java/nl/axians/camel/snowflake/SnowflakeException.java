@@ -16,4 +16,14 @@ public class SnowflakeException extends RuntimeException {
         super(theMessage);
     }
 
+    /**
+     * Creates a new Snowflake exception with the given message and cause.
+     *
+     * @param theMessage The message of the exception.
+     * @param theCause   The cause of the exception.
+     */
+    public SnowflakeException(@Nonnull final String theMessage, final Throwable theCause) {
+        super(theMessage, theCause);
+    }
+
 }
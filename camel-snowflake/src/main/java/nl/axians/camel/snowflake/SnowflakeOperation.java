@@ -15,5 +15,10 @@ public enum SnowflakeOperation {
     /**
      * Operation to cancel a SQL statement that was submitted to Snowflake asynchronously.
      */
-    CancelStatement
+    CancelStatement,
+    /**
+     * Operation to submit a SQL statement, wait for it to complete and fetch all partitions of the result set in a
+     * single call.
+     */
+    SubmitAndFetch
 }
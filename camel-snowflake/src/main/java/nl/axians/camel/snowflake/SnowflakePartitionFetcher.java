@@ -0,0 +1,128 @@
+package nl.axians.camel.snowflake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Downloads all partitions of a Snowflake result set without blocking the calling thread. The partitions are requested
+ * asynchronously, at most {@code concurrency} at a time, and decoded on the given executor, so neither the thread of
+ * the HTTP client nor a thread of the executor waits for another download. The returned future completes with the
+ * elements of all partitions in the order of the partitions.
+ *
+ * @param <T> The type of the elements of the partitions.
+ */
+@Slf4j
+public class SnowflakePartitionFetcher<T> {
+
+    private final SnowflakeClient client;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final String statementUrl;
+    private final SnowflakePartitionIterator.PartitionDecoder<T> decoder;
+    private final int partitionCount;
+    private final int concurrency;
+
+    /**
+     * Constructor.
+     *
+     * @param theClient         The client to use for downloading the partitions.
+     * @param theObjectMapper   The object mapper to use for parsing the partitions.
+     * @param theExecutor       The executor to decode the partitions on.
+     * @param theStatementUrl   The URL of the statement, e.g. {@code <baseUrl>/statements/<statementHandle>}.
+     * @param theDecoder        The decoder for the downloaded partitions.
+     * @param thePartitionCount The total number of partitions of the result set.
+     * @param theConcurrency    The maximum number of partitions to download in parallel.
+     */
+    public SnowflakePartitionFetcher(
+            @Nonnull final SnowflakeClient theClient,
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final ExecutorService theExecutor,
+            @Nonnull final String theStatementUrl,
+            @Nonnull final SnowflakePartitionIterator.PartitionDecoder<T> theDecoder,
+            final int thePartitionCount,
+            final int theConcurrency) {
+        client = theClient;
+        objectMapper = theObjectMapper;
+        executor = theExecutor;
+        statementUrl = theStatementUrl;
+        decoder = theDecoder;
+        partitionCount = thePartitionCount;
+        concurrency = Math.max(1, theConcurrency);
+    }
+
+    /**
+     * Downloads the remaining partitions of the result set.
+     *
+     * @param theFirstPartition The elements of the first partition, taken from the response of the statement itself.
+     * @return The future elements of all partitions.
+     */
+    public CompletableFuture<List<T>> fetch(@Nonnull final List<T> theFirstPartition) {
+        final AtomicReferenceArray<List<T>> partitions = new AtomicReferenceArray<>(Math.max(1, partitionCount));
+        partitions.set(0, theFirstPartition);
+
+        final AtomicInteger nextPartition = new AtomicInteger(1);
+        final int workers = Math.min(concurrency, partitionCount - 1);
+        final CompletableFuture<?>[] downloads = new CompletableFuture<?>[Math.max(0, workers)];
+        for (int i = 0; i < downloads.length; i++) {
+            downloads[i] = downloadNext(nextPartition, partitions);
+        }
+
+        return CompletableFuture.allOf(downloads).thenApply(ignored -> {
+            final List<T> elements = new ArrayList<>();
+            for (int i = 0; i < partitions.length(); i++) {
+                elements.addAll(partitions.get(i));
+            }
+
+            return elements;
+        });
+    }
+
+    /**
+     * Downloads the next partition that has not been downloaded yet, and then the one after that, until all
+     * partitions have been downloaded.
+     *
+     * @param theNextPartition The index of the next partition to download.
+     * @param thePartitions    The elements of the downloaded partitions.
+     * @return The future that completes when there are no more partitions to download.
+     */
+    private CompletableFuture<Void> downloadNext(
+            @Nonnull final AtomicInteger theNextPartition,
+            @Nonnull final AtomicReferenceArray<List<T>> thePartitions) {
+        final int partition = theNextPartition.getAndIncrement();
+        if (partition >= partitionCount) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        log.debug("Downloading partition {} of {} from {}", partition, partitionCount, statementUrl);
+        final CompletableFuture<List<T>> download;
+        try {
+            download = client.sendStreamingRequestAsync(
+                            SnowflakePartitionIterator.createPartitionRequest(statementUrl, partition))
+                    .thenApplyAsync(response -> {
+                        try (SnowflakeResultSetReader reader = new SnowflakeResultSetReader(response.body(), objectMapper)) {
+                            return decoder.decode(reader);
+                        } catch (IOException e) {
+                            throw new SnowflakeException("Failed to download partition from " + statementUrl, e);
+                        }
+                    }, executor);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(
+                    new SnowflakeException("Failed to download partition from " + statementUrl, e));
+        }
+
+        return download.thenCompose(elements -> {
+            thePartitions.set(partition, elements);
+            return downloadNext(theNextPartition, thePartitions);
+        });
+    }
+
+}
@@ -0,0 +1,223 @@
+package nl.axians.camel.snowflake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates over the elements of all partitions of a Snowflake result set. The first partition is taken from the
+ * response of the statement itself, the remaining partitions are downloaded in parallel using the given executor. At
+ * most {@code concurrency} partitions are downloaded ahead of the partition that is currently being iterated, so the
+ * number of partitions held in memory is bounded. The elements are returned in the order of the partitions.
+ * <p>
+ * The partitions are read using a {@link SnowflakeResultSetReader}, so no partition is ever held in memory as text,
+ * and converted into elements by a {@link PartitionDecoder}, e.g. into rows or into a
+ * {@link nl.axians.camel.snowflake.columnar.ColumnarBatch}. If the first partition is a
+ * {@link SnowflakeResultSetReader} itself, its rows are streamed while the next partitions are being downloaded.
+ *
+ * @param <T> The type of the elements of the partitions.
+ */
+@Slf4j
+public class SnowflakePartitionIterator<T> implements Iterator<T>, Closeable {
+
+    /**
+     * Decodes the rows of a downloaded partition into the elements returned by the iterator.
+     *
+     * @param <T> The type of the elements of the partitions.
+     */
+    @FunctionalInterface
+    public interface PartitionDecoder<T> {
+
+        /**
+         * Decodes the rows of a partition.
+         *
+         * @param theReader The reader positioned at the first row of the partition.
+         * @return The elements of the partition.
+         * @throws IOException If the partition could not be read.
+         */
+        List<T> decode(@Nonnull SnowflakeResultSetReader theReader) throws IOException;
+
+    }
+
+    /**
+     * Decodes a partition into its rows.
+     */
+    public static final PartitionDecoder<List<Object>> ROWS = theReader -> {
+        final List<List<Object>> rows = new ArrayList<>();
+        theReader.forEachRemaining(rows::add);
+        return rows;
+    };
+
+    private final SnowflakeClient client;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final String statementUrl;
+    private final int partitionCount;
+    private final int concurrency;
+    private final PartitionDecoder<T> decoder;
+    private final Deque<Future<List<T>>> pending = new ArrayDeque<>();
+
+    private final Iterator<T> firstPartition;
+    private Iterator<T> current;
+    private int nextPartition = 1;
+
+    /**
+     * Constructor.
+     *
+     * @param theClient         The client to use for downloading the partitions.
+     * @param theObjectMapper   The object mapper to use for parsing the partitions.
+     * @param theExecutor       The executor to download the partitions on.
+     * @param theStatementUrl   The URL of the statement, e.g. {@code <baseUrl>/statements/<statementHandle>}.
+     * @param theFirstPartition The elements of the first partition.
+     * @param theDecoder        The decoder for the downloaded partitions.
+     * @param thePartitionCount The total number of partitions of the result set.
+     * @param theConcurrency    The maximum number of partitions to download in parallel.
+     */
+    public SnowflakePartitionIterator(
+            @Nonnull final SnowflakeClient theClient,
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final ExecutorService theExecutor,
+            @Nonnull final String theStatementUrl,
+            @Nonnull final Iterator<T> theFirstPartition,
+            @Nonnull final PartitionDecoder<T> theDecoder,
+            final int thePartitionCount,
+            final int theConcurrency) {
+        client = theClient;
+        objectMapper = theObjectMapper;
+        executor = theExecutor;
+        statementUrl = theStatementUrl;
+        partitionCount = thePartitionCount;
+        concurrency = Math.max(1, theConcurrency);
+        decoder = theDecoder;
+        firstPartition = theFirstPartition;
+        current = theFirstPartition;
+        scheduleDownloads();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            final Future<List<T>> next = pending.poll();
+            if (next == null) {
+                return false;
+            }
+
+            current = await(next).iterator();
+            scheduleDownloads();
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return current.next();
+    }
+
+    /**
+     * Cancels the downloads of the partitions that have not been consumed yet.
+     */
+    @Override
+    public void close() {
+        if (firstPartition instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.debug("Failed to close first partition of {}", statementUrl, e);
+            }
+        }
+
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        nextPartition = partitionCount;
+        current = Collections.emptyIterator();
+    }
+
+    /**
+     * Schedules partition downloads until the maximum number of parallel downloads has been reached or all
+     * partitions have been scheduled.
+     */
+    private void scheduleDownloads() {
+        while (pending.size() < concurrency && nextPartition < partitionCount) {
+            final int partition = nextPartition++;
+            pending.add(executor.submit(() -> download(partition)));
+        }
+    }
+
+    /**
+     * Downloads a single partition.
+     *
+     * @param thePartition The partition to download.
+     * @return The elements of the partition.
+     * @throws Exception If the partition could not be downloaded.
+     */
+    private List<T> download(final int thePartition) throws Exception {
+        log.debug("Downloading partition {} of {} from {}", thePartition, partitionCount, statementUrl);
+        try (SnowflakeResultSetReader reader = new SnowflakeResultSetReader(
+                client.sendStreamingRequest(createPartitionRequest(statementUrl, thePartition)).body(), objectMapper)) {
+            return decoder.decode(reader);
+        }
+    }
+
+    /**
+     * Creates the request for downloading a single partition.
+     *
+     * @param theStatementUrl The URL of the statement, e.g. {@code <baseUrl>/statements/<statementHandle>}.
+     * @param thePartition    The partition to download.
+     * @return The request.
+     * @throws Exception If the URL of the partition is invalid.
+     */
+    static HttpRequest createPartitionRequest(
+            @Nonnull final String theStatementUrl,
+            final int thePartition) throws Exception {
+        return HttpRequest.newBuilder()
+                .uri(new URI(theStatementUrl + "?partition=" + thePartition))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    /**
+     * Waits for a partition download to complete.
+     *
+     * @param theFuture The future of the partition download.
+     * @return The elements of the partition.
+     */
+    private List<T> await(@Nonnull final Future<List<T>> theFuture) {
+        try {
+            return theFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new SnowflakeException("Interrupted while downloading partition from " + statementUrl, e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof SnowflakeException snowflakeException) {
+                throw snowflakeException;
+            }
+
+            throw new SnowflakeException("Failed to download partition from " + statementUrl, e.getCause());
+        }
+    }
+
+}
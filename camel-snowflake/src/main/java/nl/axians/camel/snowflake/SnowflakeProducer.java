@@ -1,23 +1,43 @@
 package nl.axians.camel.snowflake;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
+import nl.axians.camel.snowflake.columnar.ColumnarBatch;
+import nl.axians.camel.snowflake.model.Parameters;
+import nl.axians.camel.snowflake.model.ResultSet;
+import nl.axians.camel.snowflake.model.ResultSetMetaData;
+import nl.axians.camel.snowflake.model.RowType;
+import nl.axians.camel.snowflake.model.Statement;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
-import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.support.DefaultAsyncProducer;
+import org.apache.camel.support.LRUCacheFactory;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static nl.axians.camel.snowflake.Snowflake.*;
 import static nl.axians.camel.snowflake.SnowflakeOperation.*;
 
 /**
- * The Snowflake producer, which sends messages to the Snowflake API.
+ * The Snowflake producer, which sends messages to the Snowflake API. The requests are sent asynchronously, so the
+ * calling thread is not blocked while Snowflake executes the statement.
  */
 @Slf4j
-public class SnowflakeProducer extends DefaultProducer {
+public class SnowflakeProducer extends DefaultAsyncProducer {
 
     // TODO Timeout if specified in the URI.
     // TODO Statement count if specified in the URI. Otherwise, default to 1.
@@ -33,7 +53,13 @@ public class SnowflakeProducer extends DefaultProducer {
                 }
             }""";
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final SnowflakeEndpoint endpoint;
+    private ExecutorService partitionExecutor;
+    private Map<String, SnowflakeStatementTemplate> templateCache;
+    private ScheduledExecutorService batchScheduler;
+    private SnowflakeBatcher batcher;
 
     public SnowflakeProducer(@Nonnull final SnowflakeEndpoint theEndpoint) {
         super(theEndpoint);
@@ -41,30 +67,171 @@ public class SnowflakeProducer extends DefaultProducer {
     }
 
     @Override
-    public void process(final @Nonnull Exchange theExchange) throws Exception {
+    protected void doStart() throws Exception {
+        super.doStart();
+        templateCache = LRUCacheFactory.newLRUCache(endpoint.getStatementCacheSize());
+        if (endpoint.isBatching()) {
+            batchScheduler = endpoint.getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadScheduledExecutor(this, "SnowflakeBatcher");
+            batcher = new SnowflakeBatcher(endpoint::getClient, OBJECT_MAPPER,
+                    new URI(getBaseUrl() + "/statements"), batchScheduler, endpoint.getComponent()::getPoller,
+                    endpoint.getPollInitialDelay(), endpoint.getPollMaxDelay(), endpoint.getBatchMaxRows(),
+                    endpoint.getBatchMaxBytes(), endpoint.getBatchMaxLatency());
+        }
+        if (endpoint.getFetchPartitions() || endpoint.getOperation() == SubmitAndFetch) {
+            partitionExecutor = endpoint.getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "SnowflakePartitionFetcher", endpoint.getPartitionConcurrency());
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (batcher != null) {
+            batcher.flushAll();
+            batcher = null;
+        }
+
+        if (batchScheduler != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(batchScheduler);
+            batchScheduler = null;
+        }
+
+        if (partitionExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(partitionExecutor);
+            partitionExecutor = null;
+        }
+        super.doStop();
+    }
+
+    @Override
+    public boolean process(@Nonnull final Exchange theExchange, @Nonnull final AsyncCallback theCallback) {
+        final String baseUrl = getBaseUrl();
+        final HttpRequest request;
+        try {
+            if (batcher != null && addToBatch(theExchange, theCallback)) {
+                return false;
+            }
+
+            request = createRequest(theExchange, baseUrl);
+        } catch (Exception e) {
+            theExchange.setException(e);
+            theCallback.done(true);
+            return true;
+        }
+
+        final CompletableFuture<Void> future;
+        if (endpoint.getOperation() == SubmitAndFetch) {
+            future = endpoint.getClient().sendRequestAsync(request)
+                    .thenCompose(response -> awaitCompletion(baseUrl, response))
+                    .thenCompose(response -> {
+                        try {
+                            return setFetchedResult(theExchange, baseUrl, response);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        } else if ((endpoint.getStreamResults() || endpoint.getColumnar()) && endpoint.getOperation() != CancelStatement) {
+            future = endpoint.getClient().sendStreamingRequestAsync(request).thenAccept(response -> {
+                try {
+                    setStreamedResult(theExchange, baseUrl, response);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } else {
+            future = endpoint.getClient().sendRequestAsync(request).thenAccept(response -> {
+                try {
+                    setResult(theExchange, baseUrl, response);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                theExchange.setException(error instanceof CompletionException && error.getCause() != null ?
+                        error.getCause() : error);
+            }
+
+            theCallback.done(false);
+        });
+
+        return false;
+    }
+
+    /**
+     * Get the Snowflake API base URL of the endpoint without trailing slash.
+     *
+     * @return The Snowflake API base URL.
+     */
+    private String getBaseUrl() {
+        final String url = endpoint.getConfiguration().getBaseUrl();
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Adds the exchange to a batch if it has bindings for an {@code INSERT} statement. Other statements, such as
+     * {@code UPDATE}, {@code DELETE} or {@code MERGE}, are submitted individually.
+     *
+     * @param theExchange The exchange.
+     * @param theCallback The callback to complete when the batch has been executed.
+     * @return Whether the exchange has been added to a batch.
+     * @throws Exception If the statement template could not be created.
+     */
+    private boolean addToBatch(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final AsyncCallback theCallback) throws Exception {
+        final Object bindings = getBindings(theExchange);
+        if (bindings == null) {
+            return false;
+        }
+
+        final String statement = getStatement(theExchange, bindings);
+        if (!isInsert(statement)) {
+            return false;
+        }
+
+        final List<Object> values = SnowflakeStatementTemplate.toValues(bindings);
+        final String key = "1:" + values.size() + ':' + statement;
+        batcher.add(theExchange, theCallback, key, getTemplate(key, statement, "1", values), values);
+        return true;
+    }
+
+    /**
+     * Checks whether a statement is an {@code INSERT} statement.
+     *
+     * @param theStatement The statement.
+     * @return Whether the statement is an {@code INSERT} statement.
+     */
+    private static boolean isInsert(final String theStatement) {
+        return theStatement != null && theStatement.stripLeading().regionMatches(true, 0, "INSERT", 0, 6);
+    }
+
+    /**
+     * Creates the request for the operation of the endpoint.
+     *
+     * @param theExchange The exchange.
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @return The request.
+     * @throws Exception If the request could not be created.
+     */
+    private HttpRequest createRequest(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl) throws Exception {
         final HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json");
 
-        String url = endpoint.getConfiguration().getBaseUrl();
-        if (url.endsWith("/")) {
-            url = url.substring(0, url.length() - 1);
-        }
-
         switch (endpoint.getOperation()) {
-            case SubmitStatement: {
+            case SubmitStatement:
+            case SubmitAndFetch: {
                 String count = theExchange.getIn().getHeader(SNOWFLAKE_STATEMENT_COUNT, String.class);
                 if (count == null || count.isEmpty())
                     count = "1";
 
-                final URI uri = new URI(url + "/statements" + getQueryParameters(SubmitStatement, theExchange));
-                final String requestBody = String.format(REQUEST_BODY,
-                        endpoint.getConfiguration().getWarehouse(),
-                        endpoint.getConfiguration().getDatabase(),
-                        endpoint.getConfiguration().getSchema(),
-                        theExchange.getIn().getBody(String.class),
-                        endpoint.getConfiguration().getRole(),
-                        count);
+                final URI uri = new URI(theBaseUrl + "/statements" + getQueryParameters(endpoint.getOperation(), theExchange));
+                final String requestBody = createSubmitRequestBody(theExchange, count);
                 log.debug("Snowflake request body: {}", requestBody);
                 requestBuilder.uri(uri).POST(HttpRequest.BodyPublishers.ofString(requestBody));
                 break;
@@ -74,7 +241,7 @@ public class SnowflakeProducer extends DefaultProducer {
                 if (statementHandle == null || statementHandle.isEmpty())
                     throw new SnowflakeException(SNOWFLAKE_STATEMENT_HANDLE + " header is missing or empty: Statement handle is required for operation: " + endpoint.getOperation());
 
-                final URI uri = new URI(url + "/statements/" + statementHandle + getQueryParameters(CheckStatementStatus, theExchange));
+                final URI uri = new URI(theBaseUrl + "/statements/" + statementHandle + getQueryParameters(CheckStatementStatus, theExchange));
                 requestBuilder.uri(uri).GET();
                 break;
             }
@@ -83,15 +250,420 @@ public class SnowflakeProducer extends DefaultProducer {
                 if (statementHandle == null || statementHandle.isEmpty())
                     throw new SnowflakeException(SNOWFLAKE_STATEMENT_HANDLE + " header is missing or empty: Statement handle is required for operation: " + endpoint.getOperation());
 
-                final URI uri = new URI(url + "/statements/" + statementHandle + "/cancel" + getQueryParameters(CancelStatement, theExchange));
+                final URI uri = new URI(theBaseUrl + "/statements/" + statementHandle + "/cancel" + getQueryParameters(CancelStatement, theExchange));
                 requestBuilder.uri(uri).POST(HttpRequest.BodyPublishers.noBody());
                 break;
             default:
                 throw new UnsupportedOperationException("Operation not supported: " + endpoint.getOperation());
         }
 
-        final HttpResponse<String> response = endpoint.getClient().sendRequest(requestBuilder.build());
-        theExchange.getMessage().setBody(response.body());
+        return requestBuilder.build();
+    }
+
+    /**
+     * Creates the request body for submitting a statement. If the exchange has bindings, either in the
+     * {@link Snowflake#SNOWFLAKE_BINDINGS} header or as a {@link Map} or {@link Collection} body, the
+     * statement is sent with bind variables using a cached {@link SnowflakeStatementTemplate}. In that case the
+     * statement is taken from the {@link Snowflake#SNOWFLAKE_STATEMENT} header or, if the bindings are in the header,
+     * from the body. Otherwise, the body is sent as a literal statement.
+     *
+     * @param theExchange The exchange.
+     * @param theCount    The number of statements.
+     * @return The request body.
+     * @throws Exception If the request body could not be created.
+     */
+    private String createSubmitRequestBody(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theCount) throws Exception {
+        final Object bindings = getBindings(theExchange);
+        final String statement = getStatement(theExchange, bindings);
+        if (bindings == null) {
+            return String.format(REQUEST_BODY,
+                    endpoint.getConfiguration().getWarehouse(),
+                    endpoint.getConfiguration().getDatabase(),
+                    endpoint.getConfiguration().getSchema(),
+                    statement,
+                    endpoint.getConfiguration().getRole(),
+                    theCount);
+        }
+
+        final List<Object> values = SnowflakeStatementTemplate.toValues(bindings);
+        final String key = theCount + ':' + values.size() + ':' + statement;
+        return getTemplate(key, statement, theCount, values).createRequestBody(OBJECT_MAPPER, values);
+    }
+
+    /**
+     * Get the bindings of the exchange, either from the {@link Snowflake#SNOWFLAKE_BINDINGS} header or from a
+     * {@link Map} or {@link Collection} body.
+     *
+     * @param theExchange The exchange.
+     * @return The bindings or {@code null} if the exchange has no bindings.
+     */
+    private Object getBindings(@Nonnull final Exchange theExchange) {
+        final Object bindings = theExchange.getIn().getHeader(SNOWFLAKE_BINDINGS);
+        if (bindings != null) {
+            return bindings;
+        }
+
+        final Object body = theExchange.getIn().getBody();
+        return body instanceof Map<?, ?> || body instanceof Collection<?> ? body : null;
+    }
+
+    /**
+     * Get the statement of the exchange. The statement is taken from the {@link Snowflake#SNOWFLAKE_STATEMENT} header
+     * if set, otherwise from the body.
+     *
+     * @param theExchange The exchange.
+     * @param theBindings The bindings of the exchange or {@code null}.
+     * @return The statement.
+     */
+    private String getStatement(@Nonnull final Exchange theExchange, final Object theBindings) {
+        final String statement = theExchange.getIn().getHeader(SNOWFLAKE_STATEMENT, String.class);
+        if (statement != null && !statement.isEmpty()) {
+            return statement;
+        }
+
+        if (theBindings != null && theBindings == theExchange.getIn().getBody())
+            throw new SnowflakeException(SNOWFLAKE_STATEMENT + " header is missing or empty: Statement is required when the body contains the bindings");
+
+        return theExchange.getIn().getBody(String.class);
+    }
+
+    /**
+     * Get the cached template for a parameterized statement, creating it if needed.
+     *
+     * @param theKey       The cache key of the statement.
+     * @param theStatement The SQL statement with {@code ?} placeholders.
+     * @param theCount     The number of statements.
+     * @param theValues    The binding values, used to infer the binding types if the template is created.
+     * @return The template.
+     * @throws Exception If the template could not be created.
+     */
+    private SnowflakeStatementTemplate getTemplate(
+            @Nonnull final String theKey,
+            @Nonnull final String theStatement,
+            @Nonnull final String theCount,
+            @Nonnull final List<Object> theValues) throws Exception {
+        SnowflakeStatementTemplate template = templateCache.get(theKey);
+        if (template == null) {
+            template = new SnowflakeStatementTemplate(OBJECT_MAPPER, createStatement(theStatement, theCount), theValues);
+            templateCache.put(theKey, template);
+        }
+
+        return template;
+    }
+
+    /**
+     * Creates the statement for a parameterized request using the configuration of the endpoint.
+     *
+     * @param theStatement The SQL statement with {@code ?} placeholders.
+     * @param theCount     The number of statements.
+     * @return The statement.
+     */
+    private Statement createStatement(@Nonnull final String theStatement, @Nonnull final String theCount) {
+        final Parameters parameters = new Parameters();
+        parameters.setMulti_statement_count(theCount);
+
+        final Statement statement = new Statement();
+        statement.setStatement(theStatement);
+        statement.setWarehouse(endpoint.getConfiguration().getWarehouse());
+        statement.setDatabase(endpoint.getConfiguration().getDatabase());
+        statement.setSchema(endpoint.getConfiguration().getSchema());
+        statement.setRole(endpoint.getConfiguration().getRole());
+        statement.setParameters(parameters);
+        return statement;
+    }
+
+    /**
+     * Sets the response of the Snowflake API as the body of the exchange, or the rows of all partitions if all
+     * partitions should be fetched.
+     *
+     * @param theExchange The exchange.
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @param theResponse The response of the Snowflake API.
+     * @throws Exception If the response could not be parsed.
+     */
+    private void setResult(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl,
+            @Nonnull final HttpResponse<String> theResponse) throws Exception {
+        if (shouldFetchPartitions(theExchange, theResponse.statusCode())) {
+            setPartitionedResult(theExchange, theBaseUrl, theResponse);
+        } else {
+            pollIfRunning(theBaseUrl, theResponse.statusCode(), theResponse.body());
+            theExchange.getMessage().setBody(theResponse.body());
+        }
+    }
+
+    /**
+     * Hands an asynchronously submitted statement that is still running over to the poller of the component, if the
+     * component has a {@link SnowflakeConsumer} for the client of this endpoint. The consumer emits an exchange when
+     * the statement completes or fails.
+     *
+     * @param theBaseUrl    The Snowflake API base URL without trailing slash.
+     * @param theStatusCode The status code of the response.
+     * @param theBody       The body of the response.
+     * @throws Exception If the response could not be parsed.
+     */
+    private void pollIfRunning(
+            @Nonnull final String theBaseUrl,
+            final int theStatusCode,
+            final String theBody) throws Exception {
+        if (theStatusCode != 202 || endpoint.getOperation() != SubmitStatement || theBody == null || theBody.isEmpty()) {
+            return;
+        }
+
+        final SnowflakeStatementPoller poller = endpoint.getComponent().getPoller();
+        if (!poller.hasConsumer(endpoint.getClient())) {
+            return;
+        }
+
+        final ResultSet status = OBJECT_MAPPER.readValue(theBody, ResultSet.class);
+        if (status.getStatementHandle() != null) {
+            poller.poll(endpoint.getClient(), theBaseUrl + "/statements/" + status.getStatementHandle(),
+                    status.getStatementHandle(), endpoint.getPollInitialDelay(), endpoint.getPollMaxDelay());
+        }
+    }
+
+    /**
+     * Checks whether all partitions of the result set in the response should be fetched. This is only the case when
+     * enabled on the endpoint, the statement has completed and no specific partition has been requested.
+     *
+     * @param theExchange   The exchange.
+     * @param theStatusCode The status code of the response of the Snowflake API.
+     * @return Whether all partitions should be fetched.
+     */
+    private boolean shouldFetchPartitions(
+            @Nonnull final Exchange theExchange,
+            final int theStatusCode) {
+        return endpoint.getFetchPartitions()
+                && theStatusCode == 200
+                && endpoint.getOperation() != CancelStatement
+                && !theExchange.getIn().getHeaders().containsKey(SNOWFLAKE_PARTITION);
+    }
+
+    /**
+     * Sets the rows of the result set in the streamed response as an {@link java.util.Iterator} body that reads the
+     * rows one at a time, or that returns a {@link ColumnarBatch} per partition if the endpoint is columnar. If all
+     * partitions should be fetched, the remaining partitions are downloaded in parallel while the first partition is
+     * being consumed. If the response does not contain a result set, for example when the statement is still running,
+     * the response is set as a JSON string.
+     *
+     * @param theExchange The exchange.
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @param theResponse The streamed response of the Snowflake API.
+     * @throws Exception If the response could not be read.
+     */
+    private void setStreamedResult(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl,
+            @Nonnull final HttpResponse<InputStream> theResponse) throws Exception {
+        if (theResponse.statusCode() != 200) {
+            try (InputStream body = theResponse.body()) {
+                final String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                pollIfRunning(theBaseUrl, theResponse.statusCode(), text);
+                theExchange.getMessage().setBody(text);
+            }
+            return;
+        }
+
+        final SnowflakeResultSetReader reader = new SnowflakeResultSetReader(theResponse.body(), OBJECT_MAPPER);
+        final ResultSetMetaData metaData = reader.getResultSetMetaData();
+        if (!reader.hasData() || metaData == null) {
+            reader.close();
+            theExchange.getMessage().setBody(reader.getHeaderAsJson());
+            return;
+        }
+
+        final String statementHandle = reader.getResultSet().getStatementHandle();
+        theExchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_HANDLE, statementHandle);
+        theExchange.getMessage().setHeader(SNOWFLAKE_RESULT_SET_META_DATA, metaData);
+
+        final int partitionCount = metaData.getPartitionInfo() != null ? metaData.getPartitionInfo().size() : 1;
+        final boolean fetchPartitions = shouldFetchPartitions(theExchange, theResponse.statusCode()) && partitionCount > 1;
+
+        if (endpoint.getColumnar()) {
+            final List<RowType> rowTypes = metaData.getRowType() != null ? metaData.getRowType() : List.of();
+            final ColumnarBatch firstBatch;
+            try (reader) {
+                firstBatch = ColumnarBatch.read(rowTypes, reader);
+            }
+
+            theExchange.getMessage().setBody(fetchPartitions ?
+                    createPartitionIterator(theBaseUrl, statementHandle, List.of(firstBatch).iterator(),
+                            theReader -> List.of(ColumnarBatch.read(rowTypes, theReader)), partitionCount) :
+                    List.of(firstBatch).iterator());
+        } else if (fetchPartitions) {
+            log.debug("Streaming {} partitions of statement {}", partitionCount, statementHandle);
+            theExchange.getMessage().setBody(createPartitionIterator(
+                    theBaseUrl, statementHandle, reader, SnowflakePartitionIterator.ROWS, partitionCount));
+        } else {
+            theExchange.getMessage().setBody(reader);
+        }
+    }
+
+    /**
+     * Sets the rows of all partitions of the result set as an ordered {@link java.util.Iterator} body. The remaining
+     * partitions are downloaded in parallel while the rows are being consumed. If the response does not contain a
+     * result set, for example when multiple statements were submitted, the response body is set as is.
+     *
+     * @param theExchange The exchange.
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @param theResponse The response of the Snowflake API containing the first partition.
+     * @throws Exception If the response could not be parsed.
+     */
+    private void setPartitionedResult(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl,
+            @Nonnull final HttpResponse<String> theResponse) throws Exception {
+        final ResultSet resultSet = OBJECT_MAPPER.readValue(theResponse.body(), ResultSet.class);
+        if (resultSet.getResultSetMetaData() == null || resultSet.getData() == null) {
+            theExchange.getMessage().setBody(theResponse.body());
+            return;
+        }
+
+        final int partitionCount = resultSet.getResultSetMetaData().getPartitionInfo() != null ?
+                resultSet.getResultSetMetaData().getPartitionInfo().size() : 1;
+        log.debug("Fetching {} partitions of statement {}", partitionCount, resultSet.getStatementHandle());
+
+        theExchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_HANDLE, resultSet.getStatementHandle());
+        theExchange.getMessage().setHeader(SNOWFLAKE_RESULT_SET_META_DATA, resultSet.getResultSetMetaData());
+        theExchange.getMessage().setBody(createPartitionIterator(
+                theBaseUrl, resultSet.getStatementHandle(), resultSet.getData().iterator(),
+                SnowflakePartitionIterator.ROWS, partitionCount));
+    }
+
+    /**
+     * Waits for a submitted statement to complete. If Snowflake responded with 202, the statement is still running and
+     * its {@code statementStatusUrl} is polled by the poller of the component with exponential backoff.
+     *
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @param theResponse The response to the submitted statement.
+     * @return The future response of the completed statement.
+     */
+    private CompletableFuture<HttpResponse<String>> awaitCompletion(
+            @Nonnull final String theBaseUrl,
+            @Nonnull final HttpResponse<String> theResponse) {
+        if (theResponse.statusCode() != 202) {
+            return CompletableFuture.completedFuture(theResponse);
+        }
+
+        final CompletableFuture<HttpResponse<String>> completed = new CompletableFuture<>();
+        try {
+            final ResultSet status = OBJECT_MAPPER.readValue(theResponse.body(), ResultSet.class);
+            final String statementUrl = status.getStatementStatusUrl() != null ?
+                    URI.create(theBaseUrl).resolve(status.getStatementStatusUrl()).toString() :
+                    theBaseUrl + "/statements/" + status.getStatementHandle();
+            log.debug("Waiting for statement {} to complete", status.getStatementHandle());
+            endpoint.getComponent().getPoller().poll(endpoint.getClient(), statementUrl, status.getStatementHandle(),
+                    endpoint.getPollInitialDelay(), endpoint.getPollMaxDelay(), (response, error) -> {
+                        if (error != null) {
+                            completed.completeExceptionally(error);
+                        } else {
+                            completed.complete(response);
+                        }
+                    });
+        } catch (Exception e) {
+            completed.completeExceptionally(e);
+        }
+
+        return completed;
+    }
+
+    /**
+     * Sets the result of a completed statement. The partitions of the result set are downloaded in parallel as soon as
+     * the first partition has been received. If the endpoint streams results, the body is an
+     * {@link java.util.Iterator} over the rows, or over a {@link ColumnarBatch} per partition if the endpoint is
+     * columnar. Otherwise, the body is a {@link List} with all rows or batches, which is set when all partitions have
+     * been downloaded asynchronously. If the response does not contain a result set, the response body is set as is.
+     *
+     * @param theExchange The exchange.
+     * @param theBaseUrl  The Snowflake API base URL without trailing slash.
+     * @param theResponse The response of the completed statement containing the first partition.
+     * @return The future that completes when the body has been set.
+     * @throws Exception If the response could not be parsed.
+     */
+    private CompletableFuture<Void> setFetchedResult(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl,
+            @Nonnull final HttpResponse<String> theResponse) throws Exception {
+        final ResultSet resultSet = OBJECT_MAPPER.readValue(theResponse.body(), ResultSet.class);
+        final ResultSetMetaData metaData = resultSet.getResultSetMetaData();
+        if (metaData == null || resultSet.getData() == null) {
+            theExchange.getMessage().setBody(theResponse.body());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final String statementHandle = resultSet.getStatementHandle();
+        final int partitionCount = metaData.getPartitionInfo() != null ? metaData.getPartitionInfo().size() : 1;
+        theExchange.getMessage().setHeader(SNOWFLAKE_STATEMENT_HANDLE, statementHandle);
+        theExchange.getMessage().setHeader(SNOWFLAKE_RESULT_SET_META_DATA, metaData);
+
+        if (endpoint.getColumnar()) {
+            final List<RowType> rowTypes = metaData.getRowType() != null ? metaData.getRowType() : List.of();
+            return setFetchedBody(theExchange, theBaseUrl, statementHandle,
+                    List.of(ColumnarBatch.read(rowTypes, resultSet.getData().iterator())),
+                    theReader -> List.of(ColumnarBatch.read(rowTypes, theReader)), partitionCount);
+        }
+
+        return setFetchedBody(theExchange, theBaseUrl, statementHandle, resultSet.getData(),
+                SnowflakePartitionIterator.ROWS, partitionCount);
+    }
+
+    /**
+     * Sets the elements of all partitions of a completed statement as the body of the exchange, either as an
+     * {@link java.util.Iterator} if the endpoint streams results, or as a {@link List} when all partitions have been
+     * downloaded.
+     *
+     * @param theExchange        The exchange.
+     * @param theBaseUrl         The Snowflake API base URL without trailing slash.
+     * @param theStatementHandle The handle of the statement.
+     * @param theFirstPartition  The elements of the first partition.
+     * @param theDecoder         The decoder for the remaining partitions.
+     * @param thePartitionCount  The total number of partitions of the result set.
+     * @param <T>                The type of the elements of the partitions.
+     * @return The future that completes when the body has been set.
+     */
+    private <T> CompletableFuture<Void> setFetchedBody(
+            @Nonnull final Exchange theExchange,
+            @Nonnull final String theBaseUrl,
+            @Nonnull final String theStatementHandle,
+            @Nonnull final List<T> theFirstPartition,
+            @Nonnull final SnowflakePartitionIterator.PartitionDecoder<T> theDecoder,
+            final int thePartitionCount) {
+        if (endpoint.getStreamResults()) {
+            theExchange.getMessage().setBody(createPartitionIterator(theBaseUrl, theStatementHandle,
+                    theFirstPartition.iterator(), theDecoder, thePartitionCount));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return new SnowflakePartitionFetcher<>(endpoint.getClient(), OBJECT_MAPPER, partitionExecutor,
+                theBaseUrl + "/statements/" + theStatementHandle, theDecoder, thePartitionCount,
+                endpoint.getPartitionConcurrency())
+                .fetch(theFirstPartition)
+                .thenAccept(elements -> theExchange.getMessage().setBody(elements));
+    }
+
+    /**
+     * Creates an iterator over the elements of all partitions of a result set.
+     *
+     * @param theBaseUrl         The Snowflake API base URL without trailing slash.
+     * @param theStatementHandle The handle of the statement.
+     * @param theFirstPartition  The elements of the first partition.
+     * @param theDecoder         The decoder for the remaining partitions.
+     * @param thePartitionCount  The total number of partitions of the result set.
+     * @param <T>                The type of the elements of the partitions.
+     * @return The iterator over the elements of all partitions.
+     */
+    private <T> SnowflakePartitionIterator<T> createPartitionIterator(
+            @Nonnull final String theBaseUrl,
+            @Nonnull final String theStatementHandle,
+            @Nonnull final Iterator<T> theFirstPartition,
+            @Nonnull final SnowflakePartitionIterator.PartitionDecoder<T> theDecoder,
+            final int thePartitionCount) {
+        return new SnowflakePartitionIterator<>(endpoint.getClient(), OBJECT_MAPPER, partitionExecutor,
+                theBaseUrl + "/statements/" + theStatementHandle, theFirstPartition, theDecoder, thePartitionCount,
+                endpoint.getPartitionConcurrency());
     }
 
     /**
@@ -121,6 +693,12 @@ public class SnowflakeProducer extends DefaultProducer {
                     queryParameters.append("&async=true");
                 }
                 break;
+            case SubmitAndFetch:
+                // The statement is never submitted asynchronously, a running statement is polled instead.
+                if (headers.containsKey(SNOWFLAKE_RETRY)) {
+                    queryParameters.append("&retry=").append(headers.get(SNOWFLAKE_RETRY));
+                }
+                break;
             case CheckStatementStatus:
                 // Add optional parameters for check statement status.
                 if (headers.containsKey(SNOWFLAKE_PARTITION)) {
@@ -0,0 +1,206 @@
+package nl.axians.camel.snowflake;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.ResultSet;
+import nl.axians.camel.snowflake.model.ResultSetMetaData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a Snowflake {@code jsonv2} response from an {@link InputStream} using a streaming {@link JsonParser}. The
+ * fields before the {@code data} array are read when the reader is created, so the {@link ResultSetMetaData} is
+ * available before the first row is read. The rows of the {@code data} array are then read one at a time, which means
+ * the memory used is bounded by a single row instead of the full response. The reader closes the stream when all rows
+ * have been read or when the reader is closed.
+ */
+public class SnowflakeResultSetReader implements Iterator<List<Object>>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final ObjectNode header;
+    private ResultSet resultSet;
+    private boolean hasData;
+    private boolean inData;
+    private List<Object> nextRow;
+
+    /**
+     * Constructor. Reads the fields of the response up to the {@code data} array.
+     *
+     * @param theInputStream  The stream containing the response of the Snowflake API.
+     * @param theObjectMapper The object mapper to use for reading the non-row fields.
+     * @throws IOException If the response could not be read.
+     */
+    public SnowflakeResultSetReader(
+            @Nonnull final InputStream theInputStream,
+            @Nonnull final ObjectMapper theObjectMapper) throws IOException {
+        objectMapper = theObjectMapper;
+        parser = objectMapper.getFactory().createParser(theInputStream);
+        header = objectMapper.createObjectNode();
+
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SnowflakeException("Unexpected Snowflake response: expected a JSON object");
+            }
+
+            readFields();
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether the response contains a {@code data} array.
+     *
+     * @return Whether the response contains a {@code data} array.
+     */
+    public boolean hasData() {
+        return hasData;
+    }
+
+    /**
+     * Get the fields of the response other than the rows. Fields that come after the {@code data} array in the
+     * response, like {@code stats}, are only available after all rows have been read.
+     *
+     * @return The result set without the rows.
+     */
+    public ResultSet getResultSet() {
+        if (resultSet == null) {
+            resultSet = objectMapper.convertValue(header, ResultSet.class);
+        }
+
+        return resultSet;
+    }
+
+    /**
+     * Get the metadata of the result set.
+     *
+     * @return The metadata of the result set or {@code null} if the response does not contain one.
+     */
+    public ResultSetMetaData getResultSetMetaData() {
+        return getResultSet().getResultSetMetaData();
+    }
+
+    /**
+     * Get the fields of the response other than the rows as JSON.
+     *
+     * @return The fields of the response other than the rows as JSON.
+     */
+    public String getHeaderAsJson() {
+        return header.toString();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow != null) {
+            return true;
+        }
+
+        if (!inData) {
+            return false;
+        }
+
+        try {
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                nextRow = readRow();
+                return true;
+            }
+
+            if (token != JsonToken.END_ARRAY) {
+                throw new SnowflakeException("Unexpected Snowflake response: expected a row but got " + token);
+            }
+
+            // All rows have been read, read the trailing fields and release the stream.
+            inData = false;
+            readFields();
+            close();
+            return false;
+        } catch (IOException e) {
+            close();
+            throw new SnowflakeException("Failed to read Snowflake response", e);
+        }
+    }
+
+    @Override
+    public List<Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final List<Object> row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        inData = false;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Nothing we can do about it, the stream is not used anymore.
+        }
+    }
+
+    /**
+     * Reads the fields of the response object until the start of the {@code data} array or the end of the object.
+     *
+     * @throws IOException If the response could not be read.
+     */
+    private void readFields() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            parser.nextToken();
+
+            if ("data".equals(name) && parser.currentToken() == JsonToken.START_ARRAY) {
+                hasData = true;
+                inData = true;
+                resultSet = null;
+                return;
+            }
+
+            header.set(name, objectMapper.readTree(parser));
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            throw new SnowflakeException("Unexpected Snowflake response: expected a field but got " + token);
+        }
+
+        resultSet = null;
+    }
+
+    /**
+     * Reads a single row. The parser must be positioned at the start of the row.
+     *
+     * @return The values of the row.
+     * @throws IOException If the row could not be read.
+     */
+    private List<Object> readRow() throws IOException {
+        final List<Object> row = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            switch (token) {
+                case VALUE_STRING -> row.add(parser.getText());
+                case VALUE_NULL -> row.add(null);
+                case VALUE_TRUE, VALUE_FALSE -> row.add(parser.getBooleanValue());
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> row.add(parser.getNumberValue());
+                default -> row.add(objectMapper.readValue(parser, Object.class));
+            }
+        }
+
+        return row;
+    }
+
+}
@@ -0,0 +1,325 @@
+package nl.axians.camel.snowflake;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Polls the status of asynchronously submitted statements and passes the result to the {@link SnowflakeConsumer}
+ * instances that use the same {@link SnowflakeClient}, or to a callback given when the polling started. The statements
+ * are kept on a hashed timing wheel that is advanced by a single scheduled task, and the status requests are sent
+ * asynchronously, so thousands of outstanding statements do not need a thread each. As long as Snowflake responds
+ * with 202, the delay until the next poll of a statement is doubled up to a maximum.
+ */
+@Slf4j
+public class SnowflakeStatementPoller {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final ScheduledExecutorService scheduler;
+    private final long tickMillis;
+    private final List<PendingStatement>[] wheel;
+    private final Queue<PendingStatement> added = new ConcurrentLinkedQueue<>();
+    private final Map<SnowflakeClient, List<SnowflakeConsumer>> consumers = new ConcurrentHashMap<>();
+    private final AtomicInteger nextConsumer = new AtomicInteger();
+    private ScheduledFuture<?> ticker;
+    private boolean stopped;
+    private long tick;
+
+    /**
+     * Constructor.
+     *
+     * @param theScheduler  The scheduler to advance the timing wheel on.
+     * @param theTickMillis The resolution of the timing wheel in milliseconds.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SnowflakeStatementPoller(
+            @Nonnull final ScheduledExecutorService theScheduler,
+            final long theTickMillis) {
+        scheduler = theScheduler;
+        tickMillis = Math.max(1, theTickMillis);
+        wheel = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Starts advancing the timing wheel.
+     */
+    public synchronized void start() {
+        stopped = false;
+        if (ticker == null) {
+            ticker = scheduler.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops advancing the timing wheel. Statements that are still being polled are dropped and their callbacks are
+     * completed with a {@link SnowflakeException}, so no exchange waits forever for a statement that is no longer
+     * polled. The same happens to statements that are added, or that are still running when a status check returns,
+     * after the poller has stopped.
+     */
+    public void stop() {
+        final List<PendingStatement> dropped = new ArrayList<>();
+        synchronized (this) {
+            stopped = true;
+            if (ticker != null) {
+                ticker.cancel(false);
+                ticker = null;
+            }
+
+            PendingStatement statement;
+            while ((statement = added.poll()) != null) {
+                dropped.add(statement);
+            }
+
+            for (List<PendingStatement> bucket : wheel) {
+                dropped.addAll(bucket);
+                bucket.clear();
+            }
+        }
+
+        dropped.forEach(this::drop);
+    }
+
+    /**
+     * Adds a consumer that receives the results of the statements submitted with the given client.
+     *
+     * @param theClient   The client.
+     * @param theConsumer The consumer.
+     */
+    public void addConsumer(@Nonnull final SnowflakeClient theClient, @Nonnull final SnowflakeConsumer theConsumer) {
+        consumers.computeIfAbsent(theClient, client -> new CopyOnWriteArrayList<>()).add(theConsumer);
+    }
+
+    /**
+     * Removes a consumer.
+     *
+     * @param theClient   The client.
+     * @param theConsumer The consumer.
+     */
+    public void removeConsumer(@Nonnull final SnowflakeClient theClient, @Nonnull final SnowflakeConsumer theConsumer) {
+        consumers.computeIfPresent(theClient, (client, list) -> {
+            list.remove(theConsumer);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Check whether there is a consumer for the statements submitted with the given client.
+     *
+     * @param theClient The client.
+     * @return Whether there is a consumer.
+     */
+    public boolean hasConsumer(@Nonnull final SnowflakeClient theClient) {
+        return consumers.containsKey(theClient);
+    }
+
+    /**
+     * Starts polling the status of a statement. The result is passed to one of the consumers of the client.
+     *
+     * @param theClient          The client to poll with.
+     * @param theStatementUrl    The URL of the statement, e.g. {@code <baseUrl>/statements/<statementHandle>}.
+     * @param theStatementHandle The handle of the statement.
+     * @param theInitialDelay    The delay in milliseconds until the first poll.
+     * @param theMaxDelay        The maximum delay in milliseconds between two polls.
+     */
+    public void poll(
+            @Nonnull final SnowflakeClient theClient,
+            @Nonnull final String theStatementUrl,
+            @Nonnull final String theStatementHandle,
+            final long theInitialDelay,
+            final long theMaxDelay) {
+        poll(theClient, theStatementUrl, theStatementHandle, theInitialDelay, theMaxDelay,
+                (response, error) -> deliver(theClient, theStatementHandle, response, error));
+    }
+
+    /**
+     * Starts polling the status of a statement. The result is passed to the given callback.
+     *
+     * @param theClient          The client to poll with.
+     * @param theStatementUrl    The URL of the statement, e.g. {@code <baseUrl>/statements/<statementHandle>}.
+     * @param theStatementHandle The handle of the statement.
+     * @param theInitialDelay    The delay in milliseconds until the first poll.
+     * @param theMaxDelay        The maximum delay in milliseconds between two polls.
+     * @param theCallback        The callback that receives the response or the error when the statement has completed
+     *                           or failed.
+     */
+    public void poll(
+            @Nonnull final SnowflakeClient theClient,
+            @Nonnull final String theStatementUrl,
+            @Nonnull final String theStatementHandle,
+            final long theInitialDelay,
+            final long theMaxDelay,
+            @Nonnull final BiConsumer<HttpResponse<String>, Throwable> theCallback) {
+        log.debug("Polling status of statement {}", theStatementHandle);
+        enqueue(new PendingStatement(theClient, URI.create(theStatementUrl), theStatementHandle, theInitialDelay,
+                theMaxDelay, theCallback));
+    }
+
+    /**
+     * Adds a statement to the statements that are scheduled on the next tick. If the poller has stopped, the statement
+     * is dropped instead, because no tick will schedule it anymore.
+     *
+     * @param theStatement The statement.
+     */
+    private void enqueue(@Nonnull final PendingStatement theStatement) {
+        synchronized (this) {
+            if (!stopped) {
+                added.add(theStatement);
+                return;
+            }
+        }
+
+        drop(theStatement);
+    }
+
+    /**
+     * Completes the callback of a statement that is no longer polled with a {@link SnowflakeException}.
+     *
+     * @param theStatement The statement.
+     */
+    private void drop(@Nonnull final PendingStatement theStatement) {
+        try {
+            theStatement.callback.accept(null, new SnowflakeException(
+                    "Stopped polling the status of statement " + theStatement.statementHandle));
+        } catch (RuntimeException e) {
+            log.warn("Failed to complete statement {}", theStatement.statementHandle, e);
+        }
+    }
+
+    /**
+     * Advances the timing wheel by one tick and polls the statements that are due.
+     */
+    private synchronized void advance() {
+        try {
+            tick++;
+            final Iterator<PendingStatement> iterator = wheel[(int) (tick % WHEEL_SIZE)].iterator();
+            while (iterator.hasNext()) {
+                final PendingStatement pending = iterator.next();
+                if (pending.rounds > 0) {
+                    pending.rounds--;
+                } else {
+                    iterator.remove();
+                    check(pending);
+                }
+            }
+
+            // Statements added since the previous tick are scheduled relative to the current tick.
+            PendingStatement statement;
+            while ((statement = added.poll()) != null) {
+                schedule(statement);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll Snowflake statements", e);
+        }
+    }
+
+    /**
+     * Puts a statement on the timing wheel based on its current delay.
+     *
+     * @param theStatement The statement.
+     */
+    private void schedule(@Nonnull final PendingStatement theStatement) {
+        final long ticks = Math.max(1, theStatement.delay / tickMillis);
+        theStatement.rounds = (ticks - 1) / WHEEL_SIZE;
+        wheel[(int) ((tick + ticks) % WHEEL_SIZE)].add(theStatement);
+    }
+
+    /**
+     * Sends a status request for a statement. If the statement is still running, it is put back on the timing wheel
+     * with a doubled delay, otherwise its result is passed to a consumer.
+     *
+     * @param theStatement The statement.
+     */
+    private void check(@Nonnull final PendingStatement theStatement) {
+        final HttpRequest request = HttpRequest.newBuilder(theStatement.url)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        theStatement.client.sendRequestAsync(request).whenComplete((response, error) -> {
+            if (error == null && response.statusCode() == 202) {
+                theStatement.delay = Math.min(theStatement.delay * 2, theStatement.maxDelay);
+                enqueue(theStatement);
+                return;
+            }
+
+            theStatement.callback.accept(response,
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        });
+    }
+
+    /**
+     * Passes the result of a statement to one of the consumers of its client.
+     *
+     * @param theClient          The client of the statement.
+     * @param theStatementHandle The handle of the statement.
+     * @param theResponse        The response or {@code null} if the statement failed.
+     * @param theError           The error or {@code null} if the statement completed.
+     */
+    private void deliver(
+            @Nonnull final SnowflakeClient theClient,
+            @Nonnull final String theStatementHandle,
+            final HttpResponse<String> theResponse,
+            final Throwable theError) {
+        final List<SnowflakeConsumer> list = consumers.get(theClient);
+        if (list == null || list.isEmpty()) {
+            log.warn("No consumer for the result of statement {}", theStatementHandle);
+            return;
+        }
+
+        final SnowflakeConsumer consumer = list.get(Math.floorMod(nextConsumer.getAndIncrement(), list.size()));
+        consumer.onStatementCompleted(theStatementHandle, theResponse, theError);
+    }
+
+    /**
+     * A statement that is being polled.
+     */
+    private static final class PendingStatement {
+
+        private final SnowflakeClient client;
+        private final URI url;
+        private final String statementHandle;
+        private final BiConsumer<HttpResponse<String>, Throwable> callback;
+        private final long maxDelay;
+        private long delay;
+        private long rounds;
+
+        private PendingStatement(
+                @Nonnull final SnowflakeClient theClient,
+                @Nonnull final URI theUrl,
+                @Nonnull final String theStatementHandle,
+                final long theInitialDelay,
+                final long theMaxDelay,
+                @Nonnull final BiConsumer<HttpResponse<String>, Throwable> theCallback) {
+            client = theClient;
+            url = theUrl;
+            statementHandle = theStatementHandle;
+            callback = theCallback;
+            delay = theInitialDelay;
+            maxDelay = Math.max(theInitialDelay, theMaxDelay);
+        }
+
+    }
+
+}
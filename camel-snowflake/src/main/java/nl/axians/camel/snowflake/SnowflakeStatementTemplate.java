@@ -0,0 +1,273 @@
+package nl.axians.camel.snowflake;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.Statement;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A parameterized Snowflake statement with {@code ?} placeholders. The request body without the bindings is
+ * serialized once when the template is created and the binding types are inferred from the first set of values, so
+ * only the binding values have to be encoded for every exchange.
+ */
+public class SnowflakeStatementTemplate {
+
+    private final String prefix;
+    private final String[] types;
+
+    /**
+     * Constructor.
+     *
+     * @param theObjectMapper The object mapper to serialize the statement with.
+     * @param theStatement    The statement without bindings.
+     * @param theValues       The first set of binding values, used to infer the binding types.
+     * @throws IOException If the statement could not be serialized.
+     */
+    public SnowflakeStatementTemplate(
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final Statement theStatement,
+            @Nonnull final List<?> theValues) throws IOException {
+        final String json = theObjectMapper.writeValueAsString(theStatement);
+        prefix = json.substring(0, json.lastIndexOf('}')) + ",\"bindings\":{";
+
+        types = new String[theValues.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = inferType(theValues.get(i));
+        }
+    }
+
+    /**
+     * Get the number of bind variables of the template.
+     *
+     * @return The number of bind variables.
+     */
+    public int getBindingCount() {
+        return types.length;
+    }
+
+    /**
+     * Creates the request body for the given binding values.
+     *
+     * @param theObjectMapper The object mapper to serialize the values with.
+     * @param theValues       The binding values, in the order of the placeholders.
+     * @return The request body.
+     * @throws IOException If the values could not be serialized.
+     */
+    public String createRequestBody(
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final List<?> theValues) throws IOException {
+        if (theValues.size() != types.length) {
+            throw new SnowflakeException("Expected " + types.length + " bindings but got " + theValues.size());
+        }
+
+        final StringWriter writer = new StringWriter(prefix.length() + 32 * types.length);
+        writer.write(prefix);
+        try (JsonGenerator generator = theObjectMapper.getFactory().createGenerator(writer)) {
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < types.length; i++) {
+                final Object value = theValues.get(i);
+                if (i > 0) {
+                    generator.writeRaw(',');
+                }
+
+                // Types inferred from a null value are inferred again once a value is available.
+                final String type = types[i] != null ? types[i] : inferType(value);
+                generator.writeRaw('"');
+                generator.writeRaw(Integer.toString(i + 1));
+                generator.writeRaw("\":{\"type\":\"");
+                generator.writeRaw(type != null ? type : "TEXT");
+                generator.writeRaw("\",\"value\":");
+                if (value == null) {
+                    generator.writeRaw("null");
+                } else {
+                    generator.writeString(toBindingValue(value));
+                }
+                generator.writeRaw('}');
+            }
+
+            generator.writeRaw("}}");
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Creates the request body for inserting multiple rows with a single request using array bindings. Every binding
+     * is sent as an array with the values of all rows.
+     *
+     * @param theObjectMapper The object mapper to serialize the values with.
+     * @param theRows         The binding values of every row, in the order of the placeholders.
+     * @return The request body.
+     * @throws IOException If the values could not be serialized.
+     */
+    public String createBatchRequestBody(
+            @Nonnull final ObjectMapper theObjectMapper,
+            @Nonnull final List<? extends List<?>> theRows) throws IOException {
+        for (List<?> row : theRows) {
+            if (row.size() != types.length) {
+                throw new SnowflakeException("Expected " + types.length + " bindings but got " + row.size());
+            }
+        }
+
+        final StringWriter writer = new StringWriter(prefix.length() + 16 * types.length * theRows.size());
+        writer.write(prefix);
+        try (JsonGenerator generator = theObjectMapper.getFactory().createGenerator(writer)) {
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < types.length; i++) {
+                if (i > 0) {
+                    generator.writeRaw(',');
+                }
+
+                String type = types[i];
+                for (int row = 0; type == null && row < theRows.size(); row++) {
+                    type = inferType(theRows.get(row).get(i));
+                }
+
+                generator.writeRaw('"');
+                generator.writeRaw(Integer.toString(i + 1));
+                generator.writeRaw("\":{\"type\":\"");
+                generator.writeRaw(type != null ? type : "TEXT");
+                generator.writeRaw("\",\"value\":");
+                generator.writeStartArray();
+                for (List<?> row : theRows) {
+                    final Object value = row.get(i);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeString(toBindingValue(value));
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeRaw('}');
+            }
+
+            generator.writeRaw("}}");
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Estimates the number of bytes the given binding values add to a request.
+     *
+     * @param theValues The binding values.
+     * @return The estimated number of bytes.
+     */
+    public static long estimateSize(@Nonnull final List<?> theValues) {
+        long size = 0;
+        for (Object value : theValues) {
+            size += value == null ? 5 : toBindingValue(value).length() + 3;
+        }
+
+        return size;
+    }
+
+    /**
+     * Converts the bindings of an exchange into a list of values in the order of the placeholders. The bindings are
+     * either a {@link Collection} of values or a {@link Map} of 1-based positions to values.
+     *
+     * @param theBindings The bindings.
+     * @return The binding values.
+     */
+    public static List<Object> toValues(@Nonnull final Object theBindings) {
+        if (theBindings instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+
+        if (theBindings instanceof Object[] array) {
+            return new ArrayList<>(Arrays.asList(array));
+        }
+
+        if (theBindings instanceof Map<?, ?> map) {
+            final TreeMap<Integer, Object> sorted = new TreeMap<>();
+            map.forEach((key, value) -> {
+                try {
+                    sorted.put(Integer.valueOf(key.toString()), value);
+                } catch (NumberFormatException e) {
+                    throw new SnowflakeException("Invalid binding position: " + key);
+                }
+            });
+
+            final List<Object> values = new ArrayList<>(sorted.size());
+            for (Map.Entry<Integer, Object> entry : sorted.entrySet()) {
+                if (entry.getKey() != values.size() + 1) {
+                    throw new SnowflakeException("Missing binding at position " + (values.size() + 1));
+                }
+                values.add(entry.getValue());
+            }
+            return values;
+        }
+
+        throw new SnowflakeException("Unsupported bindings type: " + theBindings.getClass().getName());
+    }
+
+    /**
+     * Infers the Snowflake binding type of value.
+     *
+     * @param theValue The value.
+     * @return The Snowflake binding type or {@code null} if the value is {@code null}.
+     */
+    static String inferType(final Object theValue) {
+        if (theValue == null) {
+            return null;
+        } else if (theValue instanceof Integer || theValue instanceof Long || theValue instanceof Short
+                || theValue instanceof Byte || theValue instanceof BigInteger || theValue instanceof BigDecimal) {
+            return "FIXED";
+        } else if (theValue instanceof Double || theValue instanceof Float) {
+            return "REAL";
+        } else if (theValue instanceof Boolean) {
+            return "BOOLEAN";
+        } else if (theValue instanceof LocalDate) {
+            return "DATE";
+        } else if (theValue instanceof LocalTime) {
+            return "TIME";
+        } else if (theValue instanceof LocalDateTime) {
+            return "TIMESTAMP_NTZ";
+        } else if (theValue instanceof Instant) {
+            return "TIMESTAMP_LTZ";
+        } else if (theValue instanceof OffsetDateTime || theValue instanceof ZonedDateTime) {
+            return "TIMESTAMP_TZ";
+        } else if (theValue instanceof byte[]) {
+            return "BINARY";
+        }
+
+        return "TEXT";
+    }
+
+    /**
+     * Converts a value to the string representation expected by Snowflake.
+     *
+     * @param theValue The value.
+     * @return The string representation.
+     */
+    static String toBindingValue(@Nonnull final Object theValue) {
+        if (theValue instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        } else if (theValue instanceof byte[] bytes) {
+            return HexFormat.of().formatHex(bytes);
+        } else if (theValue instanceof ZonedDateTime dateTime) {
+            return dateTime.toOffsetDateTime().toString();
+        }
+
+        return theValue.toString();
+    }
+
+}
@@ -0,0 +1,49 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.util.BitSet;
+
+/**
+ * A column of {@code boolean} values stored in a {@link BitSet}.
+ */
+public class BooleanColumn extends Column {
+
+    private final BitSet values = new BitSet();
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    BooleanColumn(@Nonnull final RowType theRowType) {
+        super(theRowType);
+    }
+
+    /**
+     * Get the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The value, {@code false} if the value is {@code null}.
+     */
+    public boolean getBoolean(final int theRow) {
+        return values.get(theRow);
+    }
+
+    @Override
+    public Object getObject(final int theRow) {
+        return isNull(theRow) ? null : values.get(theRow);
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        // The bit set grows automatically.
+    }
+
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        values.set(theRow, "true".equalsIgnoreCase(theValue) || "1".equals(theValue));
+    }
+
+}
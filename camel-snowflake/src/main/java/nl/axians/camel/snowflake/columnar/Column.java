@@ -0,0 +1,152 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * A single column of a {@link ColumnarBatch}. The values are stored in a type-specialized array and the null values
+ * are tracked in a {@link BitSet}, so reading a value does not require a boxed object.
+ */
+public abstract class Column {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The maximum precision of a {@code fixed} column whose values always fit in a {@code long}.
+     */
+    static final int MAX_LONG_PRECISION = 18;
+
+    private final RowType rowType;
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    protected Column(@Nonnull final RowType theRowType) {
+        rowType = theRowType;
+    }
+
+    /**
+     * Creates a column for the given Snowflake column type.
+     * <ul>
+     *     <li>{@code fixed} columns with a precision of at most 18 digits and {@code date} columns are decoded into a
+     *     {@link LongColumn}.</li>
+     *     <li>{@code fixed} columns with a larger precision are decoded into a {@link DecimalColumn}.</li>
+     *     <li>{@code real} columns are decoded into a {@link DoubleColumn}.</li>
+     *     <li>{@code boolean} columns are decoded into a {@link BooleanColumn}.</li>
+     *     <li>{@code time} and {@code timestamp_*} columns are decoded into a {@link TimestampColumn}.</li>
+     *     <li>All other columns are decoded into a dictionary encoded {@link StringColumn}.</li>
+     * </ul>
+     *
+     * @param theRowType The type of the column.
+     * @return The column.
+     */
+    public static Column forType(@Nonnull final RowType theRowType) {
+        final String type = theRowType.getType() != null ? theRowType.getType().toLowerCase(Locale.ROOT) : "";
+        return switch (type) {
+            case "fixed" -> theRowType.getPrecision() > 0 && theRowType.getPrecision() <= MAX_LONG_PRECISION
+                    ? new LongColumn(theRowType, (int) theRowType.getScale())
+                    : new DecimalColumn(theRowType);
+            case "date" -> new LongColumn(theRowType, 0);
+            case "real" -> new DoubleColumn(theRowType);
+            case "boolean" -> new BooleanColumn(theRowType);
+            case "time", "timestamp_ntz", "timestamp_ltz", "timestamp_tz" -> new TimestampColumn(theRowType);
+            default -> new StringColumn(theRowType);
+        };
+    }
+
+    /**
+     * Get the name of the column.
+     *
+     * @return The name of the column.
+     */
+    public String getName() {
+        return rowType.getName();
+    }
+
+    /**
+     * Get the Snowflake type of the column.
+     *
+     * @return The Snowflake type of the column.
+     */
+    public RowType getRowType() {
+        return rowType;
+    }
+
+    /**
+     * Get the number of values in the column.
+     *
+     * @return The number of values in the column.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the value at the given row is {@code null}.
+     *
+     * @param theRow The row.
+     * @return Whether the value is {@code null}.
+     */
+    public boolean isNull(final int theRow) {
+        return nulls.get(theRow);
+    }
+
+    /**
+     * Get the value at the given row as a boxed object. This is a convenience method, use the type-specific accessors
+     * of the subclasses to avoid allocating objects.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    public abstract Object getObject(int theRow);
+
+    /**
+     * Appends a value as sent by Snowflake to the column.
+     *
+     * @param theValue The value or {@code null}.
+     */
+    void append(final String theValue) {
+        ensureCapacity(size + 1);
+        if (theValue == null) {
+            nulls.set(size);
+        } else {
+            set(size, theValue);
+        }
+
+        size++;
+    }
+
+    /**
+     * Makes sure the column can hold the given number of values.
+     *
+     * @param theCapacity The number of values.
+     */
+    protected abstract void ensureCapacity(int theCapacity);
+
+    /**
+     * Decodes a value as sent by Snowflake and stores it at the given row.
+     *
+     * @param theRow   The row.
+     * @param theValue The value, never {@code null}.
+     */
+    protected abstract void set(int theRow, @Nonnull String theValue);
+
+    /**
+     * Calculates the new capacity of an array that has to hold at least the given number of values.
+     *
+     * @param theCurrent  The current capacity.
+     * @param theRequired The required capacity.
+     * @return The new capacity.
+     */
+    static int grow(final int theCurrent, final int theRequired) {
+        return Math.max(theRequired, theCurrent + (theCurrent >> 1));
+    }
+
+}
@@ -0,0 +1,114 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.SnowflakeException;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The rows of a Snowflake result set partition in a columnar representation. Each column is decoded into a
+ * type-specialized {@link Column} based on the {@link RowType} metadata of the result set, so numbers, dates and
+ * timestamps are stored in primitive arrays instead of as boxed strings.
+ */
+public class ColumnarBatch {
+
+    private final List<Column> columns;
+    private int rowCount;
+
+    /**
+     * Constructor.
+     *
+     * @param theRowTypes The types of the columns.
+     */
+    public ColumnarBatch(@Nonnull final List<RowType> theRowTypes) {
+        final List<Column> list = new ArrayList<>(theRowTypes.size());
+        for (RowType rowType : theRowTypes) {
+            list.add(Column.forType(rowType));
+        }
+
+        columns = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Decodes the given rows into a columnar batch.
+     *
+     * @param theRowTypes The types of the columns.
+     * @param theRows     The rows as sent by Snowflake.
+     * @return The columnar batch.
+     */
+    public static ColumnarBatch read(
+            @Nonnull final List<RowType> theRowTypes,
+            @Nonnull final Iterator<List<Object>> theRows) {
+        final ColumnarBatch batch = new ColumnarBatch(theRowTypes);
+        theRows.forEachRemaining(batch::add);
+        return batch;
+    }
+
+    /**
+     * Adds a row as sent by Snowflake to the batch.
+     *
+     * @param theRow The values of the row.
+     */
+    public void add(@Nonnull final List<Object> theRow) {
+        if (theRow.size() != columns.size()) {
+            throw new SnowflakeException("Expected " + columns.size() + " values in row " + rowCount + " but got " + theRow.size());
+        }
+
+        for (int i = 0; i < columns.size(); i++) {
+            final Object value = theRow.get(i);
+            columns.get(i).append(value != null ? value.toString() : null);
+        }
+
+        rowCount++;
+    }
+
+    /**
+     * Get the number of rows in the batch.
+     *
+     * @return The number of rows in the batch.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the columns of the batch.
+     *
+     * @return The columns of the batch.
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the column at the given index.
+     *
+     * @param theIndex The index of the column.
+     * @return The column.
+     */
+    public Column getColumn(final int theIndex) {
+        return columns.get(theIndex);
+    }
+
+    /**
+     * Get the column with the given name.
+     *
+     * @param theName The name of the column.
+     * @return The column.
+     * @throws SnowflakeException If the batch does not contain a column with the given name.
+     */
+    public Column getColumn(@Nonnull final String theName) {
+        for (Column column : columns) {
+            if (theName.equalsIgnoreCase(column.getName())) {
+                return column;
+            }
+        }
+
+        throw new SnowflakeException("Unknown column: " + theName);
+    }
+
+}
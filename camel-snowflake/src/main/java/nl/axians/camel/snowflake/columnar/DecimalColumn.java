@@ -0,0 +1,67 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.SnowflakeException;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A column of {@code fixed} values with a precision of more than 18 digits, which do not always fit in a
+ * {@code long}. The values are stored as {@link BigDecimal}s.
+ */
+public class DecimalColumn extends Column {
+
+    private BigDecimal[] values = new BigDecimal[INITIAL_CAPACITY];
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    DecimalColumn(@Nonnull final RowType theRowType) {
+        super(theRowType);
+    }
+
+    /**
+     * Get the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    public BigDecimal getBigDecimal(final int theRow) {
+        return values[theRow];
+    }
+
+    /**
+     * Get the values of the column. The array may be larger than the number of values in the column.
+     *
+     * @return The values of the column.
+     */
+    public BigDecimal[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object getObject(final int theRow) {
+        return values[theRow];
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        if (values.length < theCapacity) {
+            values = Arrays.copyOf(values, grow(values.length, theCapacity));
+        }
+    }
+
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        try {
+            values[theRow] = new BigDecimal(theValue);
+        } catch (NumberFormatException e) {
+            throw new SnowflakeException("Invalid value '" + theValue + "' for column " + getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.util.Arrays;
+
+/**
+ * A column of {@code real} values stored in a {@code double[]}.
+ */
+public class DoubleColumn extends Column {
+
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    DoubleColumn(@Nonnull final RowType theRowType) {
+        super(theRowType);
+    }
+
+    /**
+     * Get the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The value, {@code 0} if the value is {@code null}.
+     */
+    public double getDouble(final int theRow) {
+        return values[theRow];
+    }
+
+    /**
+     * Get the values of the column. The array may be larger than the number of values in the column.
+     *
+     * @return The values of the column.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object getObject(final int theRow) {
+        return isNull(theRow) ? null : values[theRow];
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        if (values.length < theCapacity) {
+            values = Arrays.copyOf(values, grow(values.length, theCapacity));
+        }
+    }
+
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        values[theRow] = switch (theValue) {
+            case "inf", "Infinity" -> Double.POSITIVE_INFINITY;
+            case "-inf", "-Infinity" -> Double.NEGATIVE_INFINITY;
+            case "nan", "NaN" -> Double.NaN;
+            default -> Double.parseDouble(theValue);
+        };
+    }
+
+}
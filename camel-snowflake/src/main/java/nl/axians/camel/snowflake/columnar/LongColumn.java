@@ -0,0 +1,146 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.SnowflakeException;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A column of {@code fixed} or {@code date} values stored in a {@code long[]}. Numbers with a scale are stored
+ * unscaled, e.g. {@code 12.34} with scale 2 is stored as {@code 1234}. Dates are stored as the number of days since
+ * the epoch.
+ */
+public class LongColumn extends Column {
+
+    private final int scale;
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     * @param theScale   The number of digits after the decimal point.
+     */
+    LongColumn(@Nonnull final RowType theRowType, final int theScale) {
+        super(theRowType);
+        scale = theScale;
+    }
+
+    /**
+     * Get the number of digits after the decimal point.
+     *
+     * @return The number of digits after the decimal point.
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Get the unscaled value at the given row.
+     *
+     * @param theRow The row.
+     * @return The unscaled value, {@code 0} if the value is {@code null}.
+     */
+    public long getLong(final int theRow) {
+        return values[theRow];
+    }
+
+    /**
+     * Get the value at the given row as a double.
+     *
+     * @param theRow The row.
+     * @return The value, {@code 0} if the value is {@code null}.
+     */
+    public double getDouble(final int theRow) {
+        return scale == 0 ? values[theRow] : values[theRow] / Math.pow(10, scale);
+    }
+
+    /**
+     * Get the value at the given row as a {@link BigDecimal}.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    public BigDecimal getBigDecimal(final int theRow) {
+        return isNull(theRow) ? null : BigDecimal.valueOf(values[theRow], scale);
+    }
+
+    /**
+     * Get the values of the column. The array may be larger than the number of values in the column.
+     *
+     * @return The values of the column.
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object getObject(final int theRow) {
+        if (isNull(theRow)) {
+            return null;
+        }
+
+        return scale == 0 ? (Object) values[theRow] : getBigDecimal(theRow);
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        if (values.length < theCapacity) {
+            values = Arrays.copyOf(values, grow(values.length, theCapacity));
+        }
+    }
+
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        values[theRow] = parseUnscaled(theValue);
+    }
+
+    /**
+     * Parses a decimal number into its unscaled value without allocating a {@link BigDecimal}.
+     *
+     * @param theValue The decimal number.
+     * @return The unscaled value.
+     */
+    private long parseUnscaled(@Nonnull final String theValue) {
+        final int length = theValue.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (theValue.charAt(0) == '-' || theValue.charAt(0) == '+')) {
+            negative = theValue.charAt(0) == '-';
+            i++;
+        }
+
+        long result = 0;
+        int fractionDigits = -1;
+        try {
+            for (; i < length; i++) {
+                final char c = theValue.charAt(i);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                    continue;
+                }
+
+                if (c < '0' || c > '9') {
+                    throw new SnowflakeException("Invalid value '" + theValue + "' for column " + getName());
+                }
+
+                if (fractionDigits >= 0 && ++fractionDigits > scale) {
+                    throw new SnowflakeException("Value '" + theValue + "' of column " + getName() + " exceeds scale " + scale);
+                }
+
+                result = Math.addExact(Math.multiplyExact(result, 10), c - '0');
+            }
+
+            for (int j = Math.max(fractionDigits, 0); j < scale; j++) {
+                result = Math.multiplyExact(result, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw new SnowflakeException("Value '" + theValue + "' of column " + getName() + " does not fit in a long", e);
+        }
+
+        return negative ? -result : result;
+    }
+
+}
@@ -0,0 +1,84 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary encoded column of text values. Every distinct value is stored once in the dictionary and the rows
+ * refer to it by index, so low-cardinality columns like status codes or country names use very little memory.
+ */
+public class StringColumn extends Column {
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> lookup = new HashMap<>();
+    private int[] codes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    StringColumn(@Nonnull final RowType theRowType) {
+        super(theRowType);
+    }
+
+    /**
+     * Get the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    public String getString(final int theRow) {
+        return isNull(theRow) ? null : dictionary.get(codes[theRow]);
+    }
+
+    /**
+     * Get the dictionary index of the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The dictionary index, {@code 0} if the value is {@code null}.
+     */
+    public int getCode(final int theRow) {
+        return codes[theRow];
+    }
+
+    /**
+     * Get the distinct values of the column in the order they were first encountered.
+     *
+     * @return The distinct values of the column.
+     */
+    public List<String> getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public Object getObject(final int theRow) {
+        return getString(theRow);
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        if (codes.length < theCapacity) {
+            codes = Arrays.copyOf(codes, grow(codes.length, theCapacity));
+        }
+    }
+
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        Integer code = lookup.get(theValue);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(theValue);
+            lookup.put(theValue, code);
+        }
+
+        codes[theRow] = code;
+    }
+
+}
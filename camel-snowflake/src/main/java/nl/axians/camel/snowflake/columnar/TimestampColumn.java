@@ -0,0 +1,210 @@
+package nl.axians.camel.snowflake.columnar;
+
+import jakarta.annotation.Nonnull;
+import nl.axians.camel.snowflake.SnowflakeException;
+import nl.axians.camel.snowflake.model.RowType;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A column of {@code time} or {@code timestamp_*} values stored in a {@code long[]} of seconds and an {@code int[]} of
+ * nanoseconds within the second. Timestamps are stored as the number of seconds since the epoch, times as the number
+ * of seconds since midnight. Seconds and nanoseconds are stored separately, because the nanoseconds since the epoch
+ * of timestamps after 2262, like the common {@code 9999-12-31} sentinel, do not fit in a {@code long}. For
+ * {@code timestamp_tz} columns the time zone offset in minutes is stored in a separate {@code int[]}.
+ */
+public class TimestampColumn extends Column {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int SNOWFLAKE_OFFSET_BIAS = 1440;
+
+    private final boolean time;
+    private long[] seconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private int[] offsets;
+
+    /**
+     * Constructor.
+     *
+     * @param theRowType The type of the column.
+     */
+    TimestampColumn(@Nonnull final RowType theRowType) {
+        super(theRowType);
+        final String type = theRowType.getType().toLowerCase(Locale.ROOT);
+        time = "time".equals(type);
+        if ("timestamp_tz".equals(type)) {
+            offsets = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Get the value at the given row in nanoseconds since the epoch, or since midnight for {@code time} columns.
+     *
+     * @param theRow The row.
+     * @return The value, {@code 0} if the value is {@code null}.
+     * @throws ArithmeticException If the value is before 1677 or after 2262, use {@link #getSeconds(int)} and
+     *                             {@link #getNano(int)} for those.
+     */
+    public long getNanos(final int theRow) {
+        return Math.addExact(Math.multiplyExact(seconds[theRow], NANOS_PER_SECOND), nanos[theRow]);
+    }
+
+    /**
+     * Get the value at the given row in seconds since the epoch, or since midnight for {@code time} columns.
+     *
+     * @param theRow The row.
+     * @return The value rounded down to the second, {@code 0} if the value is {@code null}.
+     */
+    public long getSeconds(final int theRow) {
+        return seconds[theRow];
+    }
+
+    /**
+     * Get the nanoseconds within the second of the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The nanoseconds from {@code 0} to {@code 999,999,999}, {@code 0} if the value is {@code null}.
+     */
+    public int getNano(final int theRow) {
+        return nanos[theRow];
+    }
+
+    /**
+     * Get the time zone offset in minutes of the value at the given row.
+     *
+     * @param theRow The row.
+     * @return The offset in minutes, {@code 0} if the column is not a {@code timestamp_tz} column.
+     */
+    public int getOffsetMinutes(final int theRow) {
+        return offsets != null ? offsets[theRow] : 0;
+    }
+
+    /**
+     * Get the seconds of the values of the column. The array may be larger than the number of values in the column.
+     *
+     * @return The seconds of the values of the column.
+     */
+    public long[] getSecondValues() {
+        return seconds;
+    }
+
+    /**
+     * Get the nanoseconds within the second of the values of the column. The array may be larger than the number of
+     * values in the column.
+     *
+     * @return The nanoseconds of the values of the column.
+     */
+    public int[] getNanoValues() {
+        return nanos;
+    }
+
+    /**
+     * Get the value at the given row as an {@link Instant}.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    public Instant getInstant(final int theRow) {
+        return isNull(theRow) ? null : Instant.ofEpochSecond(seconds[theRow], nanos[theRow]);
+    }
+
+    /**
+     * Get the value at the given row as a boxed object: a {@link LocalTime} for {@code time} columns, an
+     * {@link OffsetDateTime} for {@code timestamp_tz} columns and an {@link Instant} otherwise.
+     *
+     * @param theRow The row.
+     * @return The value or {@code null}.
+     */
+    @Override
+    public Object getObject(final int theRow) {
+        if (isNull(theRow)) {
+            return null;
+        }
+
+        if (time) {
+            return LocalTime.ofNanoOfDay(getNanos(theRow));
+        }
+
+        if (offsets != null) {
+            return getInstant(theRow).atOffset(ZoneOffset.ofTotalSeconds(offsets[theRow] * 60));
+        }
+
+        return getInstant(theRow);
+    }
+
+    @Override
+    protected void ensureCapacity(final int theCapacity) {
+        if (seconds.length < theCapacity) {
+            seconds = Arrays.copyOf(seconds, grow(seconds.length, theCapacity));
+            nanos = Arrays.copyOf(nanos, seconds.length);
+            if (offsets != null) {
+                offsets = Arrays.copyOf(offsets, seconds.length);
+            }
+        }
+    }
+
+    /**
+     * Decodes a value in the format {@code <seconds>.<fraction>}, followed by {@code " <offset>"} for
+     * {@code timestamp_tz} columns where the offset is the number of minutes plus 1440.
+     *
+     * @param theRow   The row.
+     * @param theValue The value, never {@code null}.
+     */
+    @Override
+    protected void set(final int theRow, @Nonnull final String theValue) {
+        int end = theValue.length();
+        if (offsets != null) {
+            final int space = theValue.indexOf(' ');
+            if (space > 0) {
+                offsets[theRow] = Integer.parseInt(theValue, space + 1, end, 10) - SNOWFLAKE_OFFSET_BIAS;
+                end = space;
+            }
+        }
+
+        int i = 0;
+        final boolean negative = end > 0 && theValue.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+
+        long whole = 0;
+        int fraction = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            final char c = theValue.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c < '0' || c > '9') {
+                throw new SnowflakeException("Invalid value '" + theValue + "' for column " + getName());
+            } else if (fractionDigits < 0) {
+                try {
+                    whole = Math.addExact(Math.multiplyExact(whole, 10), c - '0');
+                } catch (ArithmeticException e) {
+                    throw new SnowflakeException("Value '" + theValue + "' of column " + getName() + " is out of range", e);
+                }
+            } else if (fractionDigits < 9) {
+                fraction = fraction * 10 + (c - '0');
+                fractionDigits++;
+            }
+        }
+
+        for (int j = Math.max(fractionDigits, 0); j < 9; j++) {
+            fraction *= 10;
+        }
+
+        if (negative && fraction > 0) {
+            // Store negative values rounded down to the second with a positive fraction, like Instant does.
+            seconds[theRow] = -whole - 1;
+            nanos[theRow] = (int) (NANOS_PER_SECOND - fraction);
+        } else {
+            seconds[theRow] = negative ? -whole : whole;
+            nanos[theRow] = fraction;
+        }
+    }
+
+}
@@ -1,8 +1,35 @@
 package nl.axians.camel.snowflake.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Represents the value of a bind variable in a statement. The type is one of the Snowflake binding types, e.g.
+ * {@code FIXED}, {@code REAL}, {@code TEXT}, {@code BOOLEAN}, {@code DATE}, {@code TIME}, {@code TIMESTAMP_NTZ},
+ * {@code TIMESTAMP_LTZ}, {@code TIMESTAMP_TZ} or {@code BINARY}.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Binding {
 
     private String type;
     private Object value;
 
+    /**
+     * Default constructor.
+     */
+    public Binding() {
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param theType  The Snowflake binding type.
+     * @param theValue The value.
+     */
+    public Binding(final String theType, final Object theValue) {
+        type = theType;
+        value = theValue;
+    }
+
 }
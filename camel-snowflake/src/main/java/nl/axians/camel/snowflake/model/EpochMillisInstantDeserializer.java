@@ -0,0 +1,50 @@
+package nl.axians.camel.snowflake.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Deserializes an {@link Instant} from the epoch milliseconds the Snowflake SQL API returns, e.g. for the
+ * {@code createdOn} field of a result set. An ISO-8601 string is accepted as well.
+ */
+public class EpochMillisInstantDeserializer extends StdDeserializer<Instant> {
+
+    /**
+     * Constructor.
+     */
+    public EpochMillisInstantDeserializer() {
+        super(Instant.class);
+    }
+
+    /**
+     * Deserializes the instant.
+     *
+     * @param theParser  The parser positioned at the value.
+     * @param theContext The deserialization context.
+     * @return The instant or {@code null} if the value is empty.
+     * @throws IOException If the value is not a number of milliseconds or an ISO-8601 instant.
+     */
+    @Override
+    public Instant deserialize(final JsonParser theParser, final DeserializationContext theContext) throws IOException {
+        if (theParser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return Instant.ofEpochMilli(theParser.getLongValue());
+        }
+
+        final String text = theParser.getValueAsString();
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(text.trim()));
+        } catch (NumberFormatException e) {
+            return Instant.parse(text.trim());
+        }
+    }
+
+}
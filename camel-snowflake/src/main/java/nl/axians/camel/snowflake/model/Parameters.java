@@ -1,12 +1,28 @@
 package nl.axians.camel.snowflake.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+/**
+ * Represents the session parameters of a statement submitted to the Snowflake SQL API.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 public class Parameters {
 
     private String binaryOutputFormat;
     private Integer clientResultChunkSize;
     private String dateOutputFormat;
+    @JsonProperty("MULTI_STATEMENT_COUNT")
     private String multi_statement_count;
     private String queryTag;
+    @JsonProperty("rows_per_resultset")
     private Integer rowsPerResultSet;
     private String timeOutputFormat;
     private String timestampLtzOutputFormat;
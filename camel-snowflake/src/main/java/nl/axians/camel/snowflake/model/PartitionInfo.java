@@ -0,0 +1,17 @@
+package nl.axians.camel.snowflake.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Represents the information of a single partition of a Snowflake result set.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PartitionInfo {
+
+    private long rowCount;
+    private long uncompressedSize;
+    private long compressedSize;
+
+}
@@ -1,8 +1,17 @@
 package nl.axians.camel.snowflake.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+
 import java.time.Instant;
 import java.util.List;
 
+/**
+ * Represents the result set returned by the Snowflake SQL API.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ResultSet {
 
     private String code;
@@ -10,6 +19,7 @@ public class ResultSet {
     private String message;
     private String statementHandle;
     private List<String> statementHandles;
+    @JsonDeserialize(using = EpochMillisInstantDeserializer.class)
     private Instant createdOn;
     private String statementStatusUrl;
     private ResultSetMetaData resultSetMetaData;
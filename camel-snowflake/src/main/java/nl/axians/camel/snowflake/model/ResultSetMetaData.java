@@ -1,12 +1,21 @@
 package nl.axians.camel.snowflake.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
 import java.util.List;
 
+/**
+ * Represents the metadata of a Snowflake result set.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ResultSetMetaData {
 
     private long partition;
     private long numRows;
     private String format;
     private List<RowType> rowType;
+    private List<PartitionInfo> partitionInfo;
 
 }
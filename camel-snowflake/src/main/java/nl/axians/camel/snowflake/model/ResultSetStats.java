@@ -1,5 +1,13 @@
 package nl.axians.camel.snowflake.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Represents the DML statistics of a Snowflake result set.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ResultSetStats {
 
     private long numRowsInserted;
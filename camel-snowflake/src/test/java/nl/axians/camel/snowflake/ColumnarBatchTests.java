@@ -0,0 +1,85 @@
+package nl.axians.camel.snowflake;
+
+import nl.axians.camel.snowflake.columnar.ColumnarBatch;
+import nl.axians.camel.snowflake.columnar.DecimalColumn;
+import nl.axians.camel.snowflake.columnar.LongColumn;
+import nl.axians.camel.snowflake.columnar.TimestampColumn;
+import nl.axians.camel.snowflake.model.RowType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the decoding of values into a {@link ColumnarBatch}.
+ */
+public class ColumnarBatchTests {
+
+    @Test
+    public void ShouldDecodeLargeNumbersIntoDecimalColumn() {
+        // Given
+        final List<RowType> rowTypes = List.of(rowType("ID", "fixed", 38, 0), rowType("AMOUNT", "fixed", 38, 2),
+                rowType("SMALL", "fixed", 18, 0));
+
+        // When
+        final ColumnarBatch batch = ColumnarBatch.read(rowTypes, List.<List<Object>>of(
+                Arrays.<Object>asList("99999999999999999999999999999999999999", "-123456789012345678901234567890.12", "1"),
+                Arrays.<Object>asList(null, "0.50", "999999999999999999")).iterator());
+
+        // Then
+        assertThat(batch.getColumn("ID")).isInstanceOf(DecimalColumn.class);
+        assertThat(((DecimalColumn) batch.getColumn("ID")).getBigDecimal(0))
+                .isEqualTo(new BigDecimal("99999999999999999999999999999999999999"));
+        assertThat(batch.getColumn("ID").isNull(1)).isTrue();
+        assertThat(batch.getColumn("AMOUNT").getObject(0))
+                .isEqualTo(new BigDecimal("-123456789012345678901234567890.12"));
+        assertThat(batch.getColumn("SMALL")).isInstanceOf(LongColumn.class);
+        assertThat(((LongColumn) batch.getColumn("SMALL")).getLong(1)).isEqualTo(999_999_999_999_999_999L);
+    }
+
+    @Test
+    public void ShouldDecodeTimestampsAfter2262() {
+        // Given
+        final List<RowType> rowTypes = List.of(rowType("VALID_TO", "timestamp_ntz", 0, 9));
+        final Instant sentinel = Instant.parse("9999-12-31T23:59:59.999999999Z");
+
+        // When
+        final ColumnarBatch batch = ColumnarBatch.read(rowTypes, List.<List<Object>>of(
+                List.<Object>of(sentinel.getEpochSecond() + ".999999999"),
+                List.<Object>of("-1.25")).iterator());
+
+        // Then
+        final TimestampColumn column = (TimestampColumn) batch.getColumn("VALID_TO");
+        assertThat(column.getInstant(0)).isEqualTo(sentinel);
+        assertThat(column.getSeconds(0)).isEqualTo(sentinel.getEpochSecond());
+        assertThat(column.getNano(0)).isEqualTo(999_999_999);
+        assertThatThrownBy(() -> column.getNanos(0)).isInstanceOf(ArithmeticException.class);
+        assertThat(column.getInstant(1)).isEqualTo(Instant.ofEpochSecond(-2, 750_000_000));
+        assertThat(column.getNanos(1)).isEqualTo(-1_250_000_000L);
+    }
+
+    /**
+     * Creates the type of a column.
+     *
+     * @param theName      The name of the column.
+     * @param theType      The Snowflake type of the column.
+     * @param thePrecision The precision of the column.
+     * @param theScale     The scale of the column.
+     * @return The type of the column.
+     */
+    private static RowType rowType(final String theName, final String theType, final long thePrecision,
+                                   final long theScale) {
+        final RowType rowType = new RowType();
+        rowType.setName(theName);
+        rowType.setType(theType);
+        rowType.setPrecision(thePrecision);
+        rowType.setScale(theScale);
+        return rowType;
+    }
+
+}
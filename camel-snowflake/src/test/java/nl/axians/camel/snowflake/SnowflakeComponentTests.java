@@ -0,0 +1,168 @@
+package nl.axians.camel.snowflake;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the sharing of clients by the {@link SnowflakeComponent} and the asynchronous processing of the
+ * {@link SnowflakeProducer}.
+ */
+public class SnowflakeComponentTests extends CamelTestSupport {
+
+    @EndpointInject("direct:submit")
+    private ProducerTemplate submitEndpoint;
+
+    @EndpointInject("mock:result")
+    private MockEndpoint resultEndpoint;
+
+    @Test
+    public void ShouldShareClientBetweenEndpointsWithSameCredentials() throws Exception {
+        // Given
+        final SnowflakeEndpoint submit = startEndpoint(uri(SnowflakeOperation.SubmitStatement, "client_secret"));
+        final SnowflakeEndpoint status = startEndpoint(uri(SnowflakeOperation.CheckStatementStatus, "client_secret"));
+
+        // When
+        final SnowflakeClient client = submit.getClient();
+
+        // Then
+        assertThat(client).isNotNull().isSameAs(status.getClient());
+    }
+
+    @Test
+    public void ShouldNotShareClientBetweenEndpointsWithDifferentSecrets() throws Exception {
+        // Given
+        final SnowflakeEndpoint submit = startEndpoint(uri(SnowflakeOperation.SubmitStatement, "client_secret"));
+        final SnowflakeEndpoint status = startEndpoint(uri(SnowflakeOperation.CheckStatementStatus, "other_secret"));
+
+        // When
+        final SnowflakeClient client = submit.getClient();
+
+        // Then
+        assertThat(client).isNotNull().isNotSameAs(status.getClient());
+    }
+
+    @Test
+    public void ShouldReleaseClientWhenLastEndpointStops() throws Exception {
+        // Given
+        final SnowflakeEndpoint submit = startEndpoint(uri(SnowflakeOperation.SubmitStatement, "client_secret"));
+        final SnowflakeEndpoint status = startEndpoint(uri(SnowflakeOperation.CheckStatementStatus, "client_secret"));
+        final SnowflakeClient client = submit.getClient();
+
+        // When
+        submit.stop();
+        final SnowflakeEndpoint cancel = startEndpoint(uri(SnowflakeOperation.CancelStatement, "client_secret"));
+        final SnowflakeClient afterFirstStop = cancel.getClient();
+        status.stop();
+        cancel.stop();
+        final SnowflakeClient afterLastStop = startEndpoint(uri(SnowflakeOperation.SubmitAndFetch, "client_secret"))
+                .getClient();
+
+        // Then
+        assertThat(submit.getClient()).isNull();
+        assertThat(afterFirstStop).isSameAs(client);
+        assertThat(afterLastStop).isNotNull().isNotSameAs(client);
+    }
+
+    @Test
+    public void ShouldContinueExchangeOnClientThread() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withDelay(Delay.milliseconds(200))
+                            .withBody("{\"statementHandle\":\"1234567890\"}"));
+
+            // When
+            final Exchange exchange = submitEndpoint.send(theExchange -> theExchange.getIn().setBody("SELECT 1"));
+
+            // Then
+            assertThat(exchange.getException()).isNull();
+            assertThat(exchange.getMessage().getBody(String.class)).isEqualTo("{\"statementHandle\":\"1234567890\"}");
+            resultEndpoint.expectedMessageCount(1);
+            resultEndpoint.assertIsSatisfied();
+            assertThat(resultEndpoint.getExchanges().get(0).getProperty("thread", String.class))
+                    .contains("SnowflakeHttpClient")
+                    .isNotEqualTo(Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Gets an endpoint from the context and starts it.
+     *
+     * @param theUri The URI of the endpoint.
+     * @return The started endpoint.
+     */
+    private SnowflakeEndpoint startEndpoint(final String theUri) {
+        final SnowflakeEndpoint endpoint = context.getEndpoint(theUri, SnowflakeEndpoint.class);
+        endpoint.start();
+        return endpoint;
+    }
+
+    /**
+     * Creates the URI of an endpoint that is not used by any route.
+     *
+     * @param theOperation    The operation of the endpoint.
+     * @param theClientSecret The client secret.
+     * @return The URI.
+     */
+    private static String uri(final SnowflakeOperation theOperation, final String theClientSecret) {
+        return Snowflake.uri(theOperation)
+                .baseUrl("http://localhost:1080/shared/api/v2")
+                .tokenUrl("http://localhost:1080/oauth/token")
+                .clientId("client_id")
+                .clientSecret(theClientSecret)
+                .scope("scope")
+                .build();
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() {
+                // @formatter:off
+                from("direct:submit")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .build())
+                    .process(exchange -> exchange.setProperty("thread", Thread.currentThread().getName()))
+                    .to("mock:result")
+                .end();
+                // @formatter:on
+            }
+
+        };
+    }
+
+}
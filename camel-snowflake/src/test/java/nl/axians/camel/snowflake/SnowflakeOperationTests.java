@@ -1,6 +1,12 @@
 package nl.axians.camel.snowflake;
 
+import nl.axians.camel.snowflake.columnar.ColumnarBatch;
+import nl.axians.camel.snowflake.columnar.DecimalColumn;
+import nl.axians.camel.snowflake.columnar.LongColumn;
+import nl.axians.camel.snowflake.columnar.StringColumn;
+import nl.axians.camel.snowflake.columnar.TimestampColumn;
 import org.apache.camel.EndpointInject;
+import org.apache.camel.Exchange;
 import org.apache.camel.ProducerTemplate;
 import org.apache.camel.RoutesBuilder;
 import org.apache.camel.builder.RouteBuilder;
@@ -8,10 +14,20 @@ import org.apache.camel.component.mock.MockEndpoint;
 import org.apache.camel.test.junit5.CamelTestSupport;
 import org.junit.jupiter.api.Test;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
+import org.mockserver.model.JsonBody;
 import org.mockserver.verify.VerificationTimes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -29,9 +45,30 @@ public class SnowflakeOperationTests extends CamelTestSupport {
     @EndpointInject("direct:cancel")
     private ProducerTemplate cancelEndpoint;
 
+    @EndpointInject("direct:fetch")
+    private ProducerTemplate fetchEndpoint;
+
+    @EndpointInject("direct:stream")
+    private ProducerTemplate streamEndpoint;
+
+    @EndpointInject("direct:columnar")
+    private ProducerTemplate columnarEndpoint;
+
+    @EndpointInject("direct:batch")
+    private ProducerTemplate batchEndpoint;
+
+    @EndpointInject("direct:async")
+    private ProducerTemplate asyncEndpoint;
+
+    @EndpointInject("direct:submitAndFetch")
+    private ProducerTemplate submitAndFetchEndpoint;
+
     @EndpointInject("mock:result")
     private MockEndpoint resultEndpoint;
 
+    @EndpointInject("mock:completed")
+    private MockEndpoint completedEndpoint;
+
     @Test
     public void ShouldSubmitStatements() throws Exception {
         try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
@@ -158,6 +195,513 @@ public class SnowflakeOperationTests extends CamelTestSupport {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ShouldFetchAllPartitions() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"statementHandle\":\"1234567890\",\"resultSetMetaData\":{\"numRows\":4,"
+                                    + "\"format\":\"jsonv2\",\"rowType\":[{\"name\":\"ID\",\"type\":\"fixed\"}],"
+                                    + "\"partitionInfo\":[{\"rowCount\":2},{\"rowCount\":1},{\"rowCount\":1}]},"
+                                    + "\"data\":[[\"1\"],[\"2\"]]}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890")
+                            .withQueryStringParameter("partition", "1"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"data\":[[\"3\"]]}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890")
+                            .withQueryStringParameter("partition", "2"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"data\":[[\"4\"]]}"));
+
+            // When
+            fetchEndpoint.sendBody("SELECT ID FROM Customer");
+
+            // Then
+            resultEndpoint.expectedMessageCount(1);
+            resultEndpoint.assertIsSatisfied();
+            final Iterator<List<Object>> rows = resultEndpoint.getExchanges().get(0).getIn().getBody(Iterator.class);
+            final List<List<Object>> result = new ArrayList<>();
+            rows.forEachRemaining(result::add);
+            assertThat(result).containsExactly(List.of("1"), List.of("2"), List.of("3"), List.of("4"));
+            assertThat(resultEndpoint.getExchanges().get(0).getIn().getHeader(Snowflake.SNOWFLAKE_STATEMENT_HANDLE))
+                    .isEqualTo("1234567890");
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"),
+                    VerificationTimes.exactly(2)
+            );
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ShouldStreamAllPartitions() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"resultSetMetaData\":{\"numRows\":3,\"format\":\"jsonv2\","
+                                    + "\"rowType\":[{\"name\":\"ID\",\"type\":\"fixed\"},{\"name\":\"NAME\",\"type\":\"text\"}],"
+                                    + "\"partitionInfo\":[{\"rowCount\":2},{\"rowCount\":1}]},"
+                                    + "\"data\":[[\"1\",\"Alice\"],[\"2\",null]],"
+                                    + "\"code\":\"090001\",\"statementHandle\":\"1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890")
+                            .withQueryStringParameter("partition", "1"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"data\":[[\"3\",\"Carol\"]]}"));
+
+            // When
+            streamEndpoint.sendBody("SELECT ID, NAME FROM Customer");
+
+            // Then
+            resultEndpoint.expectedMessageCount(1);
+            resultEndpoint.assertIsSatisfied();
+            final Iterator<List<Object>> rows = resultEndpoint.getExchanges().get(0).getIn().getBody(Iterator.class);
+            final List<List<Object>> result = new ArrayList<>();
+            rows.forEachRemaining(result::add);
+            assertThat(result).containsExactly(
+                    List.of("1", "Alice"), Arrays.asList("2", null), List.of("3", "Carol"));
+            assertThat(resultEndpoint.getExchanges().get(0).getIn().getHeader(Snowflake.SNOWFLAKE_STATEMENT_HANDLE))
+                    .isEqualTo("1234567890");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ShouldDecodeColumnarBatches() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"statementHandle\":\"1234567890\",\"resultSetMetaData\":{\"numRows\":3,"
+                                    + "\"format\":\"jsonv2\",\"rowType\":["
+                                    + "{\"name\":\"ID\",\"type\":\"fixed\",\"precision\":38,\"scale\":0},"
+                                    + "{\"name\":\"AMOUNT\",\"type\":\"fixed\",\"precision\":10,\"scale\":2},"
+                                    + "{\"name\":\"CREATED\",\"type\":\"timestamp_ntz\"},"
+                                    + "{\"name\":\"STATUS\",\"type\":\"text\"}],"
+                                    + "\"partitionInfo\":[{\"rowCount\":2},{\"rowCount\":1}]},"
+                                    + "\"data\":[[\"1\",\"12.50\",\"1700000000.000000001\",\"OPEN\"],"
+                                    + "[\"2\",null,\"1700000001.5\",\"OPEN\"]]}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890")
+                            .withQueryStringParameter("partition", "1"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"data\":[[\"3\",\"-0.75\",null,\"CLOSED\"]]}"));
+
+            // When
+            columnarEndpoint.sendBody("SELECT ID, AMOUNT, CREATED, STATUS FROM Orders");
+
+            // Then
+            resultEndpoint.expectedMessageCount(1);
+            resultEndpoint.assertIsSatisfied();
+            final Iterator<ColumnarBatch> batches = resultEndpoint.getExchanges().get(0).getIn().getBody(Iterator.class);
+            final ColumnarBatch first = batches.next();
+            assertThat(first.getRowCount()).isEqualTo(2);
+            assertThat(((DecimalColumn) first.getColumn("ID")).getBigDecimal(1)).isEqualByComparingTo("2");
+            assertThat(((LongColumn) first.getColumn("AMOUNT")).getLong(0)).isEqualTo(1250L);
+            assertThat(first.getColumn("AMOUNT").isNull(1)).isTrue();
+            assertThat(((TimestampColumn) first.getColumn("CREATED")).getNanos(0)).isEqualTo(1_700_000_000_000_000_001L);
+            assertThat(((TimestampColumn) first.getColumn("CREATED")).getNanos(1)).isEqualTo(1_700_000_001_500_000_000L);
+            assertThat(((StringColumn) first.getColumn("STATUS")).getDictionary()).containsExactly("OPEN");
+
+            final ColumnarBatch second = batches.next();
+            assertThat(second.getRowCount()).isEqualTo(1);
+            assertThat(((LongColumn) second.getColumn("AMOUNT")).getLong(0)).isEqualTo(-75L);
+            assertThat(second.getColumn("CREATED").isNull(0)).isTrue();
+            assertThat(second.getColumn("STATUS").getObject(0)).isEqualTo("CLOSED");
+            assertThat(batches.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void ShouldSubmitStatementWithBindings() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody(""));
+
+            // When
+            submitEndpoint.sendBodyAndHeader(Arrays.asList(42, "O'Brien", null),
+                    Snowflake.SNOWFLAKE_STATEMENT, "INSERT INTO Customer (ID, NAME, EMAIL) VALUES (?, ?, ?)");
+            submitEndpoint.sendBodyAndHeader("INSERT INTO Customer (ID, NAME, EMAIL) VALUES (?, ?, ?)",
+                    Snowflake.SNOWFLAKE_BINDINGS, Map.of(1, 43, 2, "Smith", 3, "smith@example.com"));
+
+            // Then
+            resultEndpoint.expectedMessageCount(2);
+            resultEndpoint.assertIsSatisfied();
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements")
+                            .withBody(JsonBody.json("{\"statement\":\"INSERT INTO Customer (ID, NAME, EMAIL) VALUES (?, ?, ?)\","
+                                    + "\"warehouse\":\"warehouse\",\"bindings\":{\"1\":{\"type\":\"FIXED\",\"value\":\"42\"},"
+                                    + "\"2\":{\"type\":\"TEXT\",\"value\":\"O'Brien\"},\"3\":{\"type\":\"TEXT\",\"value\":null}}}")),
+                    VerificationTimes.exactly(1)
+            );
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements")
+                            .withBody(JsonBody.json("{\"bindings\":{\"1\":{\"type\":\"FIXED\",\"value\":\"43\"},"
+                                    + "\"2\":{\"type\":\"TEXT\",\"value\":\"Smith\"},"
+                                    + "\"3\":{\"type\":\"TEXT\",\"value\":\"smith@example.com\"}}}")),
+                    VerificationTimes.exactly(1)
+            );
+        }
+    }
+
+    @Test
+    public void ShouldSubmitExchangesInBatches() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"statementHandle\":\"1234567890\",\"stats\":{\"numRowsInserted\":3}}"));
+
+            // When
+            final String statement = "INSERT INTO Event (ID, NAME) VALUES (?, ?)";
+            final List<Future<Exchange>> results = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                final int id = i;
+                results.add(batchEndpoint.asyncSend("direct:batch", exchange -> {
+                    exchange.getIn().setBody(List.of(id, "event" + id));
+                    exchange.getIn().setHeader(Snowflake.SNOWFLAKE_STATEMENT, statement);
+                }));
+            }
+
+            // Then
+            for (Future<Exchange> result : results) {
+                final Exchange exchange = result.get(10, TimeUnit.SECONDS);
+                assertThat(exchange.getException()).isNull();
+                assertThat(exchange.getMessage().getHeader(Snowflake.SNOWFLAKE_ROWS_INSERTED)).isEqualTo(3L);
+            }
+
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements")
+                            .withBody(JsonBody.json("{\"statement\":\"" + statement + "\",\"bindings\":{"
+                                    + "\"1\":{\"type\":\"FIXED\",\"value\":[\"1\",\"2\",\"3\"]},"
+                                    + "\"2\":{\"type\":\"TEXT\",\"value\":[\"event1\",\"event2\",\"event3\"]}}}")),
+                    VerificationTimes.exactly(1)
+            );
+        }
+    }
+
+    @Test
+    public void ShouldNotBatchStatementsOtherThanInserts() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"statementHandle\":\"1234567890\",\"stats\":{\"numRowsUpdated\":1}}"));
+
+            // When
+            final String statement = "UPDATE Event SET NAME = ? WHERE ID = ?";
+            final List<Exchange> results = new ArrayList<>();
+            for (int i = 1; i <= 2; i++) {
+                final int id = i;
+                results.add(batchEndpoint.send("direct:batch", exchange -> {
+                    exchange.getIn().setBody(List.of("event" + id, id));
+                    exchange.getIn().setHeader(Snowflake.SNOWFLAKE_STATEMENT, statement);
+                }));
+            }
+
+            // Then
+            for (Exchange exchange : results) {
+                assertThat(exchange.getException()).isNull();
+                assertThat(exchange.getMessage().getHeader(Snowflake.SNOWFLAKE_ROWS_INSERTED)).isNull();
+            }
+
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements")
+                            .withBody(JsonBody.json("{\"statement\":\"" + statement + "\",\"bindings\":{"
+                                    + "\"1\":{\"type\":\"TEXT\",\"value\":\"event1\"},"
+                                    + "\"2\":{\"type\":\"FIXED\",\"value\":\"1\"}}}")),
+                    VerificationTimes.exactly(1)
+            );
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"),
+                    VerificationTimes.exactly(2)
+            );
+        }
+    }
+
+    @Test
+    public void ShouldPollRunningBatchUntilCompleted() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\","
+                                    + "\"statementStatusUrl\":\"/api/v2/statements/1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"), Times.exactly(1))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"code\":\"090001\",\"statementHandle\":\"1234567890\","
+                                    + "\"stats\":{\"numRowsInserted\":3}}"));
+
+            // When
+            final String statement = "INSERT INTO Event (ID, NAME) VALUES (?, ?)";
+            final List<Future<Exchange>> results = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                final int id = i;
+                results.add(batchEndpoint.asyncSend("direct:batch", exchange -> {
+                    exchange.getIn().setBody(List.of(id, "event" + id));
+                    exchange.getIn().setHeader(Snowflake.SNOWFLAKE_STATEMENT, statement);
+                }));
+            }
+
+            // Then
+            for (Future<Exchange> result : results) {
+                final Exchange exchange = result.get(10, TimeUnit.SECONDS);
+                assertThat(exchange.getException()).isNull();
+                assertThat(exchange.getMessage().getHeader(Snowflake.SNOWFLAKE_STATEMENT_HANDLE)).isEqualTo("1234567890");
+                assertThat(exchange.getMessage().getHeader(Snowflake.SNOWFLAKE_ROWS_INSERTED)).isEqualTo(3L);
+            }
+
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"),
+                    VerificationTimes.exactly(1)
+            );
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"),
+                    VerificationTimes.exactly(2)
+            );
+        }
+    }
+
+    @Test
+    public void ShouldPollAsynchronousStatementUntilCompleted() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\","
+                                    + "\"statementStatusUrl\":\"/api/v2/statements/1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"), Times.exactly(2))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"code\":\"090001\",\"statementHandle\":\"1234567890\",\"data\":[[\"1\"]]}"));
+
+            // When
+            asyncEndpoint.sendBody("SELECT ID FROM Customer");
+
+            // Then
+            completedEndpoint.expectedMessageCount(1);
+            completedEndpoint.expectedHeaderReceived(Snowflake.SNOWFLAKE_STATEMENT_HANDLE, "1234567890");
+            completedEndpoint.expectedHeaderReceived(Snowflake.SNOWFLAKE_STATEMENT_STATUS, SnowflakeConsumer.STATUS_SUCCESS);
+            completedEndpoint.setResultWaitTime(10000);
+            completedEndpoint.assertIsSatisfied();
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"),
+                    VerificationTimes.exactly(3)
+            );
+        }
+    }
+
+    @Test
+    public void ShouldSubmitWaitAndFetchAllPartitions() throws Exception {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/oauth/token")
+                            .withBody("grant_type=client_credentials&client_id=client_id&client_secret=client_secret&scope=scope"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("POST")
+                            .withPath("/api/v2/statements"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\","
+                                    + "\"statementStatusUrl\":\"/api/v2/statements/1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890")
+                            .withQueryStringParameter("partition", "1"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"data\":[[\"3\"]]}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"), Times.exactly(1))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(202)
+                            .withBody("{\"code\":\"333334\",\"statementHandle\":\"1234567890\"}"));
+
+            mockServer.when(HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"))
+                    .respond(HttpResponse.response()
+                            .withStatusCode(200)
+                            .withBody("{\"statementHandle\":\"1234567890\",\"resultSetMetaData\":{\"numRows\":3,"
+                                    + "\"format\":\"jsonv2\",\"rowType\":[{\"name\":\"ID\",\"type\":\"fixed\"}],"
+                                    + "\"partitionInfo\":[{\"rowCount\":2},{\"rowCount\":1}]},"
+                                    + "\"data\":[[\"1\"],[\"2\"]]}"));
+
+            // When
+            submitAndFetchEndpoint.sendBody("SELECT ID FROM Customer");
+
+            // Then
+            resultEndpoint.expectedMessageCount(1);
+            resultEndpoint.setResultWaitTime(10000);
+            resultEndpoint.assertIsSatisfied();
+            assertThat(resultEndpoint.getExchanges().get(0).getIn().getBody(List.class))
+                    .containsExactly(List.of("1"), List.of("2"), List.of("3"));
+            assertThat(resultEndpoint.getExchanges().get(0).getIn().getHeader(Snowflake.SNOWFLAKE_STATEMENT_HANDLE))
+                    .isEqualTo("1234567890");
+            mockServer.verify(
+                    HttpRequest.request()
+                            .withMethod("GET")
+                            .withPath("/api/v2/statements/1234567890"),
+                    VerificationTimes.exactly(3)
+            );
+        }
+    }
+
     @Test
     public void ShouldThrowExceptionWhenStatementHandleHeaderIsMissing() {
         try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
@@ -212,6 +756,12 @@ public class SnowflakeOperationTests extends CamelTestSupport {
                 buildSubmitStatementsRoute();
                 buildCheckStatementStatusRoute();
                 buildCancelStatementRoute();
+                buildFetchPartitionsRoute();
+                buildStreamResultsRoute();
+                buildColumnarRoute();
+                buildBatchRoute();
+                buildAsyncRoutes();
+                buildSubmitAndFetchRoute();
             }
 
             /**
@@ -283,6 +833,161 @@ public class SnowflakeOperationTests extends CamelTestSupport {
                 // @formatter:on
             }
 
+            /**
+             * Builds a route that submits a statement and fetches all partitions of the result set.
+             */
+            private void buildFetchPartitionsRoute() {
+                // @formatter:off
+                from("direct:fetch")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .fetchPartitions(true)
+                        .partitionConcurrency(2)
+                        .build())
+                    .to("mock:result")
+                .end();
+                // @formatter:on
+            }
+
+            /**
+             * Builds a route that submits a statement and streams all partitions of the result set.
+             */
+            private void buildStreamResultsRoute() {
+                // @formatter:off
+                from("direct:stream")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .fetchPartitions(true)
+                        .streamResults(true)
+                        .build())
+                    .to("mock:result")
+                .end();
+                // @formatter:on
+            }
+
+            /**
+             * Builds a route that submits a statement and decodes all partitions of the result set into columnar batches.
+             */
+            private void buildColumnarRoute() {
+                // @formatter:off
+                from("direct:columnar")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .fetchPartitions(true)
+                        .columnar(true)
+                        .build())
+                    .to("mock:result")
+                .end();
+                // @formatter:on
+            }
+
+            /**
+             * Builds a route that submits statements with bindings in batches.
+             */
+            private void buildBatchRoute() {
+                // @formatter:off
+                from("direct:batch")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .batchMaxRows(3)
+                        .batchMaxLatency(5000)
+                        .pollInitialDelay(100)
+                        .pollMaxDelay(400)
+                        .build())
+                .end();
+                // @formatter:on
+            }
+
+            /**
+             * Builds a route that submits statements asynchronously and a route that receives their results.
+             */
+            private void buildAsyncRoutes() {
+                // @formatter:off
+                from("direct:async")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .async(true)
+                        .pollInitialDelay(100)
+                        .pollMaxDelay(400)
+                        .build())
+                .end();
+
+                from(Snowflake.uri(SnowflakeOperation.CheckStatementStatus)
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .build())
+                    .to("mock:completed")
+                .end();
+                // @formatter:on
+            }
+
+            /**
+             * Builds a route that submits statements, waits for them to complete and fetches all partitions.
+             */
+            private void buildSubmitAndFetchRoute() {
+                // @formatter:off
+                from("direct:submitAndFetch")
+                    .to(Snowflake.uri(SnowflakeOperation.SubmitAndFetch)
+                        .warehouse("warehouse")
+                        .database("database")
+                        .schema("schema")
+                        .role("role")
+                        .baseUrl("http://localhost:1080/api/v2")
+                        .tokenUrl("http://localhost:1080/oauth/token")
+                        .clientId("client_id")
+                        .clientSecret("client_secret")
+                        .scope("scope")
+                        .pollInitialDelay(100)
+                        .pollMaxDelay(400)
+                        .build())
+                    .to("mock:result")
+                .end();
+                // @formatter:on
+            }
+
         };
     }
 
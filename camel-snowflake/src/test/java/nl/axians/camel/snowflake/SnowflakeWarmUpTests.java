@@ -0,0 +1,137 @@
+package nl.axians.camel.snowflake;
+
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.verify.VerificationTimes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the warm-up of the token and the connection to the Snowflake API when a {@link SnowflakeEndpoint} starts.
+ */
+public class SnowflakeWarmUpTests extends CamelTestSupport {
+
+    private static final HttpRequest TOKEN_REQUEST = HttpRequest.request()
+            .withMethod("POST")
+            .withPath("/oauth/token");
+
+    private static final HttpRequest HEAD_REQUEST = HttpRequest.request()
+            .withMethod("HEAD")
+            .withPath("/api/v2");
+
+    @Test
+    public void ShouldFetchTokenAndOpenConnectionWhenEndpointStarts() {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(TOKEN_REQUEST).respond(tokenResponse());
+            mockServer.when(HEAD_REQUEST).respond(HttpResponse.response().withStatusCode(200));
+
+            // When
+            final SnowflakeEndpoint endpoint = startEndpoint(uri("warm_up_client").warmUp(true).build());
+
+            // Then
+            assertThat(endpoint.getClient()).isNotNull();
+            mockServer.verify(TOKEN_REQUEST, VerificationTimes.exactly(1));
+            mockServer.verify(HEAD_REQUEST, VerificationTimes.exactly(1));
+        }
+    }
+
+    @Test
+    public void ShouldFailStartWhenWarmUpFailsAndFailOnErrorIsSet() {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(TOKEN_REQUEST).respond(HttpResponse.response()
+                    .withStatusCode(401)
+                    .withBody("{\"error\":\"invalid_client\"}"));
+            mockServer.when(HEAD_REQUEST).respond(HttpResponse.response().withStatusCode(200));
+            final String uri = uri("failing_client").warmUp(true).warmUpFailOnError(true).build();
+
+            // When / Then
+            assertThatThrownBy(() -> startEndpoint(uri))
+                    .hasStackTraceContaining("Failed to warm up Snowflake endpoint for http://localhost:1080/api/v2")
+                    .hasStackTraceContaining("invalid_client");
+            mockServer.verify(TOKEN_REQUEST, VerificationTimes.exactly(1));
+        }
+    }
+
+    @Test
+    public void ShouldStartWhenWarmUpFailsWithoutFailOnError() {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(TOKEN_REQUEST).respond(HttpResponse.response()
+                    .withStatusCode(401)
+                    .withBody("{\"error\":\"invalid_client\"}"));
+            mockServer.when(HEAD_REQUEST).respond(HttpResponse.response().withStatusCode(200));
+
+            // When
+            final SnowflakeEndpoint endpoint = startEndpoint(uri("lenient_client").warmUp(true).build());
+
+            // Then
+            assertThat(endpoint.isStarted()).isTrue();
+            assertThat(endpoint.getClient()).isNotNull();
+            mockServer.verify(TOKEN_REQUEST, VerificationTimes.exactly(1));
+        }
+    }
+
+    @Test
+    public void ShouldFailStartWhenWarmUpTimesOutAndFailOnErrorIsSet() {
+        try (final ClientAndServer mockServer = ClientAndServer.startClientAndServer(1080)) {
+            // Given
+            mockServer.when(TOKEN_REQUEST).respond(tokenResponse());
+            mockServer.when(HEAD_REQUEST).respond(HttpResponse.response()
+                    .withStatusCode(200)
+                    .withDelay(Delay.seconds(3)));
+            final String uri = uri("slow_client").warmUp(true).warmUpTimeout(1).warmUpFailOnError(true).build();
+
+            // When / Then
+            assertThatThrownBy(() -> startEndpoint(uri))
+                    .hasStackTraceContaining("Failed to warm up Snowflake endpoint for http://localhost:1080/api/v2: "
+                            + "not completed within 1 seconds");
+        }
+    }
+
+    /**
+     * Gets an endpoint from the context and starts it.
+     *
+     * @param theUri The URI of the endpoint.
+     * @return The started endpoint.
+     */
+    private SnowflakeEndpoint startEndpoint(final String theUri) {
+        final SnowflakeEndpoint endpoint = context.getEndpoint(theUri, SnowflakeEndpoint.class);
+        endpoint.start();
+        return endpoint;
+    }
+
+    /**
+     * Creates the URI builder of an endpoint with its own client id, so the endpoints of different tests do not share a
+     * token.
+     *
+     * @param theClientId The client id.
+     * @return The URI builder.
+     */
+    private static Snowflake.URIBuilder uri(final String theClientId) {
+        return Snowflake.uri(SnowflakeOperation.SubmitStatement)
+                .baseUrl("http://localhost:1080/api/v2")
+                .tokenUrl("http://localhost:1080/oauth/token")
+                .clientId(theClientId)
+                .clientSecret("client_secret")
+                .scope("scope");
+    }
+
+    /**
+     * Creates a successful response of the token endpoint.
+     *
+     * @return The response.
+     */
+    private static HttpResponse tokenResponse() {
+        return HttpResponse.response()
+                .withStatusCode(200)
+                .withBody("{\"access_token\":\"access_token\",\"token_type\":\"bearer\",\"expires_in\":3600}");
+    }
+
+}